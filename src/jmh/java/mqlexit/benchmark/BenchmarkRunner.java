@@ -0,0 +1,92 @@
+package benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+// Startet alle Benchmarks mit GC-Profiler (Allokationsrate) und schreibt das vollständige Ergebnis als JSON.
+// Daneben entsteht eine Zusammenfassung (Score, Fehler, Allokation je Operation) ohne Rohdaten und ohne
+// Maschinenpfade; in diesem Format liegt benchmarks/baseline.json als Vergleichswert im Repository.
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String resultFile = args.length > 0 ? args[0] : "benchmarks/result.json";
+        String include = args.length > 1 ? args[1] : ".*Benchmark.*";
+        String summaryFile = args.length > 2 ? args[2] : "benchmarks/summary.json";
+
+        // Zwei Forks und genug Messungen, damit der Fehlerbalken deutlich unter dem Score liegt
+        Options options = new OptionsBuilder()
+            .include(include)
+            .addProfiler(GCProfiler.class)
+            .forks(2)
+            .warmupIterations(5)
+            .warmupTime(TimeValue.seconds(1))
+            .measurementIterations(5)
+            .measurementTime(TimeValue.seconds(2))
+            .resultFormat(ResultFormatType.JSON)
+            .result(resultFile)
+            .build();
+        Collection<RunResult> results = new Runner(options).run();
+        writeSummary(results, Path.of(summaryFile));
+    }
+
+    private static void writeSummary(Collection<RunResult> results, Path summaryFile) throws IOException {
+        List<RunResult> sorted = new ArrayList<>(results);
+        sorted.sort(Comparator.comparing(BenchmarkRunner::describe));
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 0; i < sorted.size(); i++) {
+            RunResult result = sorted.get(i);
+            BenchmarkParams params = result.getParams();
+            Result<?> primary = result.getPrimaryResult();
+            json.append("    {\"benchmark\": \"").append(params.getBenchmark()).append('"');
+            json.append(", \"params\": {");
+            List<String> keys = new ArrayList<>(params.getParamsKeys());
+            for (int k = 0; k < keys.size(); k++) {
+                json.append(k > 0 ? ", " : "").append('"').append(keys.get(k)).append("\": \"")
+                    .append(params.getParam(keys.get(k))).append('"');
+            }
+            json.append("}, \"mode\": \"").append(params.getMode().shortLabel()).append('"');
+            json.append(", \"score\": ").append(number(primary.getScore()));
+            json.append(", \"scoreError\": ").append(number(primary.getScoreError()));
+            json.append(", \"scoreUnit\": \"").append(primary.getScoreUnit()).append('"');
+            Result<?> alloc = result.getSecondaryResults().get("gc.alloc.rate.norm");
+            if (alloc != null) {
+                json.append(", \"allocBytesPerOp\": ").append(number(alloc.getScore()));
+            }
+            json.append(i + 1 < sorted.size() ? "},\n" : "}\n");
+        }
+        json.append("]\n");
+        Files.writeString(summaryFile, json, StandardCharsets.UTF_8);
+    }
+
+    private static String describe(RunResult result) {
+        BenchmarkParams params = result.getParams();
+        StringBuilder key = new StringBuilder(params.getBenchmark());
+        for (String name : params.getParamsKeys()) {
+            // Zahlenparameter numerisch sortieren
+            key.append(' ').append(name).append('=').append(String.format("%10s", params.getParam(name)));
+        }
+        return key.toString();
+    }
+
+    private static String number(double value) {
+        return Double.isNaN(value) ? "null" : String.format(Locale.ROOT, "%.3f", value);
+    }
+}
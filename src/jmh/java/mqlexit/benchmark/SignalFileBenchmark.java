@@ -0,0 +1,62 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import analyzer.TradeRow;
+import analyzer.TradeTableParser;
+import publish.SignalFilePublisher;
+
+// Schreiben der signal.txt (früher writeSignalFile) inklusive Sicherung in oldsignals
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SignalFileBenchmark {
+    @Param({"1", "10", "100", "500"})
+    public int trades;
+
+    private Path workDir;
+    private SignalFilePublisher publisher;
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("signalfile-bench");
+        publisher = new SignalFilePublisher(workDir.resolve("signal.txt"));
+        StringBuilder text = new StringBuilder();
+        for (TradeRow trade : TradeTableParser.parseTrades(SignalPages.page(trades, 0, 0))) {
+            trade.appendColumns(text, ",");
+            text.append('\n');
+        }
+        content = text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(workDir)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public void publish() throws IOException {
+        publisher.publish(content);
+    }
+}
@@ -0,0 +1,54 @@
+package benchmark;
+
+// Erzeugt Signalseiten im Aufbau der mql5-Seite: Kopf, Navigation und Skripte um die Trade-Tabelle herum
+public final class SignalPages {
+    private static final String[] SYMBOLS = {"EURUSD", "GBPUSD", "USDJPY", "XAUUSD", "AUDCAD", "NZDUSD", "US30", "GER40"};
+    private static final String[] TYPES = {"Buy", "Sell", "Buy Stop", "Sell Stop"};
+
+    private SignalPages() {
+    }
+
+    // paddingKb steuert die Größe des Umfelds, echte Seiten liegen bei einigen hundert KB
+    public static String page(int trades, int paddingKb, int variant) {
+        StringBuilder page = new StringBuilder(paddingKb * 1024 + trades * 600 + 4096);
+        page.append("<!DOCTYPE html><html><head><title>Signal</title>");
+        appendPadding(page, paddingKb / 2);
+        page.append("</head><body><div class=\"signals-table\"><table class=\"signals-table\">")
+            .append("<thead><tr><th>Symbol</th><th>Time</th><th>Type</th><th>Volume</th><th>Price</th>")
+            .append("<th>S/L</th><th>T/P</th><th>Market Price</th><th>Swap</th><th>Profit</th></tr></thead><tbody>\n");
+        for (int i = 0; i < trades; i++) {
+            appendRow(page, i, variant);
+        }
+        page.append("</tbody></table></div>");
+        appendPadding(page, paddingKb - paddingKb / 2);
+        page.append("</body></html>");
+        return page.toString();
+    }
+
+    private static void appendRow(StringBuilder page, int i, int variant) {
+        String symbol = SYMBOLS[i % SYMBOLS.length];
+        page.append("<tr class=\"signals-table__row\">\n")
+            .append("  <td data-label=\"Symbol\" class=\"signals-table__symbol\">").append(symbol).append("</td>\n")
+            .append("  <td data-label=\"Time\">2024.").append(String.format("%02d.%02d %02d:%02d:%02d",
+                1 + i % 12, 1 + i % 28, i % 24, i % 60, (i * 7) % 60)).append("</td>\n")
+            .append("  <td data-label=\"Type\">").append(TYPES[i % TYPES.length]).append("</td>\n")
+            .append("  <td data-label=\"Volume\">").append(0.01 * (1 + i % 50)).append("</td>\n")
+            .append("  <td data-label=\"Price\">1.").append(10000 + i).append("</td>\n")
+            .append("  <td data-label=\"S/L\">&nbsp;1.").append(9000 + i + variant).append("</td>\n")
+            .append("  <td data-label=\"T/P\">1.").append(12000 + i).append("&nbsp;</td>\n")
+            .append("  <td data-label=\"Market Price\">1.").append(10050 + i).append("</td>\n")
+            .append("  <td data-label=\"Swap\">-0.").append(i % 100).append("</td>\n")
+            .append("  <td data-label=\"Profit\"><span class=\"profit\">").append(i % 37).append(".00</span></td>\n")
+            .append("</tr>\n");
+    }
+
+    private static void appendPadding(StringBuilder page, int kilobytes) {
+        int target = page.length() + kilobytes * 1024;
+        int block = 0;
+        while (page.length() < target) {
+            page.append("<div class=\"nav__item\" data-id=\"").append(block++)
+                .append("\"><a href=\"/en/signals/mt5?page=").append(block)
+                .append("\" class=\"nav__link\">Signals</a><script>window.dataLayer.push({\"event\":\"view\"});</script></div>\n");
+        }
+    }
+}
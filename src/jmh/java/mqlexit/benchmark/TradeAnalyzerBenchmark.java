@@ -0,0 +1,80 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import analyzer.AnalysisResult;
+import analyzer.TradeAnalyzer;
+import journal.TradeJournal;
+
+// Kompletter Analysepfad: analyzeHtmlFile liest die gespeicherte Seite, analyzeChanging wechselt
+// zwischen zwei Ständen, damit bei jedem Aufruf logTrade und writeSignalFile laufen
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TradeAnalyzerBenchmark {
+    @Param({"0", "1", "10", "100", "500"})
+    public int trades;
+
+    private Path workDir;
+    private String pageFile;
+    private String pageA;
+    private String pageB;
+    private TradeJournal journal;
+    private TradeAnalyzer analyzer;
+    private boolean toggle;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("tradeanalyzer-bench");
+        pageA = SignalPages.page(trades, 300, 0);
+        pageB = SignalPages.page(trades, 300, 1);
+        pageFile = workDir.resolve("page.html").toString();
+        Files.writeString(Path.of(pageFile), pageA);
+        journal = TradeJournal.open(workDir.resolve("journal"));
+        analyzer = new TradeAnalyzer(
+            journal,
+            null,
+            null,
+            "bench",
+            workDir.resolve("signals").toString(),
+            Collections.emptyList(),
+            workDir.resolve("trade_state.txt").toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(workDir)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public AnalysisResult analyzeHtmlFile() {
+        return analyzer.analyzeHtmlFile(pageFile);
+    }
+
+    @Benchmark
+    public AnalysisResult analyzeChanging() {
+        toggle = !toggle;
+        return analyzer.analyze(toggle ? pageA : pageB);
+    }
+}
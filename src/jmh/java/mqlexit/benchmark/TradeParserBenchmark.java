@@ -0,0 +1,49 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import analyzer.TradeSet;
+import analyzer.TradeTableParser;
+
+// Extraktion der Trade-Zeilen (früher extractTradeInfo) ohne Dateizugriff
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TradeParserBenchmark {
+    @Param({"0", "1", "10", "100", "500"})
+    public int trades;
+
+    @Param({"300", "2048"})
+    public int paddingKb;
+
+    private String page;
+    private final TradeTableParser parser = new TradeTableParser();
+    private final TradeSet tradeSet = new TradeSet();
+
+    @Setup
+    public void setUp() {
+        page = SignalPages.page(trades, paddingKb, 0);
+    }
+
+    @Benchmark
+    public int parse(Blackhole blackhole) {
+        return parser.parse(page, blackhole::consume);
+    }
+
+    // Wie im Abrufpfad: in ein wiederverwendetes TradeSet, ohne Objekte je Zeile
+    @Benchmark
+    public TradeSet parsePooled() {
+        parser.parse(page, tradeSet);
+        return tradeSet;
+    }
+}
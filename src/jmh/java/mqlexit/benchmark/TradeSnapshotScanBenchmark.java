@@ -0,0 +1,93 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import analyzer.TradeRow;
+import analyzer.TradeTableParser;
+import export.TradeColumns;
+import export.TradeSnapshotExport;
+import export.TradeSnapshotReader;
+
+// Lesen der spaltenweisen Trade-Listen über mehrere Tage: snapshots Listen je Tag mit je trades Zeilen,
+// bei den Standardwerten 3 x 50000 x 20 = 3 Millionen Zeilen pro Durchlauf
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TradeSnapshotScanBenchmark {
+    private static final String PROVIDER = "12345";
+    private static final int DAYS = 3;
+
+    @Param({"50000"})
+    public int snapshots;
+
+    @Param({"20"})
+    public int trades;
+
+    private Path workDir;
+    private TradeSnapshotReader reader;
+    private final TradeColumns columns = new TradeColumns();
+    private long from;
+    private long to;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("snapshot-bench");
+        List<TradeRow> rows = TradeTableParser.parseTrades(SignalPages.page(trades, 0, 0));
+        from = LocalDate.of(2024, 3, 1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long step = TimeUnit.DAYS.toMillis(1) / snapshots;
+        try (TradeSnapshotExport export = new TradeSnapshotExport(workDir)) {
+            for (int day = 0; day < DAYS; day++) {
+                long dayStart = from + TimeUnit.DAYS.toMillis(day);
+                for (int i = 0; i < snapshots; i++) {
+                    export.append(PROVIDER, dayStart + i * step, rows);
+                }
+            }
+        }
+        to = from + TimeUnit.DAYS.toMillis(DAYS) - 1;
+        reader = new TradeSnapshotReader(workDir);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        reader.close();
+        try (Stream<Path> files = Files.walk(workDir)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    // Summe aller Volumen, damit die Spalten auch tatsächlich gelesen werden
+    @Benchmark
+    public double scan() throws IOException {
+        double[] volume = new double[1];
+        long rows = reader.scan(PROVIDER, from, to, columns, day -> {
+            double[] values = day.volume();
+            for (int i = 0; i < day.size(); i++) {
+                volume[0] += values[i];
+            }
+        });
+        if (rows != (long) DAYS * snapshots * trades) {
+            throw new IllegalStateException("Scanned " + rows + " rows");
+        }
+        return volume[0];
+    }
+}
@@ -0,0 +1,38 @@
+package monitor;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import benchmark.SignalPages;
+
+// Liegt im Paket monitor, weil containsTradeSignal nur paketweit sichtbar ist
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ContainsTradeSignalBenchmark {
+    @Param({"0", "1", "500"})
+    public int trades;
+
+    @Param({"300", "2048"})
+    public int paddingKb;
+
+    private String page;
+
+    @Setup
+    public void setUp() {
+        page = SignalPages.page(trades, paddingKb, 0);
+    }
+
+    @Benchmark
+    public boolean containsTradeSignal() {
+        return TradeMonitor.containsTradeSignal(page);
+    }
+}
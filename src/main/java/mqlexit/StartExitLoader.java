@@ -1,20 +1,62 @@
 // StartExitLoader.java
-import org.openqa.selenium.WebDriver;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import archive.AsyncPageArchive;
+import archive.PackedPageArchive;
+import archive.PageArchive;
+import archive.RawHtmlArchive;
+import browser.BrowserSessionPool;
+import browser.CookieStore;
+import browser.HttpPageFetcher;
 import browser.WebDriverManagerE;
+import config.ConfigWatcher;
 import config.ConfigurationManagerE;
 import config.CredentialsE;
+import events.EventFanout;
+import events.RingFileEventSink;
+import events.SocketEventServer;
+import events.TradeEventSink;
+import export.TradeSnapshotExport;
+import journal.TradeJournal;
 import logging.LoggerManagerE;
+import metrics.MetricsHttpServer;
+import metrics.MetricsRegistry;
+import monitor.MonitoringEngine;
 import monitor.TradeMonitor;
+import replay.ReplayRunner;
+import resilience.ResiliencePolicy;
 
 public class StartExitLoader {
     private static final String BASE_PATH = "C:\\tmp\\mql5";
+    private static final String TRADES_PATH = BASE_PATH + "\\aktTrades";
 
     public StartExitLoader() {}
 
     public static void main(String[] args) {
-        TradeMonitor monitor = null;
-        WebDriver driverE = null;
-        WebDriverManagerE webDriverManager = null;
+        if (args.length > 0 && args[0].equals("--replay")) {
+            replay(args);
+            return;
+        }
+        MonitoringEngine engine = null;
+        BrowserSessionPool sessionPool = null;
+        PageArchive pageArchive = null;
+        MetricsHttpServer metricsServer = null;
+        TradeJournal journal = null;
+        TradeSnapshotExport snapshotExport = null;
+        List<TradeEventSink> eventSinks = new ArrayList<>();
+        MonitorFactory monitorFactory = null;
+        ConfigWatcher configWatcher = null;
         
         try {
             LoggerManagerE.info("Starting application...");
@@ -23,28 +65,105 @@ public class StartExitLoader {
             ConfigurationManagerE configManager = new ConfigurationManagerE(BASE_PATH);
             configManager.initializeDirectories();
 
+            // Ab hier laufen Logger, Start der ersten Browser-Session samt Login-Formular und der übrige Aufbau
+            // parallel; Einträge vor der Initialisierung des Loggers werden nachgeschrieben
             LoggerManagerE.info("Initializing logger...");
-            LoggerManagerE.initializeLogger(configManager.getLogConfigPath());
+            CompletableFuture<Void> loggerReady = CompletableFuture.runAsync(() -> LoggerManagerE.initializeLogger(
+                configManager.getLogConfigPath(), configManager.getLogLevel(),
+                configManager.getLogMaxFileBytes(), configManager.getLogMaxFiles()));
 
             LoggerManagerE.info("Getting credentials...");
             CredentialsE credentials = configManager.getOrCreateCredentials();
 
-            LoggerManagerE.info("Initializing WebDriver...");
-            webDriverManager = new WebDriverManagerE(configManager.getDownloadPath());
-            driverE = webDriverManager.initializeDriver();
-
-            LoggerManagerE.info("Setting up monitor...");
-            monitor = new TradeMonitor(
-                driverE,
-                BASE_PATH + "\\aktTrades",
-                configManager.getSignalId(),
-                credentials,
-                webDriverManager,
-                configManager.getSignalDirPath()
+            LoggerManagerE.info("Initializing browser session pool...");
+            WebDriverManagerE webDriverManager = new WebDriverManagerE(configManager.getDownloadPath(),
+                configManager.getChromeDriverPath(), configManager.useOfflineDriverResolution());
+            String sessionStorePath = configManager.getSessionStorePath();
+            CookieStore cookieStore = sessionStorePath != null
+                ? new CookieStore(Paths.get(sessionStorePath), credentials)
+                : null;
+            ResiliencePolicy resilience = configManager.getResiliencePolicy();
+            sessionPool = new BrowserSessionPool(webDriverManager, credentials, configManager.getSessionPoolSize(), cookieStore,
+                resilience.breakerFor("login"));
+            CompletableFuture<Void> firstSession = sessionPool.prewarm();
+
+            LoggerManagerE.info("Initializing metrics...");
+            MetricsRegistry.get().registerJmx();
+            int metricsPort = configManager.getMetricsPort();
+            if (metricsPort > 0) {
+                try {
+                    metricsServer = new MetricsHttpServer(MetricsRegistry.get(), metricsPort);
+                } catch (IOException e) {
+                    LoggerManagerE.error("Could not start metrics endpoint on port " + metricsPort + ": " + e.getMessage());
+                }
+            }
+
+            LoggerManagerE.info("Setting up monitors...");
+            HttpPageFetcher httpFetcher = null;
+            if (configManager.getFetchMode().equals("http")) {
+                LoggerManagerE.info("Using HTTP fetch mode, browser is only used for login");
+                httpFetcher = new HttpPageFetcher(Duration.ofSeconds(30));
+            }
+            journal = TradeJournal.open(Paths.get(TRADES_PATH, "journal"));
+            String snapshotExportPath = configManager.getSnapshotExportPath();
+            if (snapshotExportPath != null) {
+                snapshotExport = new TradeSnapshotExport(Paths.get(snapshotExportPath));
+            }
+            String archiveMode = configManager.getArchiveMode();
+            if (archiveMode.equals("raw")) {
+                pageArchive = new AsyncPageArchive(new RawHtmlArchive(TRADES_PATH), 64);
+            } else if (archiveMode.equals("packed")) {
+                pageArchive = new AsyncPageArchive(new PackedPageArchive(TRADES_PATH), 64);
+            }
+            engine = new MonitoringEngine(
+                sessionPool,
+                configManager.getWorkerThreads(),
+                configManager.useVirtualThreads(),
+                configManager.getMaxFetchesPerMinute(),
+                configManager.getPollJitter(),
+                configManager.getHealthCheckInterval(),
+                configManager.getCycleTimeout(),
+                Clock.systemUTC()
             );
+            // Ereignis-Feeds sind für alle Signale gemeinsam, die Ringdatei liegt je Signal neben der signal.txt
+            List<TradeEventSink> sharedFeeds = new ArrayList<>();
+            int eventPort = configManager.getEventPort();
+            if (eventPort > 0) {
+                try {
+                    sharedFeeds.add(SocketEventServer.tcp(eventPort));
+                } catch (IOException e) {
+                    LoggerManagerE.error("Could not start trade event feed on port " + eventPort + ": " + e.getMessage());
+                }
+            }
+            String eventSocketPath = configManager.getEventSocketPath();
+            if (eventSocketPath != null) {
+                try {
+                    sharedFeeds.add(SocketEventServer.unixSocket(Paths.get(eventSocketPath)));
+                } catch (IOException | UnsupportedOperationException e) {
+                    LoggerManagerE.error("Could not start trade event socket " + eventSocketPath + ": " + e.getMessage());
+                }
+            }
+            eventSinks.addAll(sharedFeeds);
+            monitorFactory = new MonitorFactory(configManager, sessionPool, httpFetcher, pageArchive, journal,
+                snapshotExport, sharedFeeds, resilience);
+            applyConfig(engine, configManager, monitorFactory);
+
+            loggerReady.join();
+            try {
+                firstSession.join();
+            } catch (CompletionException e) {
+                // engine.start() versucht es noch einmal und meldet den Fehler
+                LoggerManagerE.error("Could not prepare first browser session: " + e.getCause().getMessage());
+            }
             
             LoggerManagerE.info("Starting monitoring...");
-            monitor.startMonitoring();
+            engine.start();
+
+            // Änderungen an conf.txt werden ohne Neustart übernommen
+            MonitoringEngine runningEngine = engine;
+            MonitorFactory runningFactory = monitorFactory;
+            configWatcher = new ConfigWatcher(configManager,
+                () -> applyConfig(runningEngine, configManager, runningFactory));
             
             LoggerManagerE.info("Application running. Press Ctrl+C to stop.");
             Thread.sleep(Long.MAX_VALUE);
@@ -53,19 +172,207 @@ public class StartExitLoader {
             LoggerManagerE.error("Error in main process: " + e.getMessage());
             e.printStackTrace();
         } finally {
-            if (monitor != null) {
-                LoggerManagerE.info("Stopping monitor...");
-                monitor.stopMonitoring();
+            if (configWatcher != null) {
+                configWatcher.close();
+            }
+            if (engine != null) {
+                LoggerManagerE.info("Stopping monitors...");
+                engine.stop();
+            } else if (sessionPool != null) {
+                LoggerManagerE.info("Closing browser sessions...");
+                sessionPool.close();
+            }
+            if (pageArchive != null) {
+                LoggerManagerE.info("Flushing page archive...");
+                pageArchive.close();
+            }
+            for (TradeEventSink sink : eventSinks) {
+                sink.close();
+            }
+            if (monitorFactory != null) {
+                monitorFactory.close();
+            }
+            if (snapshotExport != null) {
+                snapshotExport.close();
+            }
+            if (journal != null) {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    LoggerManagerE.error("Error closing trade journal: " + e.getMessage());
+                }
+            }
+            if (metricsServer != null) {
+                metricsServer.close();
+            }
+            LoggerManagerE.shutdown();
+        }
+    }
+
+    // Startet neue Signale, stoppt entfernte, baut Signale mit geändertem Signaldir oder SignalTargets neu auf und
+    // passt Intervalle und LogLevel an. Andere Einstellungen (Session-Pool, Worker, Ereignis-Feeds, Archiv) greifen
+    // erst nach einem Neustart.
+    private static synchronized void applyConfig(MonitoringEngine engine, ConfigurationManagerE configManager,
+            MonitorFactory monitorFactory) {
+        List<String> signalIds = configManager.getSignalIds();
+        Set<String> running = engine.getSignalIds();
+        for (String signalId : running) {
+            if (!signalIds.contains(signalId)) {
+                stopMonitor(engine, monitorFactory, signalId);
+            }
+        }
+        for (String signalId : signalIds) {
+            if (!running.contains(signalId)) {
+                engine.addMonitor(monitorFactory.create(signalId), configManager.getPollPolicy(signalId));
+                continue;
+            }
+            List<String> previous = monitorFactory.getOutputs(signalId);
+            List<String> current = monitorFactory.resolveOutputs(signalId);
+            if (current.equals(previous)) {
+                engine.updatePolicy(signalId, configManager.getPollPolicy(signalId));
+            } else {
+                LoggerManagerE.warn("Signal " + signalId + " output changed from " + previous + " to " + current
+                    + ", restarting its monitor");
+                stopMonitor(engine, monitorFactory, signalId);
+                engine.addMonitor(monitorFactory.create(signalId), configManager.getPollPolicy(signalId));
             }
-            if (driverE != null) {
+        }
+        LoggerManagerE.setLevel(configManager.getLogLevel());
+        LoggerManagerE.info("Monitoring " + signalIds.size() + " Signal ID(s): " + signalIds);
+    }
+
+    private static void stopMonitor(MonitoringEngine engine, MonitorFactory monitorFactory, String signalId) {
+        TradeMonitor removed = engine.removeMonitor(signalId);
+        if (removed != null) {
+            removed.close();
+        }
+        monitorFactory.release(signalId);
+    }
+
+    // Baut die Monitore einzelner Signale; die Ereignis-Feeds teilen sich alle, die Ringdatei gehört dem Signal
+    private static class MonitorFactory {
+        private final ConfigurationManagerE configManager;
+        private final BrowserSessionPool sessionPool;
+        private final HttpPageFetcher httpFetcher;
+        private final PageArchive pageArchive;
+        private final TradeJournal journal;
+        private final TradeSnapshotExport snapshotExport;
+        private final List<TradeEventSink> sharedFeeds;
+        private final ResiliencePolicy resilience;
+        private final int eventRingSlots;
+        private final Map<String, RingFileEventSink> rings = new ConcurrentHashMap<>();
+        // Signaldir und SignalTargets, mit denen der laufende Monitor eines Signals gebaut wurde
+        private final Map<String, List<String>> outputs = new ConcurrentHashMap<>();
+
+        MonitorFactory(ConfigurationManagerE configManager, BrowserSessionPool sessionPool, HttpPageFetcher httpFetcher,
+                PageArchive pageArchive, TradeJournal journal, TradeSnapshotExport snapshotExport,
+                List<TradeEventSink> sharedFeeds, ResiliencePolicy resilience) {
+            this.configManager = configManager;
+            this.sessionPool = sessionPool;
+            this.httpFetcher = httpFetcher;
+            this.pageArchive = pageArchive;
+            this.journal = journal;
+            this.snapshotExport = snapshotExport;
+            this.sharedFeeds = sharedFeeds;
+            this.resilience = resilience;
+            this.eventRingSlots = configManager.getEventRingSlots();
+        }
+
+        TradeMonitor create(String signalId) {
+            String signalDir = configManager.getSignalDirPath(signalId);
+            List<String> targets = configManager.getSignalTargets(signalId);
+            outputs.put(signalId, outputsOf(signalDir, targets));
+            LoggerManagerE.info("Signal " + signalId + " writes signal.txt to " + signalDir
+                + (targets.isEmpty() ? "" : " and " + targets));
+            warnAboutFlatSignalFile(signalId, signalDir);
+            List<TradeEventSink> signalSinks = new ArrayList<>(sharedFeeds);
+            if (eventRingSlots > 0) {
                 try {
-                    LoggerManagerE.info("Closing WebDriver...");
-                    driverE.quit();
-                } catch (Exception e) {
-                    LoggerManagerE.error("Error closing WebDriver: " + e.getMessage());
+                    RingFileEventSink ring = new RingFileEventSink(Paths.get(signalDir, "events.ring"), eventRingSlots);
+                    rings.put(signalId, ring);
+                    signalSinks.add(ring);
+                } catch (IOException e) {
+                    LoggerManagerE.error("Could not create trade event ring in " + signalDir + ": " + e.getMessage());
                 }
             }
+            return new TradeMonitor(
+                sessionPool,
+                httpFetcher,
+                pageArchive,
+                journal,
+                snapshotExport,
+                new EventFanout(signalSinks),
+                resilience,
+                TRADES_PATH,
+                signalId,
+                signalDir,
+                targets
+            );
+        }
+
+        List<String> getOutputs(String signalId) {
+            return outputs.get(signalId);
+        }
+
+        List<String> resolveOutputs(String signalId) {
+            return outputsOf(configManager.getSignalDirPath(signalId), configManager.getSignalTargets(signalId));
+        }
+
+        private static List<String> outputsOf(String signalDir, List<String> targets) {
+            List<String> paths = new ArrayList<>(targets.size() + 1);
+            paths.add(signalDir);
+            paths.addAll(targets);
+            return paths;
+        }
+
+        // Bis zur festen Aufteilung lag die signal.txt bei nur einem Signal direkt in Signaldir; ein EA, der sie
+        // dort noch liest, bekäme keine Änderungen mehr mit
+        private void warnAboutFlatSignalFile(String signalId, String signalDir) {
+            String baseDir = configManager.getSignalDirPath();
+            if (!Paths.get(signalDir).equals(Paths.get(baseDir)) && Files.exists(Paths.get(baseDir, "signal.txt"))) {
+                LoggerManagerE.warn("Found " + Paths.get(baseDir, "signal.txt") + ", which is no longer updated. Signal "
+                    + signalId + " now writes to " + signalDir + "; set Signaldir." + signalId + "=" + baseDir
+                    + " to keep the old location");
+            }
+        }
+
+        // Erst nach removeMonitor, dann läuft für das Signal kein Zyklus mehr
+        void release(String signalId) {
+            outputs.remove(signalId);
+            RingFileEventSink ring = rings.remove(signalId);
+            if (ring != null) {
+                ring.close();
+            }
+            if (snapshotExport != null) {
+                snapshotExport.release(signalId);
+            }
+        }
+
+        void close() {
+            for (String signalId : rings.keySet()) {
+                release(signalId);
+            }
+        }
+    }
+
+    // Nachverarbeitung der archivierten Seiten statt Überwachung:
+    // --replay [Archivverzeichnis] [Ausgabeverzeichnis] [Threads]
+    private static void replay(String[] args) {
+        try {
+            ConfigurationManagerE configManager = new ConfigurationManagerE(BASE_PATH);
+            configManager.initializeDirectories();
+            LoggerManagerE.initializeLogger(configManager.getLogConfigPath(), configManager.getLogLevel(),
+                configManager.getLogMaxFileBytes(), configManager.getLogMaxFiles());
+
+            String archiveDir = args.length > 1 ? args[1] : TRADES_PATH;
+            String outputDir = args.length > 2 ? args[2] : BASE_PATH + "\\replay";
+            int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+            new ReplayRunner(Paths.get(archiveDir), Paths.get(outputDir), threads, 512).run();
+        } catch (Exception e) {
+            LoggerManagerE.error("Error in replay: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
             LoggerManagerE.shutdown();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+package analyzer;
+
+import java.util.Collections;
+import java.util.List;
+
+public class AnalysisResult {
+    public static final AnalysisResult NO_TABLE = new AnalysisResult(false, false, 0, Collections.emptyList());
+
+    private final boolean tableFound;
+    private final boolean unchanged;
+    private final int openTrades;
+    private final List<TradeChange> changes;
+
+    public AnalysisResult(boolean tableFound, boolean unchanged, int openTrades, List<TradeChange> changes) {
+        this.tableFound = tableFound;
+        this.unchanged = unchanged;
+        this.openTrades = openTrades;
+        this.changes = changes;
+    }
+
+    public boolean isTableFound() {
+        return tableFound;
+    }
+
+    // true, wenn die Trades identisch zum letzten Durchlauf waren
+    public boolean isUnchanged() {
+        return unchanged;
+    }
+
+    public int getOpenTrades() {
+        return openTrades;
+    }
+
+    public List<TradeChange> getChanges() {
+        return changes;
+    }
+
+    public boolean hasChanges() {
+        return !changes.isEmpty();
+    }
+}
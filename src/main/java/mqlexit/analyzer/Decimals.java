@@ -0,0 +1,168 @@
+package analyzer;
+
+// Dezimalwerte der Signalseite als ein long: ganzzahliger Wert mal 32 plus Nachkommastellen, damit "1.10000"
+// genau so wieder ausgegeben wird. Parsen und Formatieren legen keine Objekte an.
+// parse nimmt nur an, was sich unverändert zurückschreiben lässt (kein "+", keine führenden Nullen,
+// keine Leerzeichen), alles andere bleibt beim Aufrufer als Text. parseGrouped liest zusätzlich Tausender-
+// gruppen wie "1 234.56"; den Originaltext muss der Aufrufer dann selbst behalten.
+public final class Decimals {
+    public static final long NONE = Long.MIN_VALUE;
+    public static final int MAX_SCALE = 18;
+    private static final int SCALE_BITS = 5;
+    private static final long SCALE_MASK = (1L << SCALE_BITS) - 1;
+    private static final long MAX_UNSCALED = (1L << (63 - SCALE_BITS - 1)) - 1;
+    private static final long[] POW10 = new long[MAX_SCALE + 1];
+    private static final double[] POW10_DOUBLE = new double[MAX_SCALE + 1];
+
+    static {
+        POW10[0] = 1;
+        POW10_DOUBLE[0] = 1;
+        for (int i = 1; i <= MAX_SCALE; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+            POW10_DOUBLE[i] = POW10_DOUBLE[i - 1] * 10;
+        }
+    }
+
+    private Decimals() {
+    }
+
+    // NONE, wenn der Wert außerhalb des darstellbaren Bereichs liegt
+    public static long of(long unscaled, int scale) {
+        if (scale < 0 || scale > MAX_SCALE || unscaled > MAX_UNSCALED || unscaled < -MAX_UNSCALED) {
+            return NONE;
+        }
+        return (unscaled << SCALE_BITS) | scale;
+    }
+
+    public static long unscaled(long decimal) {
+        return decimal >> SCALE_BITS;
+    }
+
+    public static int scale(long decimal) {
+        return (int) (decimal & SCALE_MASK);
+    }
+
+    public static double toDouble(long decimal) {
+        if (decimal == NONE) {
+            return Double.NaN;
+        }
+        return unscaled(decimal) / POW10_DOUBLE[scale(decimal)];
+    }
+
+    public static long parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    // Liest [start, end) wie "-1.08550"; NONE, wenn der Text keine solche Zahl ist
+    public static long parse(CharSequence text, int start, int end) {
+        int i = start;
+        boolean negative = i < end && text.charAt(i) == '-';
+        if (negative) {
+            i++;
+        }
+        int digitsStart = i;
+        long unscaled = 0;
+        int scale = -1;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && scale < 0 && i > digitsStart) {
+                scale = 0;
+                continue;
+            }
+            if (c < '0' || c > '9' || unscaled > (MAX_UNSCALED - (c - '0')) / 10) {
+                return NONE;
+            }
+            unscaled = unscaled * 10 + (c - '0');
+            if (scale >= 0 && ++scale > MAX_SCALE) {
+                return NONE;
+            }
+        }
+        if (end == digitsStart || scale == 0 || (negative && unscaled == 0)) {
+            return NONE;
+        }
+        if (text.charAt(digitsStart) == '0' && digitsStart + 1 < end && text.charAt(digitsStart + 1) != '.') {
+            return NONE;
+        }
+        return of(negative ? -unscaled : unscaled, Math.max(scale, 0));
+    }
+
+    // Wie parse, aber mit Leerzeichen (auch geschützten) zwischen Dreiergruppen vor dem Komma, z.B. "-12 345.5"
+    public static long parseGrouped(CharSequence text, int start, int end) {
+        int i = start;
+        boolean negative = i < end && text.charAt(i) == '-';
+        if (negative) {
+            i++;
+        }
+        int digitsStart = i;
+        long unscaled = 0;
+        int scale = -1;
+        int groups = 1;
+        int groupDigits = 0;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (isGroupSeparator(c)) {
+                if (scale >= 0 || groupDigits == 0 || (groups == 1 ? groupDigits > 3 : groupDigits != 3)) {
+                    return NONE;
+                }
+                groups++;
+                groupDigits = 0;
+                continue;
+            }
+            if (c == '.' && scale < 0 && groupDigits > 0) {
+                if (groups > 1 && groupDigits != 3) {
+                    return NONE;
+                }
+                scale = 0;
+                continue;
+            }
+            if (c < '0' || c > '9' || unscaled > (MAX_UNSCALED - (c - '0')) / 10) {
+                return NONE;
+            }
+            unscaled = unscaled * 10 + (c - '0');
+            if (scale < 0) {
+                groupDigits++;
+            } else if (++scale > MAX_SCALE) {
+                return NONE;
+            }
+        }
+        if (end == digitsStart || scale == 0 || (negative && unscaled == 0)
+                || (groups > 1 && scale < 0 && groupDigits != 3)) {
+            return NONE;
+        }
+        if (text.charAt(digitsStart) == '0' && digitsStart + 1 < end && text.charAt(digitsStart + 1) != '.') {
+            return NONE;
+        }
+        return of(negative ? -unscaled : unscaled, Math.max(scale, 0));
+    }
+
+    private static boolean isGroupSeparator(char c) {
+        return c == ' ' || c == '\u00a0' || c == '\u202f';
+    }
+
+    public static void append(StringBuilder target, long decimal) {
+        long unscaled = unscaled(decimal);
+        int scale = scale(decimal);
+        if (unscaled < 0) {
+            target.append('-');
+            unscaled = -unscaled;
+        }
+        target.append(unscaled / POW10[scale]);
+        if (scale > 0) {
+            target.append('.');
+            long fraction = unscaled % POW10[scale];
+            for (int digit = scale - 1; digit >= 0; digit--) {
+                target.append((char) ('0' + fraction / POW10[digit] % 10));
+            }
+        }
+    }
+
+    // null für NONE
+    public static String toString(long decimal) {
+        if (decimal == NONE) {
+            return null;
+        }
+        StringBuilder text = new StringBuilder(24);
+        append(text, decimal);
+        return text.toString();
+    }
+}
@@ -0,0 +1,92 @@
+package analyzer;
+
+// Gemeinsame Tabelle der Symbolnamen aller Signale: jedes Symbol gibt es nur einmal als String, und das
+// Nachschlagen eines bekannten Symbols direkt aus dem Parse-Puffer legt nichts an. Lesen ohne Sperre,
+// neue Symbole (selten) werden unter Sperre eingetragen.
+final class Symbols {
+    private static final int MAX_SYMBOLS = 1 << 16;
+    private static volatile String[] table = new String[512];
+    private static int count;
+
+    private Symbols() {
+    }
+
+    static String intern(String symbol) {
+        return intern(symbol, 0, symbol.length());
+    }
+
+    static String intern(CharSequence text, int start, int end) {
+        int hash = hash(text, start, end);
+        String found = find(table, text, start, end, hash);
+        return found != null ? found : add(text, start, end, hash);
+    }
+
+    private static synchronized String add(CharSequence text, int start, int end, int hash) {
+        String[] current = table;
+        String found = find(current, text, start, end, hash);
+        if (found != null) {
+            return found;
+        }
+        String symbol = text.subSequence(start, end).toString();
+        if (count >= MAX_SYMBOLS) {
+            // Schutz vor unbegrenztem Wachstum, z.B. bei kaputten Seiten
+            return symbol;
+        }
+        if ((count + 1) * 2 > current.length) {
+            String[] grown = new String[current.length * 2];
+            for (String existing : current) {
+                if (existing != null) {
+                    insert(grown, existing, hash(existing, 0, existing.length()));
+                }
+            }
+            insert(grown, symbol, hash);
+            table = grown;
+        } else {
+            insert(current, symbol, hash);
+        }
+        count++;
+        return symbol;
+    }
+
+    private static String find(String[] slots, CharSequence text, int start, int end, int hash) {
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            String candidate = slots[slot];
+            if (candidate == null) {
+                return null;
+            }
+            if (matches(candidate, text, start, end)) {
+                return candidate;
+            }
+        }
+    }
+
+    private static void insert(String[] slots, String symbol, int hash) {
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = symbol;
+    }
+
+    private static boolean matches(String candidate, CharSequence text, int start, int end) {
+        if (candidate.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < candidate.length(); i++) {
+            if (candidate.charAt(i) != text.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(CharSequence text, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
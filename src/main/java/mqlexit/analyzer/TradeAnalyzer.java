@@ -1,38 +1,64 @@
 package analyzer;
 
 import java.io.*;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.Arrays;
-import java.util.Comparator;
+import events.TradeEvent;
+import events.TradeEventSink;
+import export.TradeSnapshotExport;
+import journal.TradeJournal;
 import logging.LoggerManagerE;
+import metrics.MetricsRegistry;
+import publish.SignalFanout;
 
 public class TradeAnalyzer {
-    private final String logFilePath;
+    // Das Journal wird von allen Signalen gemeinsam beschrieben
+    private final TradeJournal journal;
     private final String providerName;
-    private final String signalFilePath;
-    
-    private static final Pattern FIRST_TBODY_PATTERN = Pattern.compile(
-        "<tbody>(.*?)</tbody>",
-        Pattern.DOTALL
-    );
-    
-    private static final Pattern TRADE_PATTERN = Pattern.compile(
-        "<td data-label=\"Type\">(Buy|Sell|Buy Stop|Sell Stop)</td>",
-        Pattern.DOTALL
-    );
-
-    public TradeAnalyzer(String logFilePath, String providerName, String signalDir) {
-        this.logFilePath = logFilePath;
+    // signal.txt im Signalverzeichnis und in den weiteren Zielen
+    private final SignalFanout signalPublisher;
+    // Bekommt jede Änderung sofort, null ohne Ereignis-Ausgabe
+    private final TradeEventSink eventSink;
+    // Spaltenweise Ablage jeder geänderten Trade-Liste, null ohne Export
+    private final TradeSnapshotExport snapshotExport;
+    private final TradeTableParser parser = new TradeTableParser();
+    // Wird bei jedem Abruf neu gefüllt, die Zeilen-Objekte bleiben erhalten
+    private final TradeSet currentTrades = new TradeSet();
+    private final TradeSetTracker tradeSetTracker;
+    // Nachverarbeitung: keine signal.txt, kein Log pro Seite, bereits im Journal stehende Zeitpunkte überspringen
+    private final boolean replay;
+    private final long journaledUntil;
+
+    public TradeAnalyzer(TradeJournal journal, TradeSnapshotExport snapshotExport, TradeEventSink eventSink,
+            String providerName, String signalDir, List<String> signalTargets, String stateFilePath) {
+        this.journal = journal;
+        this.snapshotExport = snapshotExport;
+        this.eventSink = eventSink;
         this.providerName = providerName;
-        this.signalFilePath = signalDir + File.separator + "signal.txt";
+        this.signalPublisher = new SignalFanout(providerName, Paths.get(signalDir, "signal.txt"), signalTargets);
         createSignalDirectory(signalDir);
+        this.tradeSetTracker = new TradeSetTracker(Paths.get(stateFilePath));
+        this.replay = false;
+        this.journaledUntil = Long.MIN_VALUE;
+    }
+
+    private TradeAnalyzer(TradeJournal journal, String providerName, String stateFilePath) {
+        this.journal = journal;
+        this.snapshotExport = null;
+        this.eventSink = null;
+        this.providerName = providerName;
+        this.signalPublisher = null;
+        this.tradeSetTracker = new TradeSetTracker(Paths.get(stateFilePath));
+        this.replay = true;
+        this.journaledUntil = journal.getLastObservedAt();
+    }
+
+    // Für das Nachspielen archivierter Seiten; der Zustand in stateFilePath dient als Checkpoint
+    public static TradeAnalyzer forReplay(TradeJournal journal, String providerName, String stateFilePath) {
+        return new TradeAnalyzer(journal, providerName, stateFilePath);
     }
 
     private void createSignalDirectory(String signalDir) {
@@ -58,162 +84,115 @@ public class TradeAnalyzer {
         }
     }
 
-    public void analyzeHtmlFile(String htmlFilePath) {
+    public AnalysisResult analyzeHtmlFile(String htmlFilePath) {
         try {
             LoggerManagerE.info("Starting analysis of HTML file: " + htmlFilePath);
-            String content = readFile(htmlFilePath);
-            List<Map<String, String>> allTradeInfo = new ArrayList<>();
-            
-            Matcher tbodyMatcher = FIRST_TBODY_PATTERN.matcher(content);
-            if (!tbodyMatcher.find()) {
-                LoggerManagerE.info("No tbody found in HTML content");
-                return;
-            }
-            
-            String tableContent = tbodyMatcher.group(1);
-            Matcher tradeMatcher = TRADE_PATTERN.matcher(tableContent);
-            while (tradeMatcher.find()) {
-                String type = tradeMatcher.group(1);
-                
-                int rowStart = tableContent.lastIndexOf("<tr", tradeMatcher.start());
-                int rowEnd = tableContent.indexOf("</tr>", tradeMatcher.end()) + 5;
-                if (rowStart >= 0 && rowEnd >= 0) {
-                    String rowContent = tableContent.substring(rowStart, rowEnd);
-                    Map<String, String> tradeInfo = extractTradeInfo(rowContent);
-                    allTradeInfo.add(tradeInfo);
-                    logTrade(type, rowContent);
-                }
-            }
-            
-            if (!allTradeInfo.isEmpty()) {
-                LoggerManagerE.info("Found " + allTradeInfo.size() + " trades to process");
-                writeSignalFile(allTradeInfo);
-            } else {
-                LoggerManagerE.info("No trades found in HTML content");
-            }
+            return analyze(readFile(htmlFilePath));
         } catch (IOException e) {
             LoggerManagerE.error("Error analyzing HTML file: " + e.getMessage());
+            return AnalysisResult.NO_TABLE;
         }
     }
 
-    private Map<String, String> extractTradeInfo(String rowContent) {
-        Map<String, String> tradeInfo = new LinkedHashMap<>();
-        String[] labels = {"Symbol", "Time", "Type", "Volume", "Price", "S/L", "T/P"};
-        
-        for (String label : labels) {
-            Pattern pattern = Pattern.compile("<td data-label=\"" + label + "\"[^>]*>([^<]+)</td>");
-            Matcher matcher = pattern.matcher(rowContent);
-            if (matcher.find()) {
-                String value = matcher.group(1)
-                    .replaceAll("&nbsp;", "")
-                    .replaceAll("\\s+", " ")
-                    .trim();
-                tradeInfo.put(label, value);
-            }
+    // Analysiert eine bereits im Speicher vorliegende Seite, ohne Umweg über die Festplatte
+    public AnalysisResult analyze(CharSequence content) {
+        long parseStart = System.nanoTime();
+        int found = parser.parse(content, currentTrades);
+        MetricsRegistry.get().timer("parse", providerName).recordSince(parseStart);
+        if (found == TradeTableParser.NO_TABLE) {
+            LoggerManagerE.info("No tbody found in HTML content");
+            return AnalysisResult.NO_TABLE;
         }
-        
-        return tradeInfo;
+
+        return analyzeTrades(currentTrades, System.currentTimeMillis(), tradeSetTracker.getPosition());
     }
 
-    private void writeSignalFile(List<Map<String, String>> allTradeInfo) {
-        try {
-            File signalFile = new File(signalFilePath);
-            if (signalFile.exists()) {
-                // Erstelle oldsignals Verzeichnis falls es nicht existiert
-                File oldSignalsDir = new File(signalFile.getParent(), "oldsignals");
-                if (!oldSignalsDir.exists()) {
-                    oldSignalsDir.mkdirs();
-                    LoggerManagerE.info("Created oldsignals directory: " + oldSignalsDir.getAbsolutePath());
-                }
-                
-                // Erstelle Dateinamen mit Timestamp
-                String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-                File backupFile = new File(oldSignalsDir, "signal_" + timestamp + ".txt");
-                
-                // Verschiebe die alte signal.txt
-                boolean moved = signalFile.renameTo(backupFile);
-                if (moved) {
-                    LoggerManagerE.info("Moved old signal file to: " + backupFile.getAbsolutePath());
-                } else {
-                    LoggerManagerE.error("Failed to move old signal file");
-                }
-
-                // Prüfe und lösche alte Dateien wenn mehr als 100 vorhanden sind
-                cleanupOldSignals(oldSignalsDir, 100);
+    // Vergleicht einen bereits geparsten Trade-Bestand mit dem letzten Stand.
+    // Ereignisse gehen zuerst raus, weil es auf deren Latenz ankommt. Dann wird ins Journal geschrieben
+    // und erst danach der Stand gespeichert: nach einem Absturz wird eher doppelt verarbeitet als eine
+    // Änderung verloren.
+    public AnalysisResult analyzeTrades(List<TradeRow> allTrades, long observedAt, String position) {
+        // Unveränderter Trade-Bestand: weder Log noch signal.txt anfassen
+        long fingerprint = TradeSetTracker.fingerprintOf(allTrades);
+        if (tradeSetTracker.isUnchanged(fingerprint)) {
+            if (!replay) {
+                LoggerManagerE.info("Trades of Signal Provider " + providerName + " unchanged (" + allTrades.size() + " open)");
             }
-            
-            // Schreibe neue signal.txt
-            try (FileWriter writer = new FileWriter(signalFile)) {
-                for (Map<String, String> tradeInfo : allTradeInfo) {
-                    StringBuilder line = new StringBuilder();
-                    for (String value : tradeInfo.values()) {
-                        line.append(value).append(",");
-                    }
-                    // Remove last comma and add newline
-                    if (line.length() > 0) {
-                        line.setLength(line.length() - 1);
-                    }
-                    line.append("\n");
-                    writer.write(line.toString());
-                }
-                LoggerManagerE.info("Signal file written: " + signalFilePath);
+            return new AnalysisResult(true, true, allTrades.size(), Collections.emptyList());
+        }
+
+        List<TradeChange> changes = tradeSetTracker.changesTo(allTrades);
+        if (eventSink != null) {
+            for (TradeChange change : changes) {
+                eventSink.publish(TradeEvent.of(providerName, observedAt, change));
             }
-        } catch (IOException e) {
-            LoggerManagerE.error("Error writing signal file: " + e.getMessage());
         }
+        if (observedAt > journaledUntil) {
+            logTrades(changes, observedAt);
+        }
+        if (snapshotExport != null) {
+            snapshotExport.append(providerName, observedAt, allTrades);
+        }
+        tradeSetTracker.commit(allTrades, fingerprint, position);
+
+        if (replay) {
+            return new AnalysisResult(true, false, allTrades.size(), changes);
+        }
+        if (!allTrades.isEmpty()) {
+            LoggerManagerE.info("Found " + allTrades.size() + " trades to process, " + changes.size() + " changed");
+            writeSignalFile(allTrades);
+        } else {
+            LoggerManagerE.info("No trades found in HTML content");
+        }
+        return new AnalysisResult(true, false, allTrades.size(), changes);
     }
 
-    private void cleanupOldSignals(File directory, int maxFiles) {
-        File[] files = directory.listFiles((dir, name) -> name.startsWith("signal_") && name.endsWith(".txt"));
-        if (files != null && files.length > maxFiles) {
-            // Sortiere Dateien nach Änderungsdatum (älteste zuerst)
-            Arrays.sort(files, Comparator.comparingLong(File::lastModified));
-            
-            // Lösche die ältesten Dateien bis nur noch maxFiles übrig sind
-            for (int i = 0; i < files.length - maxFiles; i++) {
-                if (files[i].delete()) {
-                    LoggerManagerE.info("Deleted old signal file: " + files[i].getName());
-                } else {
-                    LoggerManagerE.error("Failed to delete old signal file: " + files[i].getName());
-                }
-            }
+    // Zuletzt vollständig verarbeitete Position, z.B. der Name der letzten nachgespielten Datei
+    public String getCheckpoint() {
+        return tradeSetTracker.getPosition();
+    }
+
+    public void checkpoint(String position) {
+        tradeSetTracker.commitPosition(position);
+    }
+
+    private void writeSignalFile(List<TradeRow> allTrades) {
+        StringBuilder content = new StringBuilder(allTrades.size() * 64);
+        for (TradeRow trade : allTrades) {
+            trade.appendColumns(content, ",");
+            content.append("\n");
+        }
+        long writeStart = System.nanoTime();
+        try {
+            signalPublisher.publish(content.toString().getBytes(Charset.defaultCharset()));
+            MetricsRegistry.get().timer("signal_write", providerName).recordSince(writeStart);
+        } catch (IOException e) {
+            LoggerManagerE.error("Error writing signal file: " + e.getMessage());
         }
     }
 
     private String readFile(String filePath) throws IOException {
-        StringBuilder content = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                content.append(line).append("\n");
-            }
-        }
-        return content.toString();
+        return new String(Files.readAllBytes(Paths.get(filePath)), Charset.defaultCharset());
     }
 
-    private void logTrade(String type, String rowContent) {
-        Pattern valuePattern = Pattern.compile("<td[^>]*>([^<]+)</td>");
-        Matcher valueMatcher = valuePattern.matcher(rowContent);
-        
-        StringBuilder values = new StringBuilder();
-        while (valueMatcher.find()) {
-            String value = valueMatcher.group(1)
-                .replaceAll("&nbsp;", "")
-                .replaceAll("\\s+", " ")
-                .trim();
-            values.append(value).append(", ");
-        }
-
-        String logEntry = String.format("[%s] [%s] Type: %s, Values: %s%n",
-            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
-            providerName,
-            type, values.toString());
-            
-        try (FileWriter writer = new FileWriter(logFilePath, true)) {
-            writer.write(logEntry);
-            LoggerManagerE.info("Trade logged: " + logEntry.trim());
+    private void logTrades(List<TradeChange> changes, long observedAt) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        try {
+            journal.append(providerName, observedAt, changes);
         } catch (IOException e) {
-            LoggerManagerE.error("Error writing to log file: " + e.getMessage());
+            LoggerManagerE.error("Error writing to trade journal: " + e.getMessage());
+        }
+        if (replay) {
+            return;
+        }
+        for (TradeChange change : changes) {
+            TradeRow trade = change.getTrade();
+            StringBuilder values = new StringBuilder(128);
+            trade.appendColumns(values, ", ");
+            LoggerManagerE.info("Trade logged: [" + providerName + "] " + change.getKind() + " Type: " + trade.getType()
+                + ", Values: " + values);
         }
     }
-}
\ No newline at end of file
+}
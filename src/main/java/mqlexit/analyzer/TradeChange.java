@@ -0,0 +1,42 @@
+package analyzer;
+
+public class TradeChange {
+    public enum Kind {
+        OPENED,
+        CLOSED,
+        MODIFIED
+    }
+
+    private final Kind kind;
+    private final TradeRow previous;
+    private final TradeRow current;
+
+    public TradeChange(Kind kind, TradeRow previous, TradeRow current) {
+        this.kind = kind;
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    // Vorheriger Stand, null bei OPENED
+    public TradeRow getPrevious() {
+        return previous;
+    }
+
+    // Aktueller Stand, null bei CLOSED
+    public TradeRow getCurrent() {
+        return current;
+    }
+
+    public TradeRow getTrade() {
+        return current != null ? current : previous;
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + getTrade();
+    }
+}
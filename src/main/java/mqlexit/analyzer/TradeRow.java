@@ -0,0 +1,274 @@
+package analyzer;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+// Ein Trade der Signalseite mit typisierten Feldern: Symbol interniert, Eröffnungszeit in Sekunden (Zeit der
+// Signalseite als UTC), Typ als TradeType, Zahlen als Decimals mit ihren Nachkommastellen. Nicht lesbare
+// Werte bleiben als Text erhalten, damit in der Ausgabe nichts verloren geht.
+// Zeilen eines TradeSet werden beim nächsten Parsen wiederverwendet; wer eine Zeile behalten will, nimmt copy().
+public class TradeRow {
+    public static final long NO_TIME = TradeTimes.NO_TIME;
+    // Spalten in fester Reihenfolge, so auch in signal.txt
+    public static final int SYMBOL = 0;
+    public static final int TIME = 1;
+    public static final int TYPE = 2;
+    public static final int VOLUME = 3;
+    public static final int PRICE = 4;
+    public static final int STOP_LOSS = 5;
+    public static final int TAKE_PROFIT = 6;
+    public static final int COLUMN_COUNT = 7;
+
+    private String symbol;
+    private long openTime = NO_TIME;
+    private TradeType type = TradeType.UNKNOWN;
+    private final long[] decimals = {Decimals.NONE, Decimals.NONE, Decimals.NONE, Decimals.NONE};
+    // Originaltext der Spalten, die nicht lesbar waren oder sich aus dem Wert nicht unverändert zurückschreiben
+    // lassen (z.B. "1 234.56"); nur angelegt, wenn es eine solche Spalte gibt. Die Ausgabe nimmt diesen Text.
+    private String[] unparsed;
+
+    TradeRow() {
+    }
+
+    // Aus Texten, z.B. aus der gespeicherten trade_state.txt; null für fehlende Werte
+    public TradeRow(String symbol, String time, String type, String volume,
+            String price, String stopLoss, String takeProfit) {
+        String[] values = {symbol, time, type, volume, price, stopLoss, takeProfit};
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            if (values[column] != null) {
+                String value = values[column].trim();
+                setColumn(column, value, 0, value.length());
+            }
+        }
+    }
+
+    void reset() {
+        symbol = null;
+        openTime = NO_TIME;
+        type = TradeType.UNKNOWN;
+        Arrays.fill(decimals, Decimals.NONE);
+        if (unparsed != null) {
+            Arrays.fill(unparsed, null);
+        }
+    }
+
+    // Leerer Text heißt fehlender Wert
+    void setColumn(int column, CharSequence text, int start, int end) {
+        if (end <= start) {
+            return;
+        }
+        boolean parsed;
+        switch (column) {
+            case SYMBOL:
+                symbol = Symbols.intern(text, start, end);
+                return;
+            case TIME:
+                openTime = TradeTimes.parse(text, start, end);
+                parsed = openTime != NO_TIME;
+                break;
+            case TYPE:
+                type = TradeType.parse(text, start, end);
+                parsed = type != TradeType.UNKNOWN;
+                break;
+            default:
+                long decimal = Decimals.parse(text, start, end);
+                parsed = decimal != Decimals.NONE;
+                if (!parsed) {
+                    // Mit Tausendergruppen: Wert für Journal und Export, Text für die Ausgabe
+                    decimal = Decimals.parseGrouped(text, start, end);
+                }
+                decimals[column - VOLUME] = decimal;
+                break;
+        }
+        if (!parsed) {
+            if (unparsed == null) {
+                unparsed = new String[COLUMN_COUNT];
+            }
+            unparsed[column] = text.subSequence(start, end).toString();
+        }
+    }
+
+    public TradeRow copy() {
+        TradeRow copy = new TradeRow();
+        copy.symbol = symbol;
+        copy.openTime = openTime;
+        copy.type = type;
+        System.arraycopy(decimals, 0, copy.decimals, 0, decimals.length);
+        if (unparsed != null) {
+            copy.unparsed = unparsed.clone();
+        }
+        return copy;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    // Sekunden seit 1970 in der Zeit der Signalseite, NO_TIME wenn fehlend oder nicht lesbar
+    public long getOpenTime() {
+        return openTime;
+    }
+
+    public TradeType getTradeType() {
+        return type;
+    }
+
+    // Werte als Decimals, Decimals.NONE wenn fehlend oder nicht lesbar
+    public long getVolumeDecimal() {
+        return decimals[VOLUME - VOLUME];
+    }
+
+    public long getPriceDecimal() {
+        return decimals[PRICE - VOLUME];
+    }
+
+    public long getStopLossDecimal() {
+        return decimals[STOP_LOSS - VOLUME];
+    }
+
+    public long getTakeProfitDecimal() {
+        return decimals[TAKE_PROFIT - VOLUME];
+    }
+
+    // Die Text-Getter liefern den Wert wie auf der Signalseite (null wenn fehlend) und legen dafür jeweils
+    // einen String an; im Abrufpfad appendColumn bzw. die typisierten Getter verwenden
+    public String getTime() {
+        return columnText(TIME);
+    }
+
+    public String getType() {
+        return columnText(TYPE);
+    }
+
+    public String getVolume() {
+        return columnText(VOLUME);
+    }
+
+    public String getPrice() {
+        return columnText(PRICE);
+    }
+
+    public String getStopLoss() {
+        return columnText(STOP_LOSS);
+    }
+
+    public String getTakeProfit() {
+        return columnText(TAKE_PROFIT);
+    }
+
+    public boolean hasColumn(int column) {
+        if (unparsed != null && unparsed[column] != null) {
+            return true;
+        }
+        switch (column) {
+            case SYMBOL:
+                return symbol != null;
+            case TIME:
+                return openTime != NO_TIME;
+            case TYPE:
+                return type != TradeType.UNKNOWN;
+            default:
+                return decimals[column - VOLUME] != Decimals.NONE;
+        }
+    }
+
+    // Hängt den Wert einer Spalte an, bei fehlendem Wert nichts
+    public void appendColumn(StringBuilder target, int column) {
+        if (unparsed != null && unparsed[column] != null) {
+            target.append(unparsed[column]);
+            return;
+        }
+        switch (column) {
+            case SYMBOL:
+                if (symbol != null) {
+                    target.append(symbol);
+                }
+                break;
+            case TIME:
+                if (openTime != NO_TIME) {
+                    TradeTimes.append(target, openTime);
+                }
+                break;
+            case TYPE:
+                if (type != TradeType.UNKNOWN) {
+                    target.append(type.getLabel());
+                }
+                break;
+            default:
+                if (decimals[column - VOLUME] != Decimals.NONE) {
+                    Decimals.append(target, decimals[column - VOLUME]);
+                }
+                break;
+        }
+    }
+
+    // Immer alle sieben Spalten, fehlende bleiben leer; so verschiebt sich keine Spalte
+    public void appendColumns(StringBuilder target, String separator) {
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            if (column > 0) {
+                target.append(separator);
+            }
+            appendColumn(target, column);
+        }
+    }
+
+    boolean sameColumn(TradeRow other, int column) {
+        String text = unparsed != null ? unparsed[column] : null;
+        String otherText = other.unparsed != null ? other.unparsed[column] : null;
+        if (!Objects.equals(text, otherText)) {
+            return false;
+        }
+        switch (column) {
+            case SYMBOL:
+                return Objects.equals(symbol, other.symbol);
+            case TIME:
+                return openTime == other.openTime;
+            case TYPE:
+                return type == other.type;
+            default:
+                return decimals[column - VOLUME] == other.decimals[column - VOLUME];
+        }
+    }
+
+    // FNV-1a über alle Spalten, ohne Zwischen-Strings
+    long hash(long hash, long prime) {
+        hash = hashText(hash, prime, symbol);
+        hash = (hash ^ openTime) * prime;
+        hash = (hash ^ type.ordinal()) * prime;
+        for (long decimal : decimals) {
+            hash = (hash ^ decimal) * prime;
+        }
+        if (unparsed != null) {
+            for (String text : unparsed) {
+                hash = hashText(hash, prime, text);
+            }
+        }
+        return (hash ^ '\n') * prime;
+    }
+
+    private static long hashText(long hash, long prime, String text) {
+        if (text == null) {
+            return (hash ^ 0xFF) * prime;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            hash = (hash ^ text.charAt(i)) * prime;
+        }
+        return (hash ^ '\t') * prime;
+    }
+
+    private String columnText(int column) {
+        if (!hasColumn(column)) {
+            return null;
+        }
+        StringBuilder text = new StringBuilder(24);
+        appendColumn(text, column);
+        return text.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(64);
+        appendColumns(builder, ",");
+        return builder.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package analyzer;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+// Wiederverwendbarer Behälter für die Trades einer Seite: die Zeilen-Objekte bleiben über alle Abrufe
+// erhalten und werden beim nächsten Parsen überschrieben. Nicht thread-safe, gehört einem Signal.
+public class TradeSet extends AbstractList<TradeRow> implements RandomAccess {
+    private TradeRow[] rows = new TradeRow[32];
+    private int size;
+
+    @Override
+    public TradeRow get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+        return rows[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+    }
+
+    // Nächste freie, geleerte Zeile
+    TradeRow next() {
+        if (size == rows.length) {
+            rows = Arrays.copyOf(rows, size * 2);
+        }
+        TradeRow row = rows[size];
+        if (row == null) {
+            row = new TradeRow();
+            rows[size] = row;
+        } else {
+            row.reset();
+        }
+        size++;
+        return row;
+    }
+
+    // Verwirft die zuletzt mit next() geholte Zeile, z.B. weil sie kein Trade war
+    void dropLast() {
+        size--;
+    }
+}
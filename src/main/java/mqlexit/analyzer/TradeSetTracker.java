@@ -0,0 +1,195 @@
+package analyzer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import logging.LoggerManagerE;
+
+// Merkt sich pro Signal den zuletzt gesehenen Trade-Bestand (auch über Neustarts) und liefert nur die Änderungen
+public class TradeSetTracker {
+    private static final String FINGERPRINT_PREFIX = "# fingerprint ";
+    private static final String POSITION_PREFIX = "# position ";
+    private static final String NULL_VALUE = "\\N";
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Path stateFile;
+    private List<TradeRow> lastTrades = new ArrayList<>();
+    private long lastFingerprint;
+    private String position;
+    private boolean known = false;
+
+    public TradeSetTracker(Path stateFile) {
+        this.stateFile = stateFile;
+        load();
+    }
+
+    public boolean isUnchanged(long fingerprint) {
+        return known && fingerprint == lastFingerprint;
+    }
+
+    public List<TradeChange> update(List<TradeRow> trades, long fingerprint) {
+        List<TradeChange> changes = changesTo(trades);
+        commit(trades, fingerprint, position);
+        return changes;
+    }
+
+    // Änderungen gegenüber dem gemerkten Bestand, ohne diesen zu verändern. Geänderte und neue Trades werden
+    // kopiert, damit sie nach dem nächsten Parsen in dasselbe TradeSet gültig bleiben.
+    // Zuordnung paarweise statt über Schlüssel-Strings: die wenigen Trades eines Signals sind so schneller
+    // verglichen, als Schlüssel gebaut wären. Gleiche Trades werden der Reihe nach einander zugeordnet.
+    public List<TradeChange> changesTo(List<TradeRow> trades) {
+        List<TradeChange> changes = new ArrayList<>();
+        boolean[] matched = new boolean[lastTrades.size()];
+
+        for (TradeRow current : trades) {
+            int index = indexOfUnmatched(current, matched);
+            if (index < 0) {
+                changes.add(new TradeChange(TradeChange.Kind.OPENED, null, current.copy()));
+                continue;
+            }
+            matched[index] = true;
+            TradeRow previous = lastTrades.get(index);
+            if (isModified(previous, current)) {
+                changes.add(new TradeChange(TradeChange.Kind.MODIFIED, previous, current.copy()));
+            }
+        }
+        for (int i = 0; i < matched.length; i++) {
+            if (!matched[i]) {
+                changes.add(new TradeChange(TradeChange.Kind.CLOSED, lastTrades.get(i), null));
+            }
+        }
+        return changes;
+    }
+
+    // Übernimmt den Bestand und speichert ihn zusammen mit der Position (z.B. letzte verarbeitete Datei)
+    public void commit(List<TradeRow> trades, long fingerprint, String position) {
+        lastTrades = copies(trades);
+        lastFingerprint = fingerprint;
+        this.position = position;
+        known = true;
+        save();
+    }
+
+    // Speichert nur eine neue Position, der Bestand bleibt unverändert
+    public void commitPosition(String position) {
+        this.position = position;
+        save();
+    }
+
+    public String getPosition() {
+        return position;
+    }
+
+    // Ein Trade wird über Symbol, Eröffnungszeit und Typ wiedererkannt
+    private int indexOfUnmatched(TradeRow trade, boolean[] matched) {
+        for (int i = 0; i < matched.length; i++) {
+            if (!matched[i]) {
+                TradeRow candidate = lastTrades.get(i);
+                if (candidate.sameColumn(trade, TradeRow.SYMBOL) && candidate.sameColumn(trade, TradeRow.TIME)
+                        && candidate.sameColumn(trade, TradeRow.TYPE)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isModified(TradeRow previous, TradeRow current) {
+        return !previous.sameColumn(current, TradeRow.STOP_LOSS)
+            || !previous.sameColumn(current, TradeRow.TAKE_PROFIT)
+            || !previous.sameColumn(current, TradeRow.VOLUME);
+    }
+
+    private static List<TradeRow> copies(List<TradeRow> trades) {
+        List<TradeRow> copies = new ArrayList<>(trades.size());
+        for (TradeRow trade : trades) {
+            copies.add(trade.copy());
+        }
+        return copies;
+    }
+
+    public static long fingerprintOf(List<TradeRow> trades) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < trades.size(); i++) {
+            hash = trades.get(i).hash(hash, FNV_PRIME);
+        }
+        return hash;
+    }
+
+    private void load() {
+        if (!Files.exists(stateFile)) {
+            return;
+        }
+        List<TradeRow> trades = new ArrayList<>();
+        long fingerprint = 0;
+        boolean hasFingerprint = false;
+        String loadedPosition = null;
+        try (BufferedReader reader = Files.newBufferedReader(stateFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(FINGERPRINT_PREFIX)) {
+                    fingerprint = Long.parseUnsignedLong(line.substring(FINGERPRINT_PREFIX.length()).trim(), 16);
+                    hasFingerprint = true;
+                } else if (line.startsWith(POSITION_PREFIX)) {
+                    loadedPosition = line.substring(POSITION_PREFIX.length()).trim();
+                } else if (!line.isEmpty()) {
+                    String[] fields = line.split("\t", -1);
+                    if (fields.length == 7) {
+                        trades.add(new TradeRow(value(fields[0]), value(fields[1]), value(fields[2]),
+                            value(fields[3]), value(fields[4]), value(fields[5]), value(fields[6])));
+                    }
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            LoggerManagerE.error("Error reading trade state " + stateFile + ": " + e.getMessage());
+            return;
+        }
+        if (hasFingerprint) {
+            lastTrades = trades;
+            lastFingerprint = fingerprint;
+            position = loadedPosition;
+            known = true;
+            LoggerManagerE.info("Loaded " + trades.size() + " known trades from " + stateFile);
+        }
+    }
+
+    private void save() {
+        Path tempFile = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                writer.write(FINGERPRINT_PREFIX + Long.toHexString(lastFingerprint));
+                writer.newLine();
+                if (position != null) {
+                    writer.write(POSITION_PREFIX + position);
+                    writer.newLine();
+                }
+                for (TradeRow trade : lastTrades) {
+                    String[] fields = {trade.getSymbol(), trade.getTime(), trade.getType(), trade.getVolume(),
+                        trade.getPrice(), trade.getStopLoss(), trade.getTakeProfit()};
+                    for (int i = 0; i < fields.length; i++) {
+                        if (i > 0) {
+                            writer.write('\t');
+                        }
+                        writer.write(fields[i] != null ? fields[i] : NULL_VALUE);
+                    }
+                    writer.newLine();
+                }
+            }
+            Files.move(tempFile, stateFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LoggerManagerE.error("Error writing trade state " + stateFile + ": " + e.getMessage());
+        }
+    }
+
+    private static String value(String field) {
+        return NULL_VALUE.equals(field) ? null : field;
+    }
+}
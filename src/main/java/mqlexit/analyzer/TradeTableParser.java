@@ -0,0 +1,233 @@
+package analyzer;
+
+// Liest die erste Trade-Tabelle (<tbody>) in einem Durchlauf, ohne Regex und ohne Zwischen-Strings pro Zeile.
+// Eine Instanz ist nicht thread-safe, da der Wertepuffer wiederverwendet wird.
+public class TradeTableParser {
+    public static final int NO_TABLE = -1;
+
+    // Reihenfolge wie die Spalten von TradeRow
+    private static final String[] LABELS = {"Symbol", "Time", "Type", "Volume", "Price", "S/L", "T/P"};
+    private static final String DATA_LABEL = "data-label=\"";
+    private static final String NBSP = "&nbsp;";
+
+    public interface TradeRowHandler {
+        void onTradeRow(TradeRow row);
+    }
+
+    private final StringBuilder valueBuffer = new StringBuilder(32);
+    private TradeSet scratch;
+
+    public static TradeSet parseTrades(CharSequence html) {
+        TradeSet trades = new TradeSet();
+        new TradeTableParser().parse(html, trades);
+        return trades;
+    }
+
+    // Schneidet die Trade-Tabelle von <tbody bis </tbody> aus, null ohne Tabelle.
+    // parse liefert für den Ausschnitt dieselben Trades wie für die ganze Seite.
+    public static String extractTableFragment(CharSequence html) {
+        int length = html.length();
+        int bodyStart = findTag(html, "<tbody", 0, length);
+        if (bodyStart < 0) {
+            return null;
+        }
+        int bodyEnd = indexOf(html, "</tbody>", bodyStart, length);
+        if (bodyEnd < 0) {
+            return null;
+        }
+        return html.subSequence(bodyStart, bodyEnd + "</tbody>".length()).toString();
+    }
+
+    // Wie parse(html, trades), übergibt aber jeden Trade als eigene Kopie
+    public int parse(CharSequence html, TradeRowHandler handler) {
+        if (scratch == null) {
+            scratch = new TradeSet();
+        }
+        int found = parse(html, scratch);
+        for (TradeRow row : scratch) {
+            handler.onTradeRow(row.copy());
+        }
+        return found;
+    }
+
+    // Füllt trades (vorher geleert) mit den Trades der Seite und liefert deren Anzahl oder NO_TABLE, wenn kein
+    // <tbody> vorhanden ist. Die Zeilen des TradeSet werden dabei wiederverwendet.
+    public int parse(CharSequence html, TradeSet trades) {
+        trades.clear();
+        int length = html.length();
+        int bodyStart = findTag(html, "<tbody", 0, length);
+        if (bodyStart < 0) {
+            return NO_TABLE;
+        }
+        int contentStart = indexOf(html, ">", bodyStart, length);
+        if (contentStart < 0) {
+            return NO_TABLE;
+        }
+        int bodyEnd = indexOf(html, "</tbody>", contentStart, length);
+        if (bodyEnd < 0) {
+            return NO_TABLE;
+        }
+
+        int position = contentStart + 1;
+        while (position < bodyEnd) {
+            int rowStart = findTag(html, "<tr", position, bodyEnd);
+            if (rowStart < 0) {
+                break;
+            }
+            int rowEnd = indexOf(html, "</tr>", rowStart, bodyEnd);
+            int rowLimit = rowEnd < 0 ? bodyEnd : rowEnd;
+            if (!parseRow(html, rowStart, rowLimit, trades.next())) {
+                trades.dropLast();
+            }
+            position = rowEnd < 0 ? bodyEnd : rowEnd + 5;
+        }
+        return trades.size();
+    }
+
+    private boolean parseRow(CharSequence html, int rowStart, int rowLimit, TradeRow row) {
+        // Bit je Spalte: schon gesehen, weitere Zellen mit demselben Label zählen nicht
+        int seen = 0;
+        int position = rowStart;
+        while (position < rowLimit) {
+            int cellStart = findTag(html, "<td", position, rowLimit);
+            if (cellStart < 0) {
+                break;
+            }
+            int tagEnd = indexOf(html, ">", cellStart, rowLimit);
+            if (tagEnd < 0) {
+                break;
+            }
+            int contentStart = tagEnd + 1;
+            int contentEnd = indexOf(html, "<", contentStart, rowLimit);
+            if (contentEnd < 0) {
+                break;
+            }
+
+            // Nur Zellen mit reinem Text bis </td> zählen, wie bisher beim Muster ([^<]+)</td>
+            int label = labelOf(html, cellStart + 3, tagEnd);
+            if (label >= 0 && (seen & (1 << label)) == 0 && contentEnd > contentStart
+                    && regionMatches(html, contentEnd, "</td>")) {
+                seen |= 1 << label;
+                normalizeValue(html, contentStart, contentEnd);
+                row.setColumn(label, valueBuffer, 0, valueBuffer.length());
+            }
+            position = contentEnd;
+        }
+
+        return row.hasColumn(TradeRow.TYPE) && isTradeType(row.getTradeType());
+    }
+
+    private static int labelOf(CharSequence html, int from, int tagEnd) {
+        int attribute = indexOf(html, DATA_LABEL, from, tagEnd);
+        if (attribute < 0) {
+            return -1;
+        }
+        int valueStart = attribute + DATA_LABEL.length();
+        for (int i = 0; i < LABELS.length; i++) {
+            String label = LABELS[i];
+            int quote = valueStart + label.length();
+            if (quote < tagEnd && html.charAt(quote) == '"' && regionMatches(html, valueStart, label)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Entfernt &nbsp;, fasst Leerraum zusammen und trimmt in den Wertepuffer, ohne Regex
+    private void normalizeValue(CharSequence html, int start, int end) {
+        StringBuilder buffer = valueBuffer;
+        buffer.setLength(0);
+        boolean pendingSpace = false;
+        int i = start;
+        while (i < end) {
+            char c = html.charAt(i);
+            if (c == '&' && i + NBSP.length() <= end && regionMatches(html, i, NBSP)) {
+                i += NBSP.length();
+                continue;
+            }
+            if (isWhitespace(c)) {
+                pendingSpace = true;
+            } else {
+                if (pendingSpace && buffer.length() > 0) {
+                    buffer.append(' ');
+                }
+                pendingSpace = false;
+                buffer.append(c);
+            }
+            i++;
+        }
+    }
+
+    // Wie bisher zählen nur Markt- und Stop-Aufträge als Trade
+    private static boolean isTradeType(TradeType type) {
+        return type == TradeType.BUY || type == TradeType.SELL || type == TradeType.BUY_STOP
+            || type == TradeType.SELL_STOP;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == 0x0B;
+    }
+
+    // Sucht ein Tag wie "<tr", das nicht nur Präfix eines längeren Tag-Namens ist
+    private static int findTag(CharSequence html, String tag, int from, int to) {
+        int position = from;
+        while (true) {
+            int found = indexOf(html, tag, position, to);
+            if (found < 0) {
+                return -1;
+            }
+            int next = found + tag.length();
+            if (next < to) {
+                char c = html.charAt(next);
+                if (c == '>' || isWhitespace(c) || c == '/') {
+                    return found;
+                }
+            }
+            position = next;
+        }
+    }
+
+    // Sucht nur in [from, to). Innerhalb der Seite liefe String.indexOf(token) bei einem Fehlschlag bis zum Ende
+    // der Seite; die Suche nach dem ersten Zeichen (in HTML meist '<', '>' oder ein Buchstabe) endet dagegen gleich
+    // hinter to.
+    private static int indexOf(CharSequence html, String token, int from, int to) {
+        char first = token.charAt(0);
+        int last = to - token.length();
+        if (html instanceof String) {
+            String text = (String) html;
+            if (to == text.length()) {
+                return text.indexOf(token, from);
+            }
+            int i = from;
+            while (i <= last) {
+                i = text.indexOf(first, i);
+                if (i < 0 || i > last) {
+                    return -1;
+                }
+                if (text.regionMatches(i, token, 0, token.length())) {
+                    return i;
+                }
+                i++;
+            }
+            return -1;
+        }
+        for (int i = from; i <= last; i++) {
+            if (html.charAt(i) == first && regionMatches(html, i, token)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionMatches(CharSequence html, int offset, String token) {
+        if (offset + token.length() > html.length()) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (html.charAt(offset + i) != token.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,99 @@
+package analyzer;
+
+// Eröffnungszeit "yyyy.MM.dd HH:mm:ss" wie auf der Signalseite, als Sekunden seit 1970 ohne Zeitzone (UTC).
+// Ohne DateTimeFormatter, damit Parsen und Ausgeben keine Objekte anlegen.
+public final class TradeTimes {
+    public static final long NO_TIME = Long.MIN_VALUE;
+    private static final int LENGTH = 19;
+    private static final String PATTERN = "dddd.dd.dd dd:dd:dd";
+
+    private TradeTimes() {
+    }
+
+    public static long parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    // NO_TIME, wenn [start, end) kein gültiger Zeitpunkt im Format der Signalseite ist
+    public static long parse(CharSequence text, int start, int end) {
+        if (end - start != LENGTH) {
+            return NO_TIME;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            char c = text.charAt(start + i);
+            char expected = PATTERN.charAt(i);
+            if (expected == 'd' ? c < '0' || c > '9' : c != expected) {
+                return NO_TIME;
+            }
+        }
+        int year = number(text, start, 4);
+        int month = number(text, start + 5, 2);
+        int day = number(text, start + 8, 2);
+        int hour = number(text, start + 11, 2);
+        int minute = number(text, start + 14, 2);
+        int second = number(text, start + 17, 2);
+        if (month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month) || hour > 23 || minute > 59
+                || second > 59) {
+            return NO_TIME;
+        }
+        return daysFromCivil(year, month, day) * 86400 + hour * 3600 + minute * 60 + second;
+    }
+
+    public static void append(StringBuilder target, long epochSecond) {
+        long days = Math.floorDiv(epochSecond, 86400);
+        int secondOfDay = Math.floorMod(epochSecond, 86400);
+        // Umkehrung von daysFromCivil
+        long shifted = days + 719468;
+        long era = (shifted >= 0 ? shifted : shifted - 146096) / 146097;
+        long dayOfEra = shifted - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+        int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+        appendDigits(target, year, 4);
+        target.append('.');
+        appendDigits(target, month, 2);
+        target.append('.');
+        appendDigits(target, day, 2);
+        target.append(' ');
+        appendDigits(target, secondOfDay / 3600, 2);
+        target.append(':');
+        appendDigits(target, secondOfDay / 60 % 60, 2);
+        target.append(':');
+        appendDigits(target, secondOfDay % 60, 2);
+    }
+
+    private static int number(CharSequence text, int start, int digits) {
+        int value = 0;
+        for (int i = start; i < start + digits; i++) {
+            value = value * 10 + (text.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    private static void appendDigits(StringBuilder target, int value, int digits) {
+        for (int divisor = digits == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+            target.append((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    private static int daysInMonth(int year, int month) {
+        if (month == 2) {
+            boolean leap = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+            return leap ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    // Tage seit 1970-01-01 im gregorianischen Kalender
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+}
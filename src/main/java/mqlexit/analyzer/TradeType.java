@@ -0,0 +1,75 @@
+package analyzer;
+
+// Auftragsarten der Signalseite. Der Code steht so im Trade-Journal und in den Tagesdateien (siehe
+// export.SnapshotFormat) und darf sich nicht mehr ändern, neue Arten bekommen neue Codes; 0 steht für unbekannt.
+public enum TradeType {
+    UNKNOWN(0, null),
+    BUY(1, "Buy"),
+    SELL(2, "Sell"),
+    BUY_STOP(3, "Buy Stop"),
+    SELL_STOP(4, "Sell Stop"),
+    BUY_LIMIT(5, "Buy Limit"),
+    SELL_LIMIT(6, "Sell Limit"),
+    BUY_STOP_LIMIT(7, "Buy Stop Limit"),
+    SELL_STOP_LIMIT(8, "Sell Stop Limit");
+
+    private static final TradeType[] VALUES = values();
+    private static final TradeType[] BY_CODE = byCode();
+    private final byte code;
+    private final String label;
+
+    TradeType(int code, String label) {
+        this.code = (byte) code;
+        this.label = label;
+    }
+
+    // Text wie auf der Signalseite, null für UNKNOWN
+    public String getLabel() {
+        return label;
+    }
+
+    public byte code() {
+        return code;
+    }
+
+    // Unbekannte Codes ergeben UNKNOWN
+    public static TradeType ofCode(int code) {
+        return code > 0 && code < BY_CODE.length && BY_CODE[code] != null ? BY_CODE[code] : UNKNOWN;
+    }
+
+    private static TradeType[] byCode() {
+        int max = 0;
+        for (TradeType type : VALUES) {
+            max = Math.max(max, type.code);
+        }
+        TradeType[] byCode = new TradeType[max + 1];
+        for (TradeType type : VALUES) {
+            byCode[type.code] = type;
+        }
+        return byCode;
+    }
+
+    public static TradeType parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    // Genau wie auf der Signalseite geschrieben, sonst UNKNOWN
+    public static TradeType parse(CharSequence text, int start, int end) {
+        for (int i = 1; i < VALUES.length; i++) {
+            String label = VALUES[i].label;
+            if (label.length() == end - start && matches(label, text, start)) {
+                return VALUES[i];
+            }
+        }
+        return UNKNOWN;
+    }
+
+    private static boolean matches(String label, CharSequence text, int start) {
+        for (int i = 0; i < label.length(); i++) {
+            if (label.charAt(i) != text.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+package archive;
+
+import java.nio.charset.StandardCharsets;
+
+// Vorgegebenes Deflate-Wörterbuch mit dem typischen Aufbau der mql5-Trade-Tabelle.
+// Deflate findet Wiederholungen am günstigsten am Ende des Wörterbuchs, daher stehen
+// die häufigsten Bausteine (Zeilen und Zellen) zuletzt. Änderungen brauchen eine neue ID,
+// da gepackte Dateien mit dem Wörterbuch ihrer ID gelesen werden.
+final class ArchiveDictionary {
+    static final int ID = 1;
+
+    private static final String[] SYMBOLS = {"XAUUSD", "GBPJPY", "USDCHF", "AUDUSD", "USDCAD", "NZDUSD", "EURJPY",
+        "GBPUSD", "USDJPY", "EURUSD"};
+    private static final String[] TYPES = {"Sell Limit", "Buy Limit", "Sell Stop", "Buy Stop", "Sell", "Buy"};
+
+    private static final byte[] BYTES = build().getBytes(StandardCharsets.UTF_8);
+
+    private ArchiveDictionary() {
+    }
+
+    static byte[] bytes() {
+        return BYTES;
+    }
+
+    private static String build() {
+        StringBuilder dictionary = new StringBuilder(4096);
+        dictionary.append("<tbody></tbody><span class=\"profit\"></span><span class=\"loss\"></span>&nbsp;");
+        for (String type : TYPES) {
+            dictionary.append("<td data-label=\"Type\">").append(type).append("</td>\n");
+        }
+        for (String symbol : SYMBOLS) {
+            dictionary.append("<td data-label=\"Symbol\" class=\"signals-table__symbol\">").append(symbol).append("</td>\n");
+        }
+        dictionary.append("<tr class=\"signals-table__row\">\n")
+            .append("  <td data-label=\"Symbol\" class=\"signals-table__symbol\">EURUSD</td>\n")
+            .append("  <td data-label=\"Time\">2024.01.01 00:00:00</td>\n")
+            .append("  <td data-label=\"Type\">Buy</td>\n")
+            .append("  <td data-label=\"Volume\">0.01</td>\n")
+            .append("  <td data-label=\"Price\">1.00000</td>\n")
+            .append("  <td data-label=\"S/L\">1.00000</td>\n")
+            .append("  <td data-label=\"T/P\">1.00000</td>\n")
+            .append("  <td data-label=\"Market Price\">1.00000</td>\n")
+            .append("  <td data-label=\"Swap\">0.00</td>\n")
+            .append("  <td data-label=\"Profit\">0.00</td>\n")
+            .append("</tr>\n");
+        return dictionary.toString();
+    }
+}
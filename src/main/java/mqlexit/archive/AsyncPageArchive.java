@@ -0,0 +1,49 @@
+package archive;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import logging.LoggerManagerE;
+
+// Write-behind: das Archivieren läuft in einem eigenen Thread und blockiert den Abruf nicht
+public class AsyncPageArchive implements PageArchive {
+    private final PageArchive target;
+    private final ThreadPoolExecutor writer;
+
+    public AsyncPageArchive(PageArchive target, int queueCapacity) {
+        this.target = target;
+        this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "page-archive");
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @Override
+    public void archive(String providerName, LocalDateTime fetchedAt, String pageSource) {
+        try {
+            writer.execute(() -> target.archive(providerName, fetchedAt, pageSource));
+        } catch (RejectedExecutionException e) {
+            // Lieber einen Archiv-Eintrag verlieren als den Abruf aufhalten
+            LoggerManagerE.warn("Archive queue full, page of Signal Provider " + providerName + " not archived");
+        }
+    }
+
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                LoggerManagerE.warn("Archive writer did not finish within 30 seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        target.close();
+    }
+}
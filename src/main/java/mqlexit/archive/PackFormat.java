@@ -0,0 +1,76 @@
+package archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Aufbau der Tagesdateien eines gepackten Archivs, pro Signal und Tag:
+// yyyyMMdd.pack  Kopf, dann Blöcke aus SHA-256 (32), Rohlänge (4), gepackte Länge (4), Daten
+// yyyyMMdd.idx   Kopf, dann je Abruf Zeitpunkt (8), Blockposition (8), Blocklänge (4), Rohlänge (4)
+final class PackFormat {
+    static final int PACK_MAGIC = 0x4D514C50;
+    static final int INDEX_MAGIC = 0x4D514C49;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 12;
+    static final int HASH_LENGTH = 32;
+    static final int BLOCK_HEADER_SIZE = HASH_LENGTH + 8;
+    static final int INDEX_ENTRY_SIZE = 24;
+    static final String PACK_SUFFIX = ".pack";
+    static final String INDEX_SUFFIX = ".idx";
+    static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private PackFormat() {
+    }
+
+    static Path packFile(Path providerDir, LocalDate day) {
+        return providerDir.resolve(day.format(DAY_FORMAT) + PACK_SUFFIX);
+    }
+
+    static Path indexFile(Path providerDir, LocalDate day) {
+        return providerDir.resolve(day.format(DAY_FORMAT) + INDEX_SUFFIX);
+    }
+
+    static byte[] compress(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setDictionary(ArchiveDictionary.bytes());
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            int written = deflater.deflate(buffer);
+            out.write(buffer, 0, written);
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] decompress(byte[] compressed, int offset, int length, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed, offset, length);
+            byte[] raw = new byte[rawLength];
+            int filled = 0;
+            while (filled < rawLength) {
+                int read = inflater.inflate(raw, filled, rawLength - filled);
+                if (read == 0) {
+                    if (inflater.needsDictionary()) {
+                        inflater.setDictionary(ArchiveDictionary.bytes());
+                    } else if (inflater.finished() || inflater.needsInput()) {
+                        throw new IOException("Truncated archive block");
+                    }
+                }
+                filled += read;
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt archive block: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
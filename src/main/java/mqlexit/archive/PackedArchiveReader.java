@@ -0,0 +1,218 @@
+package archive;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+// Liest ein von PackedPageArchive geschriebenes Archiv. Über die Tagesindizes wird ein Zeitpunkt per
+// Binärsuche gefunden, ohne die Blöcke davor zu entpacken. Thread-safe. Offen bleiben höchstens
+// MAX_OPEN_PACKS Tagesdateien, die am längsten unbenutzte wird geschlossen, sobald sie niemand mehr liest.
+public class PackedArchiveReader implements AutoCloseable {
+    private static final int MAX_OPEN_PACKS = 16;
+
+    private final Path baseDir;
+    // In Zugriffsreihenfolge, die älteste zuerst
+    private final LinkedHashMap<Path, OpenPack> openPacks = new LinkedHashMap<>(32, 0.75f, true);
+
+    public PackedArchiveReader(Path baseDir) {
+        this.baseDir = baseDir;
+    }
+
+    public boolean hasPackedArchive(String providerName) throws IOException {
+        return !days(providerName).isEmpty();
+    }
+
+    // Alle Abrufe im Zeitraum [from, to] in Millisekunden, zeitlich sortiert
+    public List<PackedSnapshot> snapshots(String providerName, long from, long to) throws IOException {
+        List<PackedSnapshot> snapshots = new ArrayList<>();
+        LocalDate fromDay = toDay(from);
+        LocalDate toDay = toDay(to);
+        for (LocalDate day : days(providerName)) {
+            if (day.isBefore(fromDay) || day.isAfter(toDay)) {
+                continue;
+            }
+            for (PackedSnapshot snapshot : snapshots(providerName, day)) {
+                if (snapshot.getFetchedAt() >= from && snapshot.getFetchedAt() <= to) {
+                    snapshots.add(snapshot);
+                }
+            }
+        }
+        return snapshots;
+    }
+
+    // Alle Abrufe eines Tages, zeitlich sortiert
+    public List<PackedSnapshot> snapshots(String providerName, LocalDate day) throws IOException {
+        Path providerDir = baseDir.resolve(providerName);
+        ByteBuffer entries = readIndex(PackFormat.indexFile(providerDir, day));
+        Path packFile = PackFormat.packFile(providerDir, day);
+        List<PackedSnapshot> snapshots = new ArrayList<>(entryCount(entries));
+        for (int i = 0; i < entryCount(entries); i++) {
+            snapshots.add(snapshot(entries, i, packFile));
+        }
+        return snapshots;
+    }
+
+    // Der zum Zeitpunkt gültige Abruf, also der letzte davor oder genau dann; null, wenn es keinen gibt
+    public PackedSnapshot snapshotAt(String providerName, LocalDateTime at) throws IOException {
+        long time = at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        List<LocalDate> days = days(providerName);
+        Path providerDir = baseDir.resolve(providerName);
+        for (int d = days.size() - 1; d >= 0; d--) {
+            LocalDate day = days.get(d);
+            if (day.isAfter(at.toLocalDate())) {
+                continue;
+            }
+            ByteBuffer entries = readIndex(PackFormat.indexFile(providerDir, day));
+            int low = 0;
+            int high = entryCount(entries);
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (fetchedAt(entries, middle) <= time) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            if (low > 0) {
+                return snapshot(entries, low - 1, PackFormat.packFile(providerDir, day));
+            }
+        }
+        return null;
+    }
+
+    // Entpackt die archivierte Trade-Tabelle
+    public String load(PackedSnapshot snapshot) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(snapshot.getBlockLength());
+        OpenPack pack = acquire(snapshot.getPackFile());
+        try {
+            while (block.hasRemaining()) {
+                if (pack.channel.read(block, snapshot.getBlockOffset() + block.position()) < 0) {
+                    throw new EOFException("Archive block beyond end of " + snapshot.getPackFile());
+                }
+            }
+        } finally {
+            release(pack);
+        }
+        int compressedLength = block.getInt(PackFormat.HASH_LENGTH + 4);
+        byte[] raw = PackFormat.decompress(block.array(), PackFormat.BLOCK_HEADER_SIZE, compressedLength,
+            snapshot.getRawLength());
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+
+    // Tage mit gepacktem Archiv, aufsteigend
+    public List<LocalDate> days(String providerName) throws IOException {
+        List<LocalDate> days = new ArrayList<>();
+        Path providerDir = baseDir.resolve(providerName);
+        if (!Files.isDirectory(providerDir)) {
+            return days;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(providerDir, "*" + PackFormat.INDEX_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    days.add(LocalDate.parse(name.substring(0, name.length() - PackFormat.INDEX_SUFFIX.length()),
+                        PackFormat.DAY_FORMAT));
+                } catch (RuntimeException e) {
+                    // Keine Tagesdatei
+                }
+            }
+        }
+        Collections.sort(days);
+        return days;
+    }
+
+    // Der Index eines Tages ist klein genug, um ihn komplett zu lesen
+    private static ByteBuffer readIndex(Path indexFile) throws IOException {
+        ByteBuffer entries = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+        if (entries.limit() < PackFormat.HEADER_SIZE || entries.getInt(0) != PackFormat.INDEX_MAGIC
+                || entries.getInt(4) != PackFormat.VERSION) {
+            throw new IOException("Not an archive index: " + indexFile);
+        }
+        return entries;
+    }
+
+    private static int entryCount(ByteBuffer entries) {
+        return (entries.limit() - PackFormat.HEADER_SIZE) / PackFormat.INDEX_ENTRY_SIZE;
+    }
+
+    private static long fetchedAt(ByteBuffer entries, int index) {
+        return entries.getLong(PackFormat.HEADER_SIZE + index * PackFormat.INDEX_ENTRY_SIZE);
+    }
+
+    private static PackedSnapshot snapshot(ByteBuffer entries, int index, Path packFile) {
+        int offset = PackFormat.HEADER_SIZE + index * PackFormat.INDEX_ENTRY_SIZE;
+        return new PackedSnapshot(entries.getLong(offset), packFile, entries.getLong(offset + 8),
+            entries.getInt(offset + 16), entries.getInt(offset + 20));
+    }
+
+    private static LocalDate toDay(long millis) {
+        if (millis == Long.MIN_VALUE) {
+            return LocalDate.MIN;
+        }
+        if (millis == Long.MAX_VALUE) {
+            return LocalDate.MAX;
+        }
+        return Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    private synchronized OpenPack acquire(Path packFile) throws IOException {
+        OpenPack pack = openPacks.get(packFile);
+        if (pack == null) {
+            pack = new OpenPack(FileChannel.open(packFile, StandardOpenOption.READ));
+            openPacks.put(packFile, pack);
+        }
+        pack.readers++;
+        closeIdle();
+        return pack;
+    }
+
+    private synchronized void release(OpenPack pack) throws IOException {
+        pack.readers--;
+        closeIdle();
+    }
+
+    // Schließt die am längsten unbenutzten Dateien über MAX_OPEN_PACKS, solange sie gerade niemand liest
+    private void closeIdle() throws IOException {
+        Iterator<OpenPack> packs = openPacks.values().iterator();
+        while (openPacks.size() > MAX_OPEN_PACKS && packs.hasNext()) {
+            OpenPack pack = packs.next();
+            if (pack.readers == 0) {
+                packs.remove();
+                pack.channel.close();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (OpenPack pack : openPacks.values()) {
+            pack.channel.close();
+        }
+        openPacks.clear();
+    }
+
+    // Eine offene Tagesdatei und die Zahl der Leser, die gerade darin lesen
+    private static final class OpenPack {
+        final FileChannel channel;
+        int readers;
+
+        OpenPack(FileChannel channel) {
+            this.channel = channel;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package archive;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import analyzer.TradeTableParser;
+import logging.LoggerManagerE;
+import metrics.MetricsRegistry;
+
+// Archiviert statt der ganzen Seite nur die Trade-Tabelle. Gleiche Tabellen werden pro Tag nur einmal
+// gespeichert (SHA-256), neue mit Wörterbuch komprimiert. Jeder Abruf bekommt einen Indexeintrag,
+// der auf den Block in der Tagesdatei zeigt. Gelesen wird mit PackedArchiveReader.
+public class PackedPageArchive implements PageArchive {
+    private final Path baseDir;
+    private final Map<String, DayPack> openPacks = new HashMap<>();
+    private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    private final MessageDigest digest;
+
+    public PackedPageArchive(String baseDir) {
+        this.baseDir = Paths.get(baseDir);
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Override
+    public synchronized void archive(String providerName, LocalDateTime fetchedAt, String pageSource) {
+        long saveStart = System.nanoTime();
+        String fragment = TradeTableParser.extractTableFragment(pageSource);
+        byte[] raw = (fragment != null ? fragment : pageSource).getBytes(StandardCharsets.UTF_8);
+        byte[] hash = digest.digest(raw);
+        try {
+            DayPack pack = packFor(providerName, fetchedAt.toLocalDate());
+            String hashKey = HexFormat.of().formatHex(hash);
+            Long blockOffset = pack.blocks.get(hashKey);
+            if (blockOffset == null) {
+                blockOffset = pack.appendBlock(hash, raw.length, PackFormat.compress(deflater, raw));
+                pack.blocks.put(hashKey, blockOffset);
+            } else {
+                MetricsRegistry.get().counter("archive_deduplicated", providerName).increment();
+            }
+            long fetchedAtMillis = fetchedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            pack.appendIndex(fetchedAtMillis, blockOffset);
+            MetricsRegistry.get().timer("html_save", providerName).recordSince(saveStart);
+        } catch (IOException e) {
+            LoggerManagerE.error("Error archiving page of Signal Provider " + providerName + ": " + e.getMessage());
+        }
+    }
+
+    private DayPack packFor(String providerName, LocalDate day) throws IOException {
+        DayPack pack = openPacks.get(providerName);
+        if (pack != null && pack.day.equals(day)) {
+            return pack;
+        }
+        if (pack != null) {
+            pack.close();
+            openPacks.remove(providerName);
+        }
+        Path providerDir = baseDir.resolve(providerName);
+        Files.createDirectories(providerDir);
+        pack = new DayPack(providerDir, day);
+        openPacks.put(providerName, pack);
+        return pack;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (DayPack pack : openPacks.values()) {
+            try {
+                pack.close();
+            } catch (IOException e) {
+                LoggerManagerE.error("Error closing archive pack: " + e.getMessage());
+            }
+        }
+        openPacks.clear();
+        deflater.end();
+    }
+
+    // Die offenen Dateien eines Signals für einen Tag
+    private static final class DayPack {
+        final LocalDate day;
+        final Map<String, Long> blocks = new HashMap<>();
+        final FileChannel packChannel;
+        final FileChannel indexChannel;
+        final ByteBuffer indexEntry = ByteBuffer.allocate(PackFormat.INDEX_ENTRY_SIZE);
+        // Position und Länge der Blöcke für die Indexeinträge
+        final Map<Long, int[]> blockSizes = new HashMap<>();
+
+        DayPack(Path providerDir, LocalDate day) throws IOException {
+            this.day = day;
+            this.packChannel = FileChannel.open(PackFormat.packFile(providerDir, day),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.indexChannel = FileChannel.open(PackFormat.indexFile(providerDir, day),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                openPack();
+                openIndex();
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        // Bekannte Blöcke einlesen, einen nach Absturz unvollständigen letzten Block abschneiden
+        private void openPack() throws IOException {
+            if (packChannel.size() < PackFormat.HEADER_SIZE) {
+                writeHeader(packChannel, PackFormat.PACK_MAGIC, ArchiveDictionary.ID);
+                return;
+            }
+            ByteBuffer header = ByteBuffer.allocate(PackFormat.HEADER_SIZE);
+            packChannel.read(header, 0);
+            if (header.getInt(0) != PackFormat.PACK_MAGIC || header.getInt(4) != PackFormat.VERSION
+                    || header.getInt(8) != ArchiveDictionary.ID) {
+                throw new IOException("Unsupported archive pack format");
+            }
+            long size = packChannel.size();
+            long position = PackFormat.HEADER_SIZE;
+            ByteBuffer blockHeader = ByteBuffer.allocate(PackFormat.BLOCK_HEADER_SIZE);
+            while (position + PackFormat.BLOCK_HEADER_SIZE <= size) {
+                blockHeader.clear();
+                packChannel.read(blockHeader, position);
+                int rawLength = blockHeader.getInt(PackFormat.HASH_LENGTH);
+                int compressedLength = blockHeader.getInt(PackFormat.HASH_LENGTH + 4);
+                long blockLength = PackFormat.BLOCK_HEADER_SIZE + (long) compressedLength;
+                if (compressedLength < 0 || position + blockLength > size) {
+                    break;
+                }
+                byte[] hash = new byte[PackFormat.HASH_LENGTH];
+                blockHeader.get(0, hash);
+                blocks.put(HexFormat.of().formatHex(hash), position);
+                blockSizes.put(position, new int[] {(int) blockLength, rawLength});
+                position += blockLength;
+            }
+            if (position < size) {
+                LoggerManagerE.warn("Truncating incomplete archive block at " + position);
+                packChannel.truncate(position);
+            }
+        }
+
+        private void openIndex() throws IOException {
+            long size = indexChannel.size();
+            if (size < PackFormat.HEADER_SIZE) {
+                writeHeader(indexChannel, PackFormat.INDEX_MAGIC, 0);
+                return;
+            }
+            long entries = (size - PackFormat.HEADER_SIZE) / PackFormat.INDEX_ENTRY_SIZE;
+            long validSize = PackFormat.HEADER_SIZE + entries * PackFormat.INDEX_ENTRY_SIZE;
+            if (validSize < size) {
+                indexChannel.truncate(validSize);
+            }
+        }
+
+        private static void writeHeader(FileChannel channel, int magic, int dictionaryId) throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(PackFormat.HEADER_SIZE);
+            header.putInt(magic).putInt(PackFormat.VERSION).putInt(dictionaryId).flip();
+            channel.truncate(0);
+            channel.write(header, 0);
+        }
+
+        long appendBlock(byte[] hash, int rawLength, byte[] compressed) throws IOException {
+            long position = packChannel.size();
+            ByteBuffer block = ByteBuffer.allocate(PackFormat.BLOCK_HEADER_SIZE + compressed.length);
+            block.put(hash).putInt(rawLength).putInt(compressed.length).put(compressed).flip();
+            while (block.hasRemaining()) {
+                packChannel.write(block, position + block.position());
+            }
+            blockSizes.put(position, new int[] {PackFormat.BLOCK_HEADER_SIZE + compressed.length, rawLength});
+            return position;
+        }
+
+        void appendIndex(long fetchedAtMillis, long blockOffset) throws IOException {
+            int[] sizes = blockSizes.get(blockOffset);
+            indexEntry.clear();
+            indexEntry.putLong(fetchedAtMillis).putLong(blockOffset).putInt(sizes[0]).putInt(sizes[1]).flip();
+            long position = indexChannel.size();
+            while (indexEntry.hasRemaining()) {
+                indexChannel.write(indexEntry, position + indexEntry.position());
+            }
+        }
+
+        void close() throws IOException {
+            try {
+                packChannel.close();
+            } finally {
+                indexChannel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package archive;
+
+import java.nio.file.Path;
+
+// Verweis auf einen archivierten Abruf; mehrere Abrufe mit gleicher Tabelle zeigen auf denselben Block
+public class PackedSnapshot {
+    private final long fetchedAt;
+    private final Path packFile;
+    private final long blockOffset;
+    private final int blockLength;
+    private final int rawLength;
+
+    PackedSnapshot(long fetchedAt, Path packFile, long blockOffset, int blockLength, int rawLength) {
+        this.fetchedAt = fetchedAt;
+        this.packFile = packFile;
+        this.blockOffset = blockOffset;
+        this.blockLength = blockLength;
+        this.rawLength = rawLength;
+    }
+
+    // Millisekunden seit 1970
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+
+    // Gleicher Schlüssel bedeutet gleicher Inhalt
+    public String getContentKey() {
+        return packFile.getFileName() + "@" + blockOffset;
+    }
+
+    Path getPackFile() {
+        return packFile;
+    }
+
+    long getBlockOffset() {
+        return blockOffset;
+    }
+
+    int getBlockLength() {
+        return blockLength;
+    }
+
+    int getRawLength() {
+        return rawLength;
+    }
+}
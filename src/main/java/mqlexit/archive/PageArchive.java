@@ -0,0 +1,12 @@
+package archive;
+
+import java.time.LocalDateTime;
+
+public interface PageArchive extends AutoCloseable {
+
+    void archive(String providerName, LocalDateTime fetchedAt, String pageSource);
+
+    @Override
+    default void close() {
+    }
+}
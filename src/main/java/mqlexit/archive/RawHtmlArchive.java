@@ -0,0 +1,37 @@
+package archive;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import logging.LoggerManagerE;
+import metrics.MetricsRegistry;
+
+// Legt jede Seite wie bisher als baseDir/<Signal>/yyyyMMdd_HHmmss.html ab
+public class RawHtmlArchive implements PageArchive {
+    private static final DateTimeFormatter FILE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private final String baseDir;
+
+    public RawHtmlArchive(String baseDir) {
+        this.baseDir = baseDir;
+    }
+
+    @Override
+    public void archive(String providerName, LocalDateTime fetchedAt, String pageSource) {
+        String fileName = baseDir + File.separator + providerName + File.separator
+            + fetchedAt.format(FILE_TIME_FORMAT) + ".html";
+        long saveStart = System.nanoTime();
+        try (Writer writer = Files.newBufferedWriter(Paths.get(fileName), Charset.defaultCharset())) {
+            writer.write(pageSource);
+            MetricsRegistry.get().timer("html_save", providerName).recordSince(saveStart);
+            LoggerManagerE.info("Webpage saved successfully: " + fileName);
+        } catch (IOException e) {
+            LoggerManagerE.error("Error saving webpage " + fileName + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package browser;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import config.CredentialsE;
+import logging.LoggerManagerE;
+import metrics.MetricsRegistry;
+import resilience.CircuitBreaker;
+import resilience.FailureKind;
+
+public class BrowserSession {
+    private static final String LOGIN_URL = "https://www.mql5.com/en/auth_login";
+    private static final String COOKIE_DOMAIN_URL = "https://www.mql5.com/en";
+    // Ladezeiten von Login-Formular und Weiterleitung nach dem Login, für alle Sessions gemeinsam
+    private static final LoadTimeEstimate LOGIN_FORM_LOAD = new LoadTimeEstimate(Duration.ofSeconds(10), Duration.ofSeconds(90));
+    private static final LoadTimeEstimate LOGIN_REDIRECT = new LoadTimeEstimate(Duration.ofSeconds(5), Duration.ofSeconds(30));
+    private final int id;
+    private final WebDriver driver;
+    private final CredentialsE credentials;
+    private final Consumer<Set<Cookie>> loginListener;
+    // Von allen Sessions geteilt: nach wiederholt fehlgeschlagenem Login wird eine Weile gar nicht eingeloggt
+    private final CircuitBreaker loginBreaker;
+    private volatile boolean loggedIn = false;
+    private volatile boolean loginPagePrefetched = false;
+
+    public BrowserSession(int id, WebDriver driver, CredentialsE credentials, Consumer<Set<Cookie>> loginListener,
+            CircuitBreaker loginBreaker) {
+        this.id = id;
+        this.driver = driver;
+        this.credentials = credentials;
+        this.loginListener = loginListener;
+        this.loginBreaker = loginBreaker;
+
+        // Keine implizite Wartezeit: gewartet wird nur explizit über PageReadiness, sonst kostet jede
+        // Abfrage eines (noch) fehlenden Elements die volle implizite Wartezeit
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
+        driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(30));
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    public boolean isLoggedIn() {
+        return loggedIn;
+    }
+
+    public void invalidateLogin() {
+        loggedIn = false;
+    }
+
+    public void ensureLoggedIn() {
+        if (!loggedIn) {
+            LoggerManagerE.info("Session " + id + " not logged in, performing login first...");
+            performLogin();
+        }
+    }
+
+    public void performLogin() {
+        loginBreaker.acquire();
+        LoggerManagerE.info("Session " + id + ": starting login process...");
+        long loginStart = System.nanoTime();
+        try {
+            // Ein beim Start vorab geladenes Login-Formular wird genau einmal verwendet
+            if (!loginPagePrefetched || !driver.getCurrentUrl().contains("auth_login")) {
+                driver.get(LOGIN_URL);
+            }
+            loginPagePrefetched = false;
+
+            // Warte auf das Login-Formular
+            long formWait = System.nanoTime();
+            try {
+                WebElement usernameField = new WebDriverWait(driver, LOGIN_FORM_LOAD.timeout(), PageReadiness.POLL_INTERVAL)
+                    .until(ExpectedConditions.visibilityOfElementLocated(By.id("Login")));
+                LOGIN_FORM_LOAD.record(System.nanoTime() - formWait);
+                fillLoginForm(usernameField);
+            } catch (TimeoutException e) {
+                LOGIN_FORM_LOAD.recordTimeout();
+                throw e;
+            }
+
+            clickLoginButton();
+            verifyLogin();
+            loggedIn = true;
+            loginBreaker.onSuccess();
+            MetricsRegistry.get().timer("login", MetricsRegistry.ALL_SIGNALS).recordSince(loginStart);
+            LoggerManagerE.info("Session " + id + ": login successful");
+            if (loginListener != null) {
+                loginListener.accept(driver.manage().getCookies());
+            }
+
+        } catch (Exception e) {
+            LoggerManagerE.error("Session " + id + ": login process failed: " + e.getMessage());
+            MetricsRegistry.get().counter("login_failures", MetricsRegistry.ALL_SIGNALS).increment();
+            loginBreaker.onFailure(FailureKind.TRANSIENT);
+            loggedIn = false;
+            throw new RuntimeException("Login failed", e);
+        }
+    }
+
+    private void fillLoginForm(WebElement usernameField) {
+        WebElement passwordField = driver.findElement(By.id("Password"));
+
+        // Eingabefelder leeren und neu befüllen
+        usernameField.clear();
+        passwordField.clear();
+        usernameField.sendKeys(credentials.getUsername());
+        passwordField.sendKeys(credentials.getPassword());
+    }
+
+    private void clickLoginButton() {
+        WebElement loginButton = findLoginButton();
+        if (loginButton != null) {
+            try {
+                // Statt fester Pause vor dem Klick: warten, bis der Button klickbar ist
+                new WebDriverWait(driver, Duration.ofSeconds(10), PageReadiness.POLL_INTERVAL)
+                    .until(ExpectedConditions.elementToBeClickable(loginButton));
+                ((JavascriptExecutor) driver).executeScript("arguments[0].click();", loginButton);
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to click login button", e);
+            }
+        } else {
+            throw new RuntimeException("Login button could not be found");
+        }
+    }
+
+    private WebElement findLoginButton() {
+        try {
+            return driver.findElement(By.id("loginSubmit"));
+        } catch (Exception e) {
+            try {
+                return driver.findElement(By.cssSelector("input.button.button_yellow.qa-submit"));
+            } catch (Exception ex) {
+                return null;
+            }
+        }
+    }
+
+    private void verifyLogin() {
+        // Der Login ist durch, sobald die Seite von auth_login weitergeleitet hat
+        try {
+            long waited = PageReadiness.awaitCondition(() -> !driver.getCurrentUrl().contains("auth_login"),
+                LOGIN_REDIRECT.timeout(), "redirect after login");
+            LOGIN_REDIRECT.record(waited);
+        } catch (TimeoutException e) {
+            LOGIN_REDIRECT.recordTimeout();
+            throw new RuntimeException("Still on login page after login attempt", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Login verification interrupted", e);
+        } catch (Exception e) {
+            throw new RuntimeException("Login verification failed", e);
+        }
+    }
+
+    // Lädt das Login-Formular schon, während der Rest der Anwendung noch startet
+    public void prefetchLoginPage() {
+        try {
+            driver.get(LOGIN_URL);
+            loginPagePrefetched = true;
+        } catch (Exception e) {
+            LoggerManagerE.warn("Session " + id + ": could not prefetch login page: " + e.getMessage());
+        }
+    }
+
+    // Übernimmt die Cookies einer früheren Anmeldung. Sind sie abgelaufen, landet der nächste
+    // Abruf auf auth_login und es wird wie gewohnt neu eingeloggt.
+    public void restoreCookies(Set<Cookie> cookies) {
+        try {
+            driver.get(COOKIE_DOMAIN_URL);
+            for (Cookie cookie : cookies) {
+                driver.manage().addCookie(cookie);
+            }
+            loggedIn = true;
+            LoggerManagerE.info("Session " + id + ": restored " + cookies.size() + " cookies, skipping login");
+        } catch (Exception e) {
+            LoggerManagerE.warn("Session " + id + ": could not restore cookies: " + e.getMessage());
+            loggedIn = false;
+        }
+    }
+
+    // Günstige Prüfung, ob Browser und Fenster noch reagieren
+    public boolean isHealthy() {
+        try {
+            driver.getWindowHandle();
+            Object result = ((JavascriptExecutor) driver).executeScript("return 1;");
+            return result != null;
+        } catch (Exception e) {
+            LoggerManagerE.warn("Session " + id + " failed health check: " + e.getMessage());
+            return false;
+        }
+    }
+
+    public String getUserAgent() {
+        Object userAgent = ((JavascriptExecutor) driver).executeScript("return navigator.userAgent;");
+        return userAgent != null ? userAgent.toString() : null;
+    }
+
+    public void quit() {
+        try {
+            LoggerManagerE.info("Closing WebDriver of session " + id + "...");
+            driver.quit();
+        } catch (Exception e) {
+            LoggerManagerE.error("Error closing WebDriver of session " + id + ": " + e.getMessage());
+        }
+    }
+}
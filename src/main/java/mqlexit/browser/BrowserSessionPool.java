@@ -0,0 +1,229 @@
+package browser;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openqa.selenium.Cookie;
+
+import config.CredentialsE;
+import logging.LoggerManagerE;
+import metrics.MetricsRegistry;
+import resilience.CircuitBreaker;
+
+public class BrowserSessionPool implements HttpSessionSource, AutoCloseable {
+    private final WebDriverManagerE webDriverManager;
+    private final CredentialsE credentials;
+    private final CookieStore cookieStore;
+    private final CircuitBreaker loginBreaker;
+    private final int maxSessions;
+    private final BlockingQueue<BrowserSession> idleSessions = new LinkedBlockingQueue<>();
+    private final Set<BrowserSession> allSessions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    private final AtomicInteger sessionIds = new AtomicInteger();
+    private final ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "session-pool-maintenance");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Set<Cookie> sharedCookies;
+    private volatile boolean keepWarm = false;
+    private volatile boolean closed = false;
+
+    // cookieStore darf null sein, dann wird nach jedem Neustart neu eingeloggt
+    public BrowserSessionPool(WebDriverManagerE webDriverManager, CredentialsE credentials, int maxSessions,
+            CookieStore cookieStore, CircuitBreaker loginBreaker) {
+        if (maxSessions < 1) {
+            throw new IllegalArgumentException("Session pool needs at least one session");
+        }
+        this.webDriverManager = webDriverManager;
+        this.credentials = credentials;
+        this.maxSessions = maxSessions;
+        this.cookieStore = cookieStore;
+        this.loginBreaker = loginBreaker;
+        if (cookieStore != null) {
+            Set<Cookie> storedCookies = cookieStore.load();
+            this.sharedCookies = storedCookies.isEmpty() ? null : storedCookies;
+        }
+    }
+
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+    // Startet die erste Session im Hintergrund, während die Anwendung sich noch initialisiert. Ohne
+    // gespeicherte Cookies wird dabei schon das Login-Formular geladen.
+    public CompletableFuture<Void> prewarm() {
+        return CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            BrowserSession session = tryCreateSession();
+            if (session == null) {
+                return;
+            }
+            if (!session.isLoggedIn()) {
+                session.prefetchLoginPage();
+            }
+            idleSessions.offer(session);
+            MetricsRegistry.get().timer("startup_session_ready", MetricsRegistry.ALL_SIGNALS).recordSince(start);
+        }, maintenance);
+    }
+
+    // Hält alle Sessions vorgewärmt und prüft freie Sessions regelmäßig
+    public void startMaintenance(Duration healthCheckInterval) {
+        keepWarm = true;
+        maintenance.execute(this::fillPool);
+        long intervalMillis = healthCheckInterval.toMillis();
+        maintenance.scheduleWithFixedDelay(this::checkIdleSessions, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public BrowserSession acquire() throws InterruptedException {
+        while (true) {
+            if (closed) {
+                throw new IllegalStateException("Session pool is closed");
+            }
+            BrowserSession session = idleSessions.poll();
+            if (session == null) {
+                // Neue Session nur starten, solange das Limit nicht erreicht ist
+                session = tryCreateSession();
+                if (session != null) {
+                    return session;
+                }
+                session = idleSessions.poll(1, TimeUnit.SECONDS);
+                if (session == null) {
+                    continue;
+                }
+            }
+            if (session.isHealthy()) {
+                return session;
+            }
+            discard(session);
+        }
+    }
+
+    public void release(BrowserSession session) {
+        if (closed) {
+            discard(session);
+            return;
+        }
+        idleSessions.offer(session);
+    }
+
+    // Entfernt eine defekte Session und startet im Hintergrund einen Ersatz
+    public void discard(BrowserSession session) {
+        if (allSessions.remove(session)) {
+            sessionCount.decrementAndGet();
+            idleSessions.remove(session);
+            session.quit();
+            if (keepWarm && !closed) {
+                maintenance.execute(this::fillPool);
+            }
+        }
+    }
+
+    // Loggt eine Browser-Session ein und übergibt deren Cookies an den HTTP-Abruf
+    @Override
+    public void exportSessionTo(HttpPageFetcher fetcher, boolean forceLogin) throws InterruptedException {
+        BrowserSession session = acquire();
+        try {
+            if (forceLogin) {
+                session.invalidateLogin();
+            }
+            session.ensureLoggedIn();
+            fetcher.updateSession(session.getDriver().manage().getCookies(), session.getUserAgent());
+        } finally {
+            release(session);
+        }
+    }
+
+    private void fillPool() {
+        while (keepWarm && !closed) {
+            try {
+                BrowserSession session = tryCreateSession();
+                if (session == null) {
+                    return;
+                }
+                idleSessions.offer(session);
+            } catch (RuntimeException e) {
+                LoggerManagerE.error("Could not start warm browser session: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void checkIdleSessions() {
+        List<BrowserSession> checked = new ArrayList<>();
+        BrowserSession session;
+        // Freie Sessions werden zum Prüfen kurz entnommen, damit sie niemand parallel benutzt
+        while ((session = idleSessions.poll()) != null) {
+            if (session.isHealthy()) {
+                checked.add(session);
+            } else {
+                LoggerManagerE.warn("Replacing unhealthy browser session " + session.getId());
+                discard(session);
+            }
+        }
+        for (BrowserSession healthy : checked) {
+            release(healthy);
+        }
+        fillPool();
+    }
+
+    private BrowserSession tryCreateSession() {
+        while (true) {
+            int count = sessionCount.get();
+            if (count >= maxSessions) {
+                return null;
+            }
+            if (sessionCount.compareAndSet(count, count + 1)) {
+                break;
+            }
+        }
+        try {
+            return createSession();
+        } catch (RuntimeException e) {
+            sessionCount.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private BrowserSession createSession() {
+        int id = sessionIds.incrementAndGet();
+        LoggerManagerE.info("Starting browser session " + id + " (" + sessionCount.get() + " of " + maxSessions + ")");
+        BrowserSession session = new BrowserSession(id, webDriverManager.initializeDriver(), credentials, this::onLogin,
+            loginBreaker);
+        allSessions.add(session);
+
+        // Cookies des letzten Logins übernehmen, damit nur eine Session einloggen muss
+        Set<Cookie> cookies = sharedCookies;
+        if (cookies != null) {
+            session.restoreCookies(cookies);
+        }
+        return session;
+    }
+
+    private void onLogin(Set<Cookie> cookies) {
+        sharedCookies = cookies;
+        if (cookieStore != null) {
+            cookieStore.save(cookies);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        maintenance.shutdownNow();
+        for (BrowserSession session : allSessions) {
+            discard(session);
+        }
+        idleSessions.clear();
+    }
+}
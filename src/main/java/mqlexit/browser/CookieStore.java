@@ -0,0 +1,204 @@
+package browser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.AclEntry;
+import java.nio.file.attribute.AclEntryPermission;
+import java.nio.file.attribute.AclEntryType;
+import java.nio.file.attribute.AclFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Collection;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openqa.selenium.Cookie;
+
+import config.CredentialsE;
+import logging.LoggerManagerE;
+
+// Speichert die Cookies einer eingeloggten Session, damit nach einem Neustart kein erneuter Login nötig ist.
+// Die Verschlüsselung (AES-GCM, Schlüssel aus den Zugangsdaten) ist nur eine Verschleierung: die Zugangsdaten
+// stehen im Klartext in conf.txt, wer beide Dateien lesen kann, kommt an die Cookies. Geschützt wird die Datei
+// deshalb über ihre Zugriffsrechte, sie ist nur für den eigenen Benutzer lesbar.
+public class CookieStore {
+    private static final int MAGIC = 0x4D514C43;
+    private static final int VERSION = 1;
+    private static final int SALT_LENGTH = 16;
+    private static final int IV_LENGTH = 12;
+    private static final int KEY_ITERATIONS = 65536;
+    private final Path storeFile;
+    private final CredentialsE credentials;
+    private final SecureRandom random = new SecureRandom();
+
+    public CookieStore(Path storeFile, CredentialsE credentials) {
+        this.storeFile = storeFile;
+        this.credentials = credentials;
+    }
+
+    public synchronized void save(Collection<Cookie> cookies) {
+        try {
+            byte[] salt = new byte[SALT_LENGTH];
+            byte[] iv = new byte[IV_LENGTH];
+            random.nextBytes(salt);
+            random.nextBytes(iv);
+
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, deriveKey(salt), new GCMParameterSpec(128, iv));
+            byte[] encrypted = cipher.doFinal(serialize(cookies));
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.write(salt);
+                out.write(iv);
+                out.writeInt(encrypted.length);
+                out.write(encrypted);
+            }
+
+            Path tempFile = storeFile.resolveSibling(storeFile.getFileName() + ".tmp");
+            Files.deleteIfExists(tempFile);
+            Files.createFile(tempFile);
+            // Rechte vor dem Schreiben setzen, der Move übernimmt sie
+            restrictToOwner(tempFile);
+            Files.write(tempFile, bytes.toByteArray());
+            Files.move(tempFile, storeFile, StandardCopyOption.REPLACE_EXISTING);
+            LoggerManagerE.info("Saved " + cookies.size() + " session cookies to " + storeFile);
+        } catch (IOException | GeneralSecurityException e) {
+            LoggerManagerE.error("Error saving session cookies: " + e.getMessage());
+        }
+    }
+
+    // Liefert die noch gültigen Cookies oder eine leere Menge
+    public synchronized Set<Cookie> load() {
+        Set<Cookie> cookies = new LinkedHashSet<>();
+        if (!Files.exists(storeFile)) {
+            return cookies;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(storeFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                LoggerManagerE.warn("Unknown session store format, ignoring " + storeFile);
+                return cookies;
+            }
+            byte[] salt = new byte[SALT_LENGTH];
+            byte[] iv = new byte[IV_LENGTH];
+            in.readFully(salt);
+            in.readFully(iv);
+            byte[] encrypted = new byte[in.readInt()];
+            in.readFully(encrypted);
+
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, deriveKey(salt), new GCMParameterSpec(128, iv));
+            long now = System.currentTimeMillis();
+            for (Cookie cookie : deserialize(cipher.doFinal(encrypted))) {
+                if (cookie.getExpiry() == null || cookie.getExpiry().getTime() > now) {
+                    cookies.add(cookie);
+                }
+            }
+            LoggerManagerE.info("Loaded " + cookies.size() + " session cookies from " + storeFile);
+        } catch (IOException | GeneralSecurityException e) {
+            // Falsches Passwort oder beschädigte Datei: einfach neu einloggen
+            LoggerManagerE.warn("Could not read session cookies: " + e.getMessage());
+            cookies.clear();
+        }
+        return cookies;
+    }
+
+    public synchronized void clear() {
+        try {
+            Files.deleteIfExists(storeFile);
+        } catch (IOException e) {
+            LoggerManagerE.error("Error deleting session store: " + e.getMessage());
+        }
+    }
+
+    // Nur der eigene Benutzer darf lesen und schreiben: unter Windows per ACL, sonst per POSIX-Rechten
+    static void restrictToOwner(Path file) {
+        try {
+            PosixFileAttributeView posix = Files.getFileAttributeView(file, PosixFileAttributeView.class);
+            if (posix != null) {
+                posix.setPermissions(PosixFilePermissions.fromString("rw-------"));
+                return;
+            }
+            AclFileAttributeView acl = Files.getFileAttributeView(file, AclFileAttributeView.class);
+            if (acl != null) {
+                AclEntry ownerOnly = AclEntry.newBuilder()
+                    .setType(AclEntryType.ALLOW)
+                    .setPrincipal(acl.getOwner())
+                    .setPermissions(EnumSet.allOf(AclEntryPermission.class))
+                    .build();
+                acl.setAcl(List.of(ownerOnly));
+                return;
+            }
+            LoggerManagerE.warn("Cannot restrict access to " + file + " on this file system");
+        } catch (IOException | UnsupportedOperationException e) {
+            LoggerManagerE.warn("Could not restrict access to " + file + ": " + e.getMessage());
+        }
+    }
+
+    private SecretKey deriveKey(byte[] salt) throws GeneralSecurityException {
+        String secret = credentials.getUsername() + "\u0000" + credentials.getPassword();
+        PBEKeySpec spec = new PBEKeySpec(secret.toCharArray(), salt, KEY_ITERATIONS, 256);
+        try {
+            byte[] key = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+            return new SecretKeySpec(key, "AES");
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static byte[] serialize(Collection<Cookie> cookies) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(cookies.size());
+            for (Cookie cookie : cookies) {
+                out.writeUTF(cookie.getName());
+                out.writeUTF(cookie.getValue());
+                out.writeUTF(cookie.getDomain() != null ? cookie.getDomain() : "");
+                out.writeUTF(cookie.getPath() != null ? cookie.getPath() : "/");
+                out.writeLong(cookie.getExpiry() != null ? cookie.getExpiry().getTime() : -1L);
+                out.writeBoolean(cookie.isSecure());
+                out.writeBoolean(cookie.isHttpOnly());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Set<Cookie> deserialize(byte[] data) throws IOException {
+        Set<Cookie> cookies = new LinkedHashSet<>();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                String value = in.readUTF();
+                String domain = in.readUTF();
+                String path = in.readUTF();
+                long expiry = in.readLong();
+                boolean secure = in.readBoolean();
+                boolean httpOnly = in.readBoolean();
+                cookies.add(new Cookie(name, value, domain.isEmpty() ? null : domain, path,
+                    expiry >= 0 ? new Date(expiry) : null, secure, httpOnly));
+            }
+        }
+        return cookies;
+    }
+}
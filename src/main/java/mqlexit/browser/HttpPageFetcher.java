@@ -0,0 +1,136 @@
+package browser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.zip.GZIPInputStream;
+
+import org.openqa.selenium.Cookie;
+
+import logging.LoggerManagerE;
+
+// Lädt Signalseiten ohne Browser, nur mit den Cookies einer eingeloggten Selenium-Session
+public class HttpPageFetcher {
+    private static final int MAX_REDIRECTS = 5;
+    private static final String LOGIN_MARKER = "auth_login";
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    private volatile String cookieHeader = "";
+    private volatile String userAgent = "Mozilla/5.0";
+    private volatile long sessionGeneration = 0;
+
+    public HttpPageFetcher(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+        // Ein gemeinsamer Client für alle Signale, damit Verbindungen wiederverwendet werden
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(15))
+            .build();
+    }
+
+    public long getSessionGeneration() {
+        return sessionGeneration;
+    }
+
+    public synchronized void updateSession(Collection<Cookie> cookies, String browserUserAgent) {
+        StringBuilder header = new StringBuilder();
+        for (Cookie cookie : cookies) {
+            if (header.length() > 0) {
+                header.append("; ");
+            }
+            header.append(cookie.getName()).append('=').append(cookie.getValue());
+        }
+        cookieHeader = header.toString();
+        if (browserUserAgent != null && !browserUserAgent.isEmpty()) {
+            userAgent = browserUserAgent;
+        }
+        sessionGeneration++;
+        LoggerManagerE.info("HTTP session updated with " + cookies.size() + " cookies (generation " + sessionGeneration + ")");
+    }
+
+    public String fetch(String url) throws IOException, InterruptedException {
+        URI uri = URI.create(url);
+        for (int redirects = 0; redirects <= MAX_REDIRECTS; redirects++) {
+            HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("User-Agent", userAgent)
+                .header("Accept", "text/html,application/xhtml+xml")
+                .header("Accept-Encoding", "gzip")
+                .header("Cache-Control", "no-cache")
+                .GET();
+            if (!cookieHeader.isEmpty()) {
+                request.header("Cookie", cookieHeader);
+            }
+
+            HttpResponse<InputStream> response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+            int status = response.statusCode();
+
+            if (status >= 300 && status < 400) {
+                String location = response.headers().firstValue("Location").orElse(null);
+                response.body().close();
+                if (location == null) {
+                    throw new IOException("Redirect without location from " + uri);
+                }
+                // Eine Umleitung auf die Login-Seite bedeutet, dass die Session abgelaufen ist
+                if (location.contains(LOGIN_MARKER)) {
+                    throw new SessionExpiredException("Redirected to login page: " + location);
+                }
+                uri = uri.resolve(location);
+                continue;
+            }
+            if (status == 401 || status == 403) {
+                response.body().close();
+                throw new SessionExpiredException("HTTP " + status + " for " + uri);
+            }
+            if (status != 200) {
+                response.body().close();
+                throw new IOException("HTTP " + status + " for " + uri);
+            }
+
+            return readBody(response);
+        }
+        throw new IOException("Too many redirects for " + url);
+    }
+
+    private String readBody(HttpResponse<InputStream> response) throws IOException {
+        boolean gzip = response.headers().firstValue("Content-Encoding")
+            .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+            .orElse(false);
+        Charset charset = response.headers().firstValue("Content-Type")
+            .map(HttpPageFetcher::charsetOf)
+            .orElse(StandardCharsets.UTF_8);
+
+        try (InputStream raw = response.body();
+             InputStream in = gzip ? new GZIPInputStream(raw, 16384) : raw) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+            in.transferTo(out);
+            return out.toString(charset);
+        }
+    }
+
+    private static Charset charsetOf(String contentType) {
+        int index = contentType.toLowerCase().indexOf("charset=");
+        if (index >= 0) {
+            String name = contentType.substring(index + 8).replace("\"", "").trim();
+            int end = name.indexOf(';');
+            if (end >= 0) {
+                name = name.substring(0, end).trim();
+            }
+            try {
+                return Charset.forName(name);
+            } catch (Exception e) {
+                LoggerManagerE.warn("Unknown charset in response: " + name);
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+}
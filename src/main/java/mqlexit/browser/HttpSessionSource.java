@@ -0,0 +1,6 @@
+package browser;
+
+// Liefert dem HttpPageFetcher eine eingeloggte Session; im Betrieb der Browser-Pool, der sich über Selenium einloggt
+public interface HttpSessionSource {
+    void exportSessionTo(HttpPageFetcher fetcher, boolean forceLogin) throws InterruptedException;
+}
@@ -0,0 +1,54 @@
+package browser;
+
+import java.time.Duration;
+
+// Lernt die übliche Ladezeit einer Seite und leitet daraus den Timeout ab, wie bei der
+// TCP-Retransmission: Mittel + 4 * mittlere Abweichung, begrenzt auf [min, max].
+// Bis zur ersten Messung gilt max, nach einem Timeout wird der Timeout bis max verdoppelt.
+public class LoadTimeEstimate {
+    private final long minNanos;
+    private final long maxNanos;
+    private double meanNanos = -1;
+    private double deviationNanos;
+    private long backoffNanos;
+
+    public LoadTimeEstimate(Duration min, Duration max) {
+        this.minNanos = min.toNanos();
+        this.maxNanos = max.toNanos();
+    }
+
+    public synchronized void record(long nanos) {
+        if (meanNanos < 0) {
+            meanNanos = nanos;
+            deviationNanos = nanos / 2.0;
+        } else {
+            deviationNanos = 0.75 * deviationNanos + 0.25 * Math.abs(nanos - meanNanos);
+            meanNanos = 0.875 * meanNanos + 0.125 * nanos;
+        }
+        backoffNanos = 0;
+    }
+
+    public synchronized void recordTimeout() {
+        backoffNanos = Math.min(maxNanos, 2 * timeoutNanos());
+    }
+
+    public synchronized Duration timeout() {
+        return Duration.ofNanos(timeoutNanos());
+    }
+
+    // Mittlere Ladezeit, 0 ohne Messung
+    public synchronized Duration mean() {
+        return Duration.ofNanos(meanNanos < 0 ? 0 : (long) meanNanos);
+    }
+
+    private long timeoutNanos() {
+        if (backoffNanos > 0) {
+            return backoffNanos;
+        }
+        if (meanNanos < 0) {
+            return maxNanos;
+        }
+        long estimate = (long) (meanNanos + 4 * deviationNanos);
+        return Math.max(minNanos, Math.min(maxNanos, estimate));
+    }
+}
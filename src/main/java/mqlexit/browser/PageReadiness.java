@@ -0,0 +1,119 @@
+package browser;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+// Fragt den DOM in kurzen Abständen ab und kehrt zurück, sobald die Seite in einem auswertbaren
+// Zustand ist, statt fest zu schlafen. Setzt implicitlyWait 0 voraus, sonst dauert jede Abfrage
+// eines fehlenden Elements so lange wie die implizite Wartezeit.
+public final class PageReadiness {
+    public static final Duration POLL_INTERVAL = Duration.ofMillis(250);
+
+    public enum State {
+        // Trade-Tabelle vorhanden und zwischen zwei Abfragen gleich lang
+        TABLE,
+        // Seite fertig geladen, die Tabelle meldet keine Trades
+        NO_TRADES,
+        // Umgeleitet auf das Login-Formular
+        LOGIN_FORM
+    }
+
+    // waitedNanos: Dauer des Wartens insgesamt, readyNanos: ab Beginn des Wartens bis der endgültige Zustand
+    // zum ersten Mal zu sehen war. Die Differenz ist der Aufschlag durch Abfrageintervall und Stabilitätsprüfung.
+    public static final class Result {
+        private final State state;
+        private final long waitedNanos;
+        private final long readyNanos;
+
+        Result(State state, long waitedNanos, long readyNanos) {
+            this.state = state;
+            this.waitedNanos = waitedNanos;
+            this.readyNanos = readyNanos;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public long getWaitedNanos() {
+            return waitedNanos;
+        }
+
+        public long getReadyNanos() {
+            return readyNanos;
+        }
+    }
+
+    // Liefert "table:<Zeilen>", "no_trades", "login" oder null, solange nichts davon zu sehen ist
+    private static final String SIGNAL_PAGE_PROBE =
+        "var cell = document.querySelector(\"td[data-label='Type']\");"
+        + "if (cell) { var body = cell.closest('tbody'); return 'table:' + (body ? body.rows.length : 0); }"
+        + "if (document.getElementById('Login') && document.getElementById('Password')) { return 'login'; }"
+        + "if (document.readyState !== 'complete') { return null; }"
+        + "var tables = document.getElementsByTagName('table');"
+        + "for (var i = 0; i < tables.length; i++) {"
+        + "  if (/no (open )?(trades|positions)|no data/i.test(tables[i].textContent)) { return 'no_trades'; }"
+        + "}"
+        + "return null;";
+
+    private PageReadiness() {
+    }
+
+    public static Result awaitSignalPage(WebDriver driver, Duration timeout) throws InterruptedException {
+        JavascriptExecutor executor = (JavascriptExecutor) driver;
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        String previous = null;
+        long seenAt = 0;
+        while (true) {
+            Object probe = executor.executeScript(SIGNAL_PAGE_PROBE);
+            long now = System.nanoTime();
+            String current = probe instanceof String ? (String) probe : null;
+            if (current != null && !current.equals(previous)) {
+                seenAt = now;
+            }
+            if (current != null) {
+                if (current.equals("login")) {
+                    return new Result(State.LOGIN_FORM, now - start, seenAt - start);
+                }
+                if (current.equals("no_trades")) {
+                    return new Result(State.NO_TRADES, now - start, seenAt - start);
+                }
+                // Die Tabelle gilt erst als fertig, wenn sich die Zeilenzahl nicht mehr ändert
+                if (current.equals(previous)) {
+                    return new Result(State.TABLE, now - start, seenAt - start);
+                }
+            }
+            previous = current;
+            if (now - deadline >= 0) {
+                throw new TimeoutException("Signal page not ready after " + timeout.toMillis() + "ms");
+            }
+            sleepUntilNextPoll(deadline);
+        }
+    }
+
+    // Wartet, bis condition true liefert; für Zustände ohne eigenen Prüf-Skript, z.B. beim Login
+    public static long awaitCondition(Supplier<Boolean> condition, Duration timeout, String description)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        while (true) {
+            if (Boolean.TRUE.equals(condition.get())) {
+                return System.nanoTime() - start;
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                throw new TimeoutException("Timed out after " + timeout.toMillis() + "ms waiting for " + description);
+            }
+            sleepUntilNextPoll(deadline);
+        }
+    }
+
+    private static void sleepUntilNextPoll(long deadline) throws InterruptedException {
+        long remainingMillis = Math.max(1, (deadline - System.nanoTime()) / 1_000_000);
+        Thread.sleep(Math.min(POLL_INTERVAL.toMillis(), remainingMillis));
+    }
+}
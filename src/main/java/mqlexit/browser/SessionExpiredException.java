@@ -0,0 +1,11 @@
+package browser;
+
+import java.io.IOException;
+
+public class SessionExpiredException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public SessionExpiredException(String message) {
+        super(message);
+    }
+}
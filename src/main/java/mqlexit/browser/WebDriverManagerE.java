@@ -1,45 +1,55 @@
 // WebDriverManagerE.java
 package browser;
 
+import org.openqa.selenium.SessionNotCreatedException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Optional;
+import java.util.stream.Stream;
 import logging.LoggerManagerE;
 
 public class WebDriverManagerE {
+    private static final String DRIVER_PROPERTY = "webdriver.chrome.driver";
+    // Einmal je Prozess ermittelt, nicht bei jedem Start einer Session
+    private static String resolvedDriver;
+    private static boolean driverFromCache;
+
     private final String downloadPath;
+    private final String driverPath;
+    private final boolean offline;
 
-    public WebDriverManagerE(String downloadPath) {
+    // driverPath (Datei oder Verzeichnis, darf null sein) hat Vorrang vor dem Cache, offline verbietet jeden Download.
+    public WebDriverManagerE(String downloadPath, String driverPath, boolean offline) {
         this.downloadPath = downloadPath;
+        this.driverPath = driverPath;
+        this.offline = offline;
     }
 
     public WebDriver initializeDriver() {
         try {
             LoggerManagerE.info("Setting up WebDriver...");
-            WebDriverManager.chromedriver().setup();
-            
-            ChromeOptions options = new ChromeOptions();
-            options.addArguments("--no-sandbox");
-            options.addArguments("--disable-dev-shm-usage");
-            
-            // Cache-Control Einstellungen
-            options.addArguments("--disable-application-cache");
-            options.addArguments("--disable-cache");
-            options.addArguments("--disable-offline-load-stale-cache");
-            options.addArguments("--disk-cache-size=0");
+            resolveDriver(driverPath, offline);
             
-            HashMap<String, Object> prefs = new HashMap<>();
-            prefs.put("download.default_directory", downloadPath);
-            // Cache in Chrome deaktivieren
-            prefs.put("profile.default_content_settings.cookies", 2);
-            prefs.put("profile.cookie_controls_mode", 2);
-            options.setExperimentalOption("prefs", prefs);
+            ChromeOptions options = chromeOptions();
             
             try {
                 LoggerManagerE.info("Initializing ChromeDriver with basic options");
                 return new ChromeDriver(options);
+            } catch (SessionNotCreatedException e) {
+                // Der zwischengespeicherte Treiber passt nicht mehr zum inzwischen aktualisierten Chrome
+                if (!refreshCachedDriver(offline)) {
+                    throw e;
+                }
+                return new ChromeDriver(options);
             } catch (Exception e) {
                 LoggerManagerE.warn("First attempt failed, trying with additional options: " + e.getMessage());
                 options.addArguments("--ignore-certificate-errors");
@@ -52,4 +62,112 @@ public class WebDriverManagerE {
             throw e;
         }
     }
+
+    private ChromeOptions chromeOptions() {
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--no-sandbox");
+        options.addArguments("--disable-dev-shm-usage");
+        
+        // Cache-Control Einstellungen
+        options.addArguments("--disable-application-cache");
+        options.addArguments("--disable-cache");
+        options.addArguments("--disable-offline-load-stale-cache");
+        options.addArguments("--disk-cache-size=0");
+        
+        HashMap<String, Object> prefs = new HashMap<>();
+        prefs.put("download.default_directory", downloadPath);
+        // Cookies bleiben erlaubt, damit die Session im Pool wiederverwendet werden kann
+        options.setExperimentalOption("prefs", prefs);
+        return options;
+    }
+
+    // Reihenfolge: ChromeDriverPath, webdriver.chrome.driver, neuester Treiber im WebDriverManager-Cache und
+    // erst zuletzt die Versionsauflösung übers Netz. Ohne Netz (offline) muss einer der lokalen Wege greifen.
+    private static synchronized void resolveDriver(String driverPath, boolean offline) {
+        if (resolvedDriver != null) {
+            return;
+        }
+        if (driverPath != null) {
+            Path pinned = Paths.get(driverPath);
+            Optional<Path> found = Files.isDirectory(pinned)
+                ? findCachedDriver(pinned)
+                : Optional.of(pinned).filter(Files::isExecutable);
+            if (found.isPresent()) {
+                useDriver(found.get().toString(), false);
+                LoggerManagerE.info("Using pinned chromedriver " + resolvedDriver);
+                return;
+            }
+            LoggerManagerE.warn("No executable chromedriver at ChromeDriverPath " + driverPath);
+        }
+        String configured = System.getProperty(DRIVER_PROPERTY);
+        if (configured != null && Files.isExecutable(Paths.get(configured))) {
+            resolvedDriver = configured;
+            return;
+        }
+        Optional<Path> cached = findCachedDriver(Paths.get(WebDriverManager.chromedriver().config().getCachePath()));
+        if (cached.isPresent()) {
+            useDriver(cached.get().toString(), true);
+            LoggerManagerE.info("Using cached chromedriver " + resolvedDriver);
+            return;
+        }
+        if (offline) {
+            throw new IllegalStateException("No local chromedriver found and DriverResolution=offline, "
+                + "set ChromeDriverPath to a chromedriver or a directory containing one");
+        }
+        setupOnline();
+    }
+
+    private static synchronized boolean refreshCachedDriver(boolean offline) {
+        if (!driverFromCache) {
+            return false;
+        }
+        if (offline) {
+            LoggerManagerE.error("Cached chromedriver " + resolvedDriver + " does not match Chrome, "
+                + "place a matching one in ChromeDriverPath (DriverResolution=offline)");
+            return false;
+        }
+        LoggerManagerE.warn("Cached chromedriver " + resolvedDriver + " does not match Chrome, resolving a new one");
+        setupOnline();
+        return true;
+    }
+
+    // Über die System-Property startet Selenium den Treiber direkt, ohne Selenium Manager und damit ohne Netz
+    private static void useDriver(String path, boolean fromCache) {
+        resolvedDriver = path;
+        driverFromCache = fromCache;
+        System.setProperty(DRIVER_PROPERTY, path);
+    }
+
+    private static void setupOnline() {
+        WebDriverManager manager = WebDriverManager.chromedriver();
+        manager.setup();
+        resolvedDriver = manager.getDownloadedDriverPath();
+        driverFromCache = false;
+    }
+
+    private static Optional<Path> findCachedDriver(Path cacheDir) {
+        if (!Files.isDirectory(cacheDir)) {
+            return Optional.empty();
+        }
+        try (Stream<Path> files = Files.walk(cacheDir)) {
+            return files
+                .filter(path -> {
+                    String name = path.getFileName().toString();
+                    return name.equals("chromedriver") || name.equals("chromedriver.exe");
+                })
+                .filter(Files::isExecutable)
+                .max(Comparator.comparingLong(WebDriverManagerE::lastModified));
+        } catch (IOException | RuntimeException e) {
+            LoggerManagerE.warn("Could not search chromedriver cache " + cacheDir + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
 }
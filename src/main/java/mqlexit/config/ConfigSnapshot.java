@@ -0,0 +1,56 @@
+package config;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+// Unveränderlicher Stand der conf.txt. Wird einmal gelesen und nur bei Änderungen der Datei ersetzt,
+// die Getter lesen nie mehr direkt von der Platte.
+public final class ConfigSnapshot {
+    public static final ConfigSnapshot EMPTY = new ConfigSnapshot(Collections.emptyMap());
+
+    private final Map<String, String> values;
+
+    private ConfigSnapshot(Map<String, String> values) {
+        this.values = values;
+    }
+
+    // Ohne Datei gilt EMPTY, damit überall die Standardwerte greifen
+    public static ConfigSnapshot load(Path configFile) throws IOException {
+        if (!Files.exists(configFile)) {
+            return EMPTY;
+        }
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(configFile)) {
+            props.load(reader);
+        }
+        Map<String, String> values = new HashMap<>();
+        for (String key : props.stringPropertyNames()) {
+            values.put(key, props.getProperty(key));
+        }
+        return new ConfigSnapshot(Collections.unmodifiableMap(values));
+    }
+
+    public String get(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    public boolean containsKey(String key) {
+        return values.containsKey(key);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof ConfigSnapshot && ((ConfigSnapshot) other).values.equals(values);
+    }
+
+    @Override
+    public int hashCode() {
+        return values.hashCode();
+    }
+}
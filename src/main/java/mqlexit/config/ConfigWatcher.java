@@ -0,0 +1,87 @@
+package config;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+import logging.LoggerManagerE;
+
+// Beobachtet das Konfigurationsverzeichnis und lädt conf.txt nach jeder Änderung neu. onChange läuft nur,
+// wenn sich der Inhalt tatsächlich geändert hat, auf dem Thread des Watchers.
+public class ConfigWatcher implements AutoCloseable {
+    // Editoren schreiben oft in mehreren Schritten, erst nach dieser Ruhezeit wird gelesen
+    private static final long SETTLE_MILLIS = 300;
+
+    private final ConfigurationManagerE configManager;
+    private final Path configFileName;
+    private final Runnable onChange;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    public ConfigWatcher(ConfigurationManagerE configManager, Runnable onChange) throws IOException {
+        this.configManager = configManager;
+        this.onChange = onChange;
+        Path configFile = configManager.getConfigFile();
+        this.configFileName = configFile.getFileName();
+        this.watchService = FileSystems.getDefault().newWatchService();
+        configFile.toAbsolutePath().getParent().register(watchService,
+            StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::watchLoop, "config-watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean touched = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (configFileName.equals(event.context())) {
+                        touched = true;
+                    }
+                }
+                key.reset();
+                if (!touched) {
+                    continue;
+                }
+                // Weitere Ereignisse desselben Speichervorgangs abwarten und verwerfen
+                WatchKey more;
+                while ((more = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    more.pollEvents();
+                    more.reset();
+                }
+                reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Watcher wurde geschlossen
+        }
+    }
+
+    private void reload() {
+        try {
+            if (configManager.reload()) {
+                LoggerManagerE.info("Configuration changed, applying " + configManager.getConfigFile());
+                onChange.run();
+            }
+        } catch (RuntimeException e) {
+            LoggerManagerE.error("Error applying changed configuration: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            LoggerManagerE.error("Error closing config watcher: " + e.getMessage());
+        }
+        thread.interrupt();
+    }
+}
@@ -4,10 +4,20 @@ package config;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Reader;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import java.util.Scanner;
+import logging.LogLevel;
 import logging.LoggerManagerE;
+import resilience.Backoff;
+import resilience.ResiliencePolicy;
+import scheduler.PollPolicy;
 
 public class ConfigurationManagerE {
     private final String rootDirPath;
@@ -16,8 +26,31 @@ public class ConfigurationManagerE {
     private final String logDirPath;
     private final String downloadPath;
     private final String defaultSignalDirPath;
+    // Zuletzt gelesener Stand der conf.txt, ersetzt durch reload()
+    private volatile ConfigSnapshot snapshot = ConfigSnapshot.EMPTY;
     private static final String DEFAULT_BASE_URL = "https://www.mql5.com/en/signals";
     private static final String DEFAULT_SIGNAL_ID = "201845";
+    private static final int DEFAULT_SESSION_POOL_SIZE = 2;
+    private static final int DEFAULT_POLL_CHANGED_SECONDS = 60;
+    private static final int DEFAULT_POLL_ACTIVE_SECONDS = 180;
+    private static final int DEFAULT_POLL_IDLE_SECONDS = 600;
+    private static final int DEFAULT_FAST_CYCLES_AFTER_CHANGE = 3;
+    private static final int DEFAULT_POLL_JITTER_SECONDS = 20;
+    private static final int DEFAULT_MAX_FETCHES_PER_MINUTE = 30;
+    private static final int DEFAULT_HEALTH_CHECK_SECONDS = 60;
+    private static final int DEFAULT_CYCLE_TIMEOUT_SECONDS = 180;
+    private static final int DEFAULT_RETRY_MAX_ATTEMPTS = 3;
+    private static final int DEFAULT_RETRY_BASE_MILLIS = 2000;
+    private static final int DEFAULT_RETRY_MAX_MILLIS = 30000;
+    private static final int DEFAULT_RETRY_BUDGET_PERCENT = 20;
+    private static final int DEFAULT_RETRY_BUDGET_BURST = 10;
+    private static final int DEFAULT_CIRCUIT_FAILURE_THRESHOLD = 5;
+    private static final int DEFAULT_CIRCUIT_OPEN_SECONDS = 60;
+    private static final int DEFAULT_METRICS_PORT = 9464;
+    private static final int DEFAULT_EVENT_PORT = 9465;
+    private static final int DEFAULT_EVENT_RING_SLOTS = 1024;
+    private static final int DEFAULT_LOG_MAX_FILE_MB = 10;
+    private static final int DEFAULT_LOG_MAX_FILES = 5;
 
     public ConfigurationManagerE(String rootDirPath) {
         this.rootDirPath = rootDirPath;
@@ -26,6 +59,30 @@ public class ConfigurationManagerE {
         this.logDirPath = rootDirPath + "\\logs";
         this.downloadPath = rootDirPath + "\\download";
         this.defaultSignalDirPath = rootDirPath + "\\signals";
+        reload();
+    }
+
+    public Path getConfigFile() {
+        return Paths.get(configFilePath);
+    }
+
+    public ConfigSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    // Liest conf.txt neu ein; true, wenn sich der Inhalt geändert hat. Bei Lesefehlern bleibt der alte Stand.
+    public boolean reload() {
+        try {
+            ConfigSnapshot loaded = ConfigSnapshot.load(getConfigFile());
+            if (loaded.equals(snapshot)) {
+                return false;
+            }
+            snapshot = loaded;
+            return true;
+        } catch (IOException e) {
+            LoggerManagerE.error("Error reading config " + configFilePath + ": " + e.getMessage());
+            return false;
+        }
     }
 
     public void initializeDirectories() {
@@ -51,7 +108,9 @@ public class ConfigurationManagerE {
         File configFile = new File(configFilePath);
 
         if (configFile.exists()) {
-            props.load(Files.newBufferedReader(configFile.toPath()));
+            try (Reader reader = Files.newBufferedReader(configFile.toPath())) {
+                props.load(reader);
+            }
             
             boolean needsUpdate = false;
             
@@ -75,6 +134,7 @@ public class ConfigurationManagerE {
                     props.store(writer, "Login Configuration");
                 }
                 LoggerManagerE.info("Updated configuration with default values");
+                reload();
             }
             
             return new CredentialsE(
@@ -105,6 +165,7 @@ public class ConfigurationManagerE {
             }
 
             LoggerManagerE.info("Created new config file with default values");
+            reload();
             return new CredentialsE(username, password);
         }
     }
@@ -118,56 +179,21 @@ public class ConfigurationManagerE {
     }
 
     public String getSignalDirPath() {
-        try {
-            Properties props = new Properties();
-            File configFile = new File(configFilePath);
-            if (configFile.exists()) {
-                props.load(Files.newBufferedReader(configFile.toPath()));
-                String signalDir = props.getProperty("Signaldir", defaultSignalDirPath);
-                createDirectory(signalDir);
-                return signalDir;
-            }
-        } catch (IOException e) {
-            LoggerManagerE.error("Error reading signal directory from config: " + e.getMessage());
-        }
-        createDirectory(defaultSignalDirPath);
-        return defaultSignalDirPath;
+        String signalDir = readProperty("Signaldir", defaultSignalDirPath);
+        createDirectory(signalDir);
+        return signalDir;
     }
 
     public String getBaseUrl() {
-        try {
-            Properties props = new Properties();
-            File configFile = new File(configFilePath);
-            if (configFile.exists()) {
-                props.load(Files.newBufferedReader(configFile.toPath()));
-                String baseUrl = props.getProperty("BaseUrl", DEFAULT_BASE_URL);
-                LoggerManagerE.info("Using base URL from config: " + baseUrl);
-                return baseUrl;
-            }
-        } catch (IOException e) {
-            LoggerManagerE.error("Error reading base URL from config: " + e.getMessage());
-        }
-        return DEFAULT_BASE_URL;
+        return readProperty("BaseUrl", DEFAULT_BASE_URL);
     }
 
     public String getSignalId() {
-        try {
-            Properties props = new Properties();
-            File configFile = new File(configFilePath);
-            if (configFile.exists()) {
-                props.load(Files.newBufferedReader(configFile.toPath()));
-                String configuredId = props.getProperty("SignalId");
-                if (configuredId != null && !configuredId.trim().isEmpty()) {
-                    LoggerManagerE.info("Using Signal ID from config file: " + configuredId);
-                    return configuredId;
-                }
-            }
-            LoggerManagerE.info("Using default Signal ID: " + DEFAULT_SIGNAL_ID);
-            return DEFAULT_SIGNAL_ID;
-        } catch (IOException e) {
-            LoggerManagerE.error("Error reading signal ID from config: " + e.getMessage());
-            return DEFAULT_SIGNAL_ID;
+        String configuredId = readProperty("SignalId", null);
+        if (configuredId != null && !configuredId.trim().isEmpty()) {
+            return configuredId;
         }
+        return DEFAULT_SIGNAL_ID;
     }
 
     public String getFullSignalUrl() {
@@ -177,4 +203,237 @@ public class ConfigurationManagerE {
         LoggerManagerE.info("Generated full URL: " + fullUrl);
         return fullUrl;
     }
-}
\ No newline at end of file
+
+    // Mehrere Signale als kommagetrennte Liste, z.B. SignalIds=201845,1234567
+    public List<String> getSignalIds() {
+        List<String> signalIds = new ArrayList<>();
+        String configured = readProperty("SignalIds", null);
+        if (configured != null) {
+            for (String signalId : configured.split("[,;\\s]+")) {
+                if (!signalId.isEmpty() && !signalIds.contains(signalId)) {
+                    signalIds.add(signalId);
+                }
+            }
+        }
+        if (signalIds.isEmpty()) {
+            signalIds.add(getSignalId());
+        }
+        return signalIds;
+    }
+
+    // Jedes Signal bekommt unabhängig von der Anzahl der Signale ein eigenes Unterverzeichnis <Signaldir>\<SignalId>
+    // mit eigener signal.txt. Signaldir.<SignalId> ersetzt das für dieses Signal und wird unverändert genommen,
+    // z.B. Signaldir.201845=C:\tmp\mql5\signals für den bisherigen flachen Pfad.
+    public String getSignalDirPath(String signalId) {
+        String ownDir = readProperty("Signaldir." + signalId, null);
+        String signalDir = ownDir != null && !ownDir.trim().isEmpty()
+            ? ownDir.trim() : getSignalDirPath() + File.separator + signalId;
+        createDirectory(signalDir);
+        return signalDir;
+    }
+
+    // Weitere Verzeichnisse für die signal.txt eines Signals, z.B. die MQL4\Files-Verzeichnisse mehrerer Terminals,
+    // durch ";" getrennt. SignalTargets.<SignalId> ersetzt für dieses Signal SignalTargets und wird unverändert
+    // genommen; in den gemeinsamen SignalTargets bekommt jedes Signal ein Unterverzeichnis.
+    public List<String> getSignalTargets(String signalId) {
+        String ownTargets = readProperty("SignalTargets." + signalId, null);
+        boolean shared = ownTargets == null;
+        List<String> targets = new ArrayList<>();
+        for (String target : (shared ? readProperty("SignalTargets", "") : ownTargets).split(";")) {
+            if (target.trim().isEmpty()) {
+                continue;
+            }
+            targets.add(shared ? target.trim() + File.separator + signalId : target.trim());
+        }
+        return targets;
+    }
+
+    public int getSessionPoolSize() {
+        return readIntProperty("SessionPoolSize", DEFAULT_SESSION_POOL_SIZE);
+    }
+
+    public int getWorkerThreads() {
+        return readIntProperty("WorkerThreads", getSessionPoolSize() * 2);
+    }
+
+    // Ab Java 21 laufen die Zyklen auf virtuellen Threads, VirtualThreads=off erzwingt den festen Pool
+    public boolean useVirtualThreads() {
+        return !readProperty("VirtualThreads", "on").trim().equalsIgnoreCase("off");
+    }
+
+    // Zeitbudget eines Abrufzyklus; danach wird das Laden abgebrochen und später neu versucht
+    public Duration getCycleTimeout() {
+        return Duration.ofSeconds(readIntProperty("CycleTimeoutSeconds", DEFAULT_CYCLE_TIMEOUT_SECONDS));
+    }
+
+    // Fester chromedriver oder Verzeichnis mit abgelegten Treibern (der neueste gewinnt), ohne Eintrag der Cache
+    // von WebDriverManager
+    public String getChromeDriverPath() {
+        String driverPath = readProperty("ChromeDriverPath", "").trim();
+        return driverPath.isEmpty() ? null : driverPath;
+    }
+
+    // "offline" lädt nie einen chromedriver herunter, "auto" nur, wenn lokal keiner zu finden ist
+    public boolean useOfflineDriverResolution() {
+        String resolution = readProperty("DriverResolution", "auto").trim().toLowerCase();
+        if (!resolution.equals("auto") && !resolution.equals("offline")) {
+            LoggerManagerE.error("Unknown DriverResolution in config: " + resolution + ", using auto");
+            return false;
+        }
+        return resolution.equals("offline");
+    }
+
+    // "browser" lädt jede Seite mit Chrome, "http" nutzt den Browser nur für den Login
+    public String getFetchMode() {
+        String fetchMode = readProperty("FetchMode", "browser").trim().toLowerCase();
+        if (!fetchMode.equals("browser") && !fetchMode.equals("http")) {
+            LoggerManagerE.error("Unknown FetchMode in config: " + fetchMode + ", using browser");
+            return "browser";
+        }
+        return fetchMode;
+    }
+
+    // "raw" archiviert jede Seite als HTML-Datei, "packed" nur die Trade-Tabelle dedupliziert und komprimiert
+    // in Tagesdateien, "off" schaltet das Archiv ab
+    public String getArchiveMode() {
+        String archiveMode = readProperty("ArchiveMode", "raw").trim().toLowerCase();
+        if (!archiveMode.equals("raw") && !archiveMode.equals("packed") && !archiveMode.equals("off")) {
+            LoggerManagerE.error("Unknown ArchiveMode in config: " + archiveMode + ", using raw");
+            return "raw";
+        }
+        return archiveMode;
+    }
+
+    // Intervalle in Sekunden, pro Signal überschreibbar, z.B. PollIntervalActiveSeconds.201845=60
+    public PollPolicy getPollPolicy(String signalId) {
+        int changed = readSignalIntProperty("PollIntervalChangedSeconds", signalId, DEFAULT_POLL_CHANGED_SECONDS);
+        int active = readSignalIntProperty("PollIntervalActiveSeconds", signalId, DEFAULT_POLL_ACTIVE_SECONDS);
+        int idle = readSignalIntProperty("PollIntervalIdleSeconds", signalId, DEFAULT_POLL_IDLE_SECONDS);
+        int fastCycles = readSignalIntProperty("FastCyclesAfterChange", signalId, DEFAULT_FAST_CYCLES_AFTER_CHANGE);
+        return new PollPolicy(Duration.ofSeconds(changed), Duration.ofSeconds(active), Duration.ofSeconds(idle), fastCycles);
+    }
+
+    // Wiederholungen: RetryBudgetPercent der Abrufe eines Signals dürfen wiederholt werden (Vorrat RetryBudgetBurst),
+    // nach CircuitFailureThreshold Fehlern in Folge pausiert ein Host CircuitOpenSeconds lang
+    public ResiliencePolicy getResiliencePolicy() {
+        Backoff backoff = new Backoff(
+            Duration.ofMillis(readIntProperty("RetryBaseMillis", DEFAULT_RETRY_BASE_MILLIS)),
+            Duration.ofMillis(readIntProperty("RetryMaxMillis", DEFAULT_RETRY_MAX_MILLIS)));
+        return new ResiliencePolicy(
+            readIntProperty("RetryMaxAttempts", DEFAULT_RETRY_MAX_ATTEMPTS),
+            backoff,
+            readIntProperty("RetryBudgetPercent", DEFAULT_RETRY_BUDGET_PERCENT) / 100.0,
+            readIntProperty("RetryBudgetBurst", DEFAULT_RETRY_BUDGET_BURST),
+            readIntProperty("CircuitFailureThreshold", DEFAULT_CIRCUIT_FAILURE_THRESHOLD),
+            Duration.ofSeconds(readIntProperty("CircuitOpenSeconds", DEFAULT_CIRCUIT_OPEN_SECONDS)));
+    }
+
+    public Duration getPollJitter() {
+        return Duration.ofSeconds(readIntProperty("PollJitterSeconds", DEFAULT_POLL_JITTER_SECONDS));
+    }
+
+    public int getMaxFetchesPerMinute() {
+        return readIntProperty("MaxFetchesPerMinute", DEFAULT_MAX_FETCHES_PER_MINUTE);
+    }
+
+    public Duration getHealthCheckInterval() {
+        return Duration.ofSeconds(readIntProperty("HealthCheckSeconds", DEFAULT_HEALTH_CHECK_SECONDS));
+    }
+
+    // Spaltenweise Tagesdateien aller geänderten Trade-Listen für Auswertungen, SnapshotExport=off schaltet sie ab
+    public String getSnapshotExportPath() {
+        String snapshotExport = readProperty("SnapshotExport", rootDirPath + "\\aktTrades\\snapshots").trim();
+        return snapshotExport.isEmpty() || snapshotExport.equalsIgnoreCase("off") ? null : snapshotExport;
+    }
+
+    // Cookies der letzten Anmeldung, SessionStore=off schaltet die Wiederverwendung ab. Die Datei ist nur
+    // verschleiert, nicht geschützt: der Schlüssel ergibt sich aus den Zugangsdaten in dieser conf.txt. Sie ist
+    // deshalb nur für den eigenen Benutzer lesbar und gehört nicht in gemeinsam genutzte Verzeichnisse.
+    public String getSessionStorePath() {
+        String sessionStore = readProperty("SessionStore", configDirPath + "\\session.dat").trim();
+        return sessionStore.equalsIgnoreCase("off") ? null : sessionStore;
+    }
+
+    // Port des lokalen Prometheus-Endpunkts, 0 schaltet ihn ab
+    public int getMetricsPort() {
+        String value = readProperty("MetricsPort", null);
+        if (value == null || value.trim().isEmpty()) {
+            return DEFAULT_METRICS_PORT;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            LoggerManagerE.error("Invalid value for MetricsPort in config: " + value);
+            return DEFAULT_METRICS_PORT;
+        }
+    }
+
+    // Loopback-Port für den Ereignis-Feed (JSON-Zeilen), 0 schaltet ihn ab
+    public int getEventPort() {
+        String value = readProperty("EventPort", null);
+        if (value == null || value.trim().isEmpty()) {
+            return DEFAULT_EVENT_PORT;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            LoggerManagerE.error("Invalid value for EventPort in config: " + value);
+            return DEFAULT_EVENT_PORT;
+        }
+    }
+
+    // Pfad eines Unix-Domain-Sockets für denselben Feed, ohne Eintrag abgeschaltet
+    public String getEventSocketPath() {
+        String socketPath = readProperty("EventSocket", "off").trim();
+        return socketPath.isEmpty() || socketPath.equalsIgnoreCase("off") ? null : socketPath;
+    }
+
+    // Anzahl Slots der Ringdatei events.ring im Signalverzeichnis, EventRing=off schaltet sie ab
+    public int getEventRingSlots() {
+        if (readProperty("EventRing", "on").trim().equalsIgnoreCase("off")) {
+            return 0;
+        }
+        return readIntProperty("EventRingSlots", DEFAULT_EVENT_RING_SLOTS);
+    }
+
+    public LogLevel getLogLevel() {
+        String value = readProperty("LogLevel", "DEBUG");
+        LogLevel level = LogLevel.parse(value);
+        if (level == null) {
+            LoggerManagerE.error("Unknown LogLevel in config: " + value + ", using DEBUG");
+            return LogLevel.DEBUG;
+        }
+        return level;
+    }
+
+    // Ab dieser Größe wird application.log weitergerollt, LogMaxFiles ältere Dateien bleiben erhalten
+    public long getLogMaxFileBytes() {
+        return readIntProperty("LogMaxFileSizeMb", DEFAULT_LOG_MAX_FILE_MB) * 1024L * 1024L;
+    }
+
+    public int getLogMaxFiles() {
+        return readIntProperty("LogMaxFiles", DEFAULT_LOG_MAX_FILES);
+    }
+
+    private int readSignalIntProperty(String key, String signalId, int defaultValue) {
+        return readIntProperty(key + "." + signalId, readIntProperty(key, defaultValue));
+    }
+
+    private int readIntProperty(String key, int defaultValue) {
+        String value = readProperty(key, null);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            return parsed > 0 ? parsed : defaultValue;
+        } catch (NumberFormatException e) {
+            LoggerManagerE.error("Invalid value for " + key + " in config: " + value);
+            return defaultValue;
+        }
+    }
+
+    private String readProperty(String key, String defaultValue) {
+        return snapshot.get(key, defaultValue);
+    }
+}
@@ -0,0 +1,30 @@
+package events;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import logging.LoggerManagerE;
+import metrics.MetricsRegistry;
+
+// Verteilt jedes Ereignis an mehrere Kanäle; ein fehlerhafter Kanal hält die anderen nicht auf.
+// Die Kanäle gehören dem Aufrufer und werden hier nicht geschlossen.
+public class EventFanout implements TradeEventSink {
+    private final List<TradeEventSink> sinks;
+
+    public EventFanout(List<TradeEventSink> sinks) {
+        this.sinks = new ArrayList<>(sinks);
+    }
+
+    @Override
+    public void publish(TradeEvent event) {
+        long publishStart = System.nanoTime();
+        for (TradeEventSink sink : sinks) {
+            try {
+                sink.publish(event);
+            } catch (RuntimeException e) {
+                LoggerManagerE.error("Error publishing trade event to " + sink + ": " + e.getMessage());
+            }
+        }
+        MetricsRegistry.get().timer("event_publish", event.getSignalId()).recordSince(publishStart);
+    }
+}
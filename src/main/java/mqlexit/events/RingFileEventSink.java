@@ -0,0 +1,132 @@
+package events;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import analyzer.TradeChange;
+import analyzer.TradeRow;
+import logging.LoggerManagerE;
+
+// Ringdatei im Speicher (memory-mapped), die ein EA mit wenigen Bytes Lesezugriff abfragen kann.
+// Alle Zahlen little-endian, Texte ASCII mit Nullen aufgefüllt.
+//
+// Kopf (64 Bytes): int Magic 0x4D514552, int Version, int Slotgröße, int Slotanzahl, long letzte Sequenz (Offset 16)
+// Slot n liegt bei 64 + ((Sequenz - 1) % Slotanzahl) * Slotgröße:
+//   0 long Sequenz, 8 long Zeitpunkt (ms), 16 int Art (0 OPENED, 1 CLOSED, 2 MODIFIED), 20 Signal[16],
+//   36 Symbol[16], 52 Zeit[20], 72 Typ[16], 88 Volumen[16], 104 Preis[16], 120 S/L[16], 136 T/P[16]
+//
+// Die Art ist ein fester Code, unabhängig von der Reihenfolge in TradeChange.Kind.
+//
+// Lesen: letzte Sequenz im Kopf mit der eigenen vergleichen, für jede neue Sequenz den Slot lesen und
+// prüfen, dass dessen Sequenz vor und nach dem Lesen die erwartete ist (sonst wurde er gerade überschrieben).
+// Die Sequenzen werden mit Release-Semantik geschrieben, nachdem der Slot gefüllt ist. Der Leser muss sie
+// entsprechend mit Acquire-Semantik lesen (Java: getAcquire über einen byteBufferViewVarHandle, C/C++:
+// __atomic_load_n(..., __ATOMIC_ACQUIRE)) und vor dem zweiten Lesen der Slot-Sequenz eine Load-Load-Barriere
+// setzen (Java: VarHandle.loadLoadFence()), damit die Felder nicht nach der Prüfung gelesen werden.
+public class RingFileEventSink implements TradeEventSink {
+    public static final int MAGIC = 0x4D514552;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 64;
+    public static final int SLOT_SIZE = 160;
+    public static final int KIND_OPENED = 0;
+    public static final int KIND_CLOSED = 1;
+    public static final int KIND_MODIFIED = 2;
+    private static final int LAST_SEQUENCE = 16;
+    // Sequenzen als long mit Speicherordnung; Kopf und Slots liegen auf 8-Byte-Grenzen
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final int[] TEXT_OFFSETS = {20, 36, 52, 72, 88, 104, 120, 136};
+    private static final int[] TEXT_LENGTHS = {16, 16, 20, 16, 16, 16, 16, 16};
+
+    private final Path ringFile;
+    private final int slotCount;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private long sequence;
+
+    public RingFileEventSink(Path ringFile, int slotCount) throws IOException {
+        this.ringFile = ringFile;
+        this.slotCount = slotCount;
+        this.channel = FileChannel.open(ringFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) slotCount * SLOT_SIZE);
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        // Bei passendem Format weiterzählen, damit Leser nach einem Neustart keine Sequenzen doppelt sehen
+        if (buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION && buffer.getInt(8) == SLOT_SIZE
+                && buffer.getInt(12) == slotCount) {
+            sequence = buffer.getLong(LAST_SEQUENCE);
+        } else {
+            for (int i = 0; i < buffer.capacity(); i++) {
+                buffer.put(i, (byte) 0);
+            }
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, SLOT_SIZE);
+            buffer.putInt(12, slotCount);
+            buffer.putLong(LAST_SEQUENCE, 0);
+        }
+        LoggerManagerE.info("Trade event ring " + ringFile + " ready at sequence " + sequence);
+    }
+
+    @Override
+    public synchronized void publish(TradeEvent event) {
+        long next = sequence + 1;
+        int slot = HEADER_SIZE + (int) ((next - 1) % slotCount) * SLOT_SIZE;
+        // Slot erst ungültig machen, dann füllen, dann mit der neuen Sequenz freigeben
+        LONGS.setOpaque(buffer, slot, 0L);
+        VarHandle.storeStoreFence();
+        buffer.putLong(slot + 8, event.getObservedAt());
+        buffer.putInt(slot + 16, kindCode(event.getKind()));
+        TradeRow trade = event.getTrade();
+        String[] texts = {event.getSignalId(), trade.getSymbol(), trade.getTime(), trade.getType(), trade.getVolume(),
+            trade.getPrice(), trade.getStopLoss(), trade.getTakeProfit()};
+        for (int i = 0; i < texts.length; i++) {
+            putText(slot + TEXT_OFFSETS[i], TEXT_LENGTHS[i], texts[i]);
+        }
+        LONGS.setRelease(buffer, slot, next);
+        LONGS.setRelease(buffer, LAST_SEQUENCE, next);
+        sequence = next;
+    }
+
+    static int kindCode(TradeChange.Kind kind) {
+        switch (kind) {
+            case OPENED:
+                return KIND_OPENED;
+            case CLOSED:
+                return KIND_CLOSED;
+            case MODIFIED:
+                return KIND_MODIFIED;
+            default:
+                throw new IllegalArgumentException("No ring code for " + kind);
+        }
+    }
+
+    private void putText(int offset, int length, String text) {
+        byte[] bytes = text != null ? text.getBytes(StandardCharsets.US_ASCII) : new byte[0];
+        for (int i = 0; i < length; i++) {
+            buffer.put(offset + i, i < bytes.length ? bytes[i] : 0);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            LoggerManagerE.error("Error closing trade event ring " + ringFile + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ring " + ringFile;
+    }
+}
@@ -0,0 +1,206 @@
+package events;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import logging.LoggerManagerE;
+
+// Lokaler Feed mit einer JSON-Zeile pro Ereignis, über TCP (nur Loopback) oder einen Unix-Domain-Socket.
+// Jeder Abnehmer hat eine eigene Warteschlange und einen Schreib-Thread; wer nicht hinterherkommt, wird getrennt.
+public class SocketEventServer implements TradeEventSink {
+    private static final int CLIENT_QUEUE_CAPACITY = 1024;
+    private static final long MIN_ACCEPT_BACKOFF_MILLIS = 100;
+    private static final long MAX_ACCEPT_BACKOFF_MILLIS = 5_000;
+
+    private final ServerSocketChannel server;
+    private final String description;
+    private final Path socketFile;
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile boolean closed = false;
+
+    private SocketEventServer(ServerSocketChannel server, String description, Path socketFile) {
+        this.server = server;
+        this.description = description;
+        this.socketFile = socketFile;
+        Thread acceptor = new Thread(this::acceptClients, "event-feed-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        LoggerManagerE.info("Trade event feed listening on " + description);
+    }
+
+    // Port 0 wählt einen freien Port, siehe getPort()
+    public static SocketEventServer tcp(int port) throws IOException {
+        ServerSocketChannel server = ServerSocketChannel.open();
+        try {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        } catch (IOException e) {
+            server.close();
+            throw e;
+        }
+        return new SocketEventServer(server, "tcp://" + server.getLocalAddress(), null);
+    }
+
+    public static SocketEventServer unixSocket(Path socketFile) throws IOException {
+        // Eine verwaiste Socket-Datei vom letzten Lauf blockiert sonst das Binden
+        Files.deleteIfExists(socketFile);
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            server.bind(UnixDomainSocketAddress.of(socketFile));
+        } catch (IOException e) {
+            server.close();
+            throw e;
+        }
+        return new SocketEventServer(server, "unix:" + socketFile, socketFile);
+    }
+
+    public int getPort() throws IOException {
+        SocketAddress address = server.getLocalAddress();
+        return address instanceof InetSocketAddress ? ((InetSocketAddress) address).getPort() : -1;
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    @Override
+    public void publish(TradeEvent event) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        byte[] line = event.toJsonLine(sequence.incrementAndGet()).getBytes(StandardCharsets.UTF_8);
+        for (Client client : clients) {
+            if (!client.queue.offer(line)) {
+                LoggerManagerE.warn("Trade event consumer " + client.name + " is too slow, disconnecting");
+                client.close();
+            }
+        }
+    }
+
+    // Endet, sobald der Server-Kanal geschlossen ist; bei anderen Fehlern (z.B. keine Dateideskriptoren mehr)
+    // wird mit wachsender Pause erneut angenommen, statt in einer Schleife zu kreisen
+    private void acceptClients() {
+        long backoffMillis = 0;
+        while (!closed && server.isOpen()) {
+            try {
+                SocketChannel channel = server.accept();
+                backoffMillis = 0;
+                try {
+                    if (channel.getRemoteAddress() instanceof InetSocketAddress) {
+                        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                    }
+                    Client client = new Client(channel);
+                    clients.add(client);
+                    client.start();
+                } catch (IOException e) {
+                    channel.close();
+                    throw e;
+                }
+                LoggerManagerE.info("Trade event consumer connected to " + description);
+            } catch (ClosedChannelException e) {
+                break;
+            } catch (IOException e) {
+                if (closed) {
+                    break;
+                }
+                backoffMillis = Math.min(Math.max(backoffMillis * 2, MIN_ACCEPT_BACKOFF_MILLIS), MAX_ACCEPT_BACKOFF_MILLIS);
+                LoggerManagerE.error("Error accepting trade event consumer: " + e.getMessage() + ", retrying in "
+                    + backoffMillis + " ms");
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            server.close();
+        } catch (IOException e) {
+            LoggerManagerE.error("Error closing trade event feed: " + e.getMessage());
+        }
+        for (Client client : clients) {
+            client.close();
+        }
+        if (socketFile != null) {
+            try {
+                Files.deleteIfExists(socketFile);
+            } catch (IOException e) {
+                LoggerManagerE.warn("Could not delete socket file " + socketFile + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "feed " + description;
+    }
+
+    private final class Client {
+        final SocketChannel channel;
+        final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(CLIENT_QUEUE_CAPACITY);
+        final String name;
+        final Thread writer;
+
+        Client(SocketChannel channel) throws IOException {
+            this.channel = channel;
+            SocketAddress remote = channel.getRemoteAddress();
+            this.name = remote != null && !remote.toString().isEmpty() ? remote.toString() : description;
+            this.writer = new Thread(this::writeEvents, "event-feed-writer");
+            this.writer.setDaemon(true);
+        }
+
+        void start() {
+            writer.start();
+        }
+
+        private void writeEvents() {
+            try {
+                while (channel.isOpen()) {
+                    ByteBuffer line = ByteBuffer.wrap(queue.take());
+                    while (line.hasRemaining()) {
+                        channel.write(line);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                LoggerManagerE.info("Trade event consumer " + name + " disconnected: " + e.getMessage());
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            clients.remove(this);
+            writer.interrupt();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Verbindung ist ohnehin weg
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package events;
+
+import analyzer.TradeChange;
+import analyzer.TradeRow;
+
+// Eine erkannte Änderung eines Trades, so wie sie an lokale Abnehmer (z.B. den EA) geht
+public class TradeEvent {
+    private final String signalId;
+    private final long observedAt;
+    private final TradeChange.Kind kind;
+    private final TradeRow trade;
+
+    public TradeEvent(String signalId, long observedAt, TradeChange.Kind kind, TradeRow trade) {
+        this.signalId = signalId;
+        this.observedAt = observedAt;
+        this.kind = kind;
+        this.trade = trade;
+    }
+
+    public static TradeEvent of(String signalId, long observedAt, TradeChange change) {
+        return new TradeEvent(signalId, observedAt, change.getKind(), change.getTrade());
+    }
+
+    public String getSignalId() {
+        return signalId;
+    }
+
+    public long getObservedAt() {
+        return observedAt;
+    }
+
+    public TradeChange.Kind getKind() {
+        return kind;
+    }
+
+    public TradeRow getTrade() {
+        return trade;
+    }
+
+    // Eine JSON-Zeile pro Ereignis, sequence zählt pro Ausgabekanal
+    public String toJsonLine(long sequence) {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"seq\":").append(sequence)
+            .append(",\"signal\":");
+        appendString(json, signalId);
+        json.append(",\"event\":\"").append(kind).append('"')
+            .append(",\"observedAt\":").append(observedAt);
+        appendField(json, "symbol", trade.getSymbol());
+        appendField(json, "time", trade.getTime());
+        appendField(json, "type", trade.getType());
+        appendField(json, "volume", trade.getVolume());
+        appendField(json, "price", trade.getPrice());
+        appendField(json, "sl", trade.getStopLoss());
+        appendField(json, "tp", trade.getTakeProfit());
+        return json.append("}\n").toString();
+    }
+
+    private static void appendField(StringBuilder json, String name, String value) {
+        json.append(",\"").append(name).append("\":");
+        appendString(json, value);
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    @Override
+    public String toString() {
+        return signalId + " " + kind + " " + trade;
+    }
+}
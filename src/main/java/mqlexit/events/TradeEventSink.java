@@ -0,0 +1,11 @@
+package events;
+
+// Ausgabekanal für Trade-Ereignisse. publish wird im Abruf-Thread aufgerufen und darf nicht blockieren.
+public interface TradeEventSink extends AutoCloseable {
+
+    void publish(TradeEvent event);
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,66 @@
+package export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Aufbau der spaltenweisen Tagesdateien, pro Signal und Tag:
+// yyyyMMdd.cols  Kopf (Magic, Version, reserviert), dann ein Block je geänderter Trade-Liste:
+//   Zeitpunkt ms (8), Zeilen (4), gepackte Länge (4), Rohlänge (4), Daten (Deflate)
+// Entpackte Daten Spalte für Spalte: Symbol-Wörterbuch des Blocks (Anzahl 2, je Länge 2 + UTF-8),
+// dann je Zeile Symbolnummer (2), Eröffnungszeit ms (8), TradeType-Code (1), Volumen, Preis, S/L, T/P (je 8, double)
+// TradeType-Codes (fest, wie im Trade-Journal): 0 unbekannt, 1 Buy, 2 Sell, 3 Buy Stop, 4 Sell Stop, 5 Buy Limit,
+// 6 Sell Limit, 7 Buy Stop Limit, 8 Sell Stop Limit
+final class SnapshotFormat {
+    static final int MAGIC = 0x4D514C43;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 12;
+    static final int BLOCK_HEADER_SIZE = 20;
+    // Bytes je Zeile ohne Wörterbuch
+    static final int ROW_SIZE = 2 + 8 + 1 + 4 * 8;
+    static final String SUFFIX = ".cols";
+    static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private SnapshotFormat() {
+    }
+
+    static Path dayFile(Path providerDir, LocalDate day) {
+        return providerDir.resolve(day.format(DAY_FORMAT) + SUFFIX);
+    }
+
+    static byte[] compress(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 2));
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            int written = deflater.deflate(buffer);
+            out.write(buffer, 0, written);
+        }
+        return out.toByteArray();
+    }
+
+    static void decompress(Inflater inflater, byte[] compressed, int offset, int length, byte[] raw, int rawLength)
+            throws IOException {
+        inflater.reset();
+        inflater.setInput(compressed, offset, length);
+        try {
+            int filled = 0;
+            while (filled < rawLength) {
+                int read = inflater.inflate(raw, filled, rawLength - filled);
+                if (read == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IOException("Truncated snapshot block");
+                }
+                filled += read;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt snapshot block: " + e.getMessage(), e);
+        }
+    }
+}
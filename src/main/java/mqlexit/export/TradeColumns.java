@@ -0,0 +1,149 @@
+package export;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import analyzer.TradeType;
+
+// Gelesene Trade-Listen als primitive Spalten. Gültig sind jeweils die ersten size() Einträge der Arrays,
+// die Arrays werden beim Weiterlesen wiederverwendet oder ersetzt. Symbole sind über alle Blöcke eines
+// Lesevorgangs gleich nummeriert. Die Zeilen einer Trade-Liste liegen hintereinander: Liste k umfasst
+// die Zeilen snapshotFirstRow()[k] bis snapshotFirstRow()[k + 1] (bzw. size()), auch leere Listen zählen mit.
+public class TradeColumns {
+    public static final long NO_TIME = Long.MIN_VALUE;
+
+    private final List<String> symbols = new ArrayList<>();
+    private final Map<String, Integer> symbolIds = new HashMap<>();
+    private int size;
+    private long[] observedAt = new long[256];
+    private int[] symbol = new int[256];
+    private long[] openTime = new long[256];
+    private byte[] type = new byte[256];
+    private double[] volume = new double[256];
+    private double[] price = new double[256];
+    private double[] stopLoss = new double[256];
+    private double[] takeProfit = new double[256];
+    private int snapshotCount;
+    private long[] snapshotObservedAt = new long[64];
+    private int[] snapshotFirstRow = new int[64];
+
+    public int size() {
+        return size;
+    }
+
+    public long[] observedAt() {
+        return observedAt;
+    }
+
+    public int[] symbol() {
+        return symbol;
+    }
+
+    // Eröffnungszeit in ms wie auf der Signalseite (ohne Zeitzone, als UTC), NO_TIME wenn nicht lesbar
+    public long[] openTime() {
+        return openTime;
+    }
+
+    // TradeType-Codes, siehe TradeType.ofCode
+    public byte[] type() {
+        return type;
+    }
+
+    // Fehlende Werte sind NaN
+    public double[] volume() {
+        return volume;
+    }
+
+    public double[] price() {
+        return price;
+    }
+
+    public double[] stopLoss() {
+        return stopLoss;
+    }
+
+    public double[] takeProfit() {
+        return takeProfit;
+    }
+
+    public int snapshotCount() {
+        return snapshotCount;
+    }
+
+    public long[] snapshotObservedAt() {
+        return snapshotObservedAt;
+    }
+
+    public int[] snapshotFirstRow() {
+        return snapshotFirstRow;
+    }
+
+    public String symbolName(int id) {
+        return symbols.get(id);
+    }
+
+    // -1, wenn das Symbol bisher nicht vorkam
+    public int symbolId(String name) {
+        Integer id = symbolIds.get(name);
+        return id != null ? id : -1;
+    }
+
+    public int symbolCount() {
+        return symbols.size();
+    }
+
+    public TradeType tradeType(int row) {
+        return TradeType.ofCode(type[row]);
+    }
+
+    // Leert die Zeilen, die Symbolnummern bleiben erhalten
+    void clear() {
+        size = 0;
+        snapshotCount = 0;
+    }
+
+    int internSymbol(String name) {
+        Integer id = symbolIds.get(name);
+        if (id == null) {
+            id = symbols.size();
+            symbols.add(name);
+            symbolIds.put(name, id);
+        }
+        return id;
+    }
+
+    // Beginnt eine Trade-Liste und gibt die erste Zeile zurück, ab der rows Zeilen gefüllt werden dürfen
+    int startSnapshot(long time, int rows) {
+        if (snapshotCount == snapshotObservedAt.length) {
+            int capacity = snapshotCount * 2;
+            snapshotObservedAt = Arrays.copyOf(snapshotObservedAt, capacity);
+            snapshotFirstRow = Arrays.copyOf(snapshotFirstRow, capacity);
+        }
+        snapshotObservedAt[snapshotCount] = time;
+        snapshotFirstRow[snapshotCount] = size;
+        snapshotCount++;
+        ensureCapacity(size + rows);
+        Arrays.fill(observedAt, size, size + rows, time);
+        int first = size;
+        size += rows;
+        return first;
+    }
+
+    private void ensureCapacity(int rows) {
+        if (rows <= observedAt.length) {
+            return;
+        }
+        int capacity = Math.max(rows, observedAt.length * 2);
+        observedAt = Arrays.copyOf(observedAt, capacity);
+        symbol = Arrays.copyOf(symbol, capacity);
+        openTime = Arrays.copyOf(openTime, capacity);
+        type = Arrays.copyOf(type, capacity);
+        volume = Arrays.copyOf(volume, capacity);
+        price = Arrays.copyOf(price, capacity);
+        stopLoss = Arrays.copyOf(stopLoss, capacity);
+        takeProfit = Arrays.copyOf(takeProfit, capacity);
+    }
+}
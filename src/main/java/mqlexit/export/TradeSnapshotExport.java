@@ -0,0 +1,233 @@
+package export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+
+import analyzer.Decimals;
+import analyzer.TradeRow;
+import logging.LoggerManagerE;
+import metrics.MetricsRegistry;
+
+// Hängt jede geänderte Trade-Liste eines Signals spaltenweise und komprimiert an dessen Tagesdatei an
+// (Aufbau siehe SnapshotFormat). Unveränderte Zyklen schreiben nichts, eine Liste gilt bis zur nächsten.
+// Gelesen wird mit TradeSnapshotReader. Von allen Signalen gemeinsam benutzt; gesperrt wird je Signal, so
+// wartet kein Abruf auf das Komprimieren und Schreiben eines anderen. Die Trade-Liste wird noch im Abruf
+// kodiert, weil sie danach für den nächsten Abruf wiederverwendet wird.
+public class TradeSnapshotExport implements AutoCloseable {
+    private final Path baseDir;
+    private final Map<String, ProviderExport> providers = new ConcurrentHashMap<>();
+    private volatile boolean closed = false;
+
+    public TradeSnapshotExport(Path baseDir) {
+        this.baseDir = baseDir;
+    }
+
+    public void append(String providerName, long observedAt, List<TradeRow> trades) {
+        if (closed) {
+            return;
+        }
+        long exportStart = System.nanoTime();
+        ProviderExport provider = providers.computeIfAbsent(providerName, ProviderExport::new);
+        synchronized (provider) {
+            if (closed || provider.released) {
+                return;
+            }
+            try {
+                byte[] raw = encode(trades);
+                byte[] compressed = SnapshotFormat.compress(provider.deflater, raw);
+                DayFile file = provider.fileFor(Instant.ofEpochMilli(observedAt).atZone(ZoneId.systemDefault()).toLocalDate());
+                provider.blockHeader.clear();
+                provider.blockHeader.putLong(observedAt).putInt(trades.size()).putInt(compressed.length)
+                    .putInt(raw.length).flip();
+                file.append(provider.blockHeader, ByteBuffer.wrap(compressed));
+                MetricsRegistry.get().timer("snapshot_export", providerName).recordSince(exportStart);
+            } catch (IOException e) {
+                LoggerManagerE.error("Error exporting trades of Signal Provider " + providerName + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // Schließt die Tagesdatei eines entfernten Signals; wird es wieder angelegt, öffnet append sie neu
+    public void release(String providerName) {
+        ProviderExport provider = providers.remove(providerName);
+        if (provider != null) {
+            provider.close();
+        }
+    }
+
+    private static byte[] encode(List<TradeRow> trades) {
+        int rows = trades.size();
+        List<byte[]> dictionary = new ArrayList<>();
+        Map<String, Integer> symbolIds = new HashMap<>();
+        short[] symbols = new short[rows];
+        int dictionaryBytes = 2;
+        for (int i = 0; i < rows; i++) {
+            String symbol = trades.get(i).getSymbol() != null ? trades.get(i).getSymbol() : "";
+            Integer id = symbolIds.get(symbol);
+            if (id == null) {
+                id = dictionary.size();
+                byte[] name = symbol.getBytes(StandardCharsets.UTF_8);
+                dictionary.add(name);
+                symbolIds.put(symbol, id);
+                dictionaryBytes += 2 + name.length;
+            }
+            symbols[i] = (short) id.intValue();
+        }
+
+        ByteBuffer raw = ByteBuffer.allocate(dictionaryBytes + rows * SnapshotFormat.ROW_SIZE);
+        raw.putShort((short) dictionary.size());
+        for (byte[] name : dictionary) {
+            raw.putShort((short) name.length).put(name);
+        }
+        for (int i = 0; i < rows; i++) {
+            raw.putShort(symbols[i]);
+        }
+        // Eröffnungszeit wie auf der Signalseite, ohne Zeitzone als UTC (wie im Journal)
+        for (TradeRow trade : trades) {
+            long openTime = trade.getOpenTime();
+            raw.putLong(openTime == TradeRow.NO_TIME ? TradeColumns.NO_TIME : openTime * 1000);
+        }
+        for (TradeRow trade : trades) {
+            raw.put(trade.getTradeType().code());
+        }
+        for (TradeRow trade : trades) {
+            raw.putDouble(Decimals.toDouble(trade.getVolumeDecimal()));
+        }
+        for (TradeRow trade : trades) {
+            raw.putDouble(Decimals.toDouble(trade.getPriceDecimal()));
+        }
+        for (TradeRow trade : trades) {
+            raw.putDouble(Decimals.toDouble(trade.getStopLossDecimal()));
+        }
+        for (TradeRow trade : trades) {
+            raw.putDouble(Decimals.toDouble(trade.getTakeProfitDecimal()));
+        }
+        return raw.array();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (String providerName : providers.keySet()) {
+            release(providerName);
+        }
+    }
+
+    // Kompressor und offene Tagesdatei eines Signals, nur unter dessen Sperre benutzt
+    private final class ProviderExport {
+        final String providerName;
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        final ByteBuffer blockHeader = ByteBuffer.allocate(SnapshotFormat.BLOCK_HEADER_SIZE);
+        DayFile file;
+        boolean released = false;
+
+        ProviderExport(String providerName) {
+            this.providerName = providerName;
+        }
+
+        DayFile fileFor(LocalDate day) throws IOException {
+            if (file != null && file.day.equals(day)) {
+                return file;
+            }
+            if (file != null) {
+                file.close();
+                file = null;
+            }
+            Path providerDir = baseDir.resolve(providerName);
+            Files.createDirectories(providerDir);
+            file = new DayFile(SnapshotFormat.dayFile(providerDir, day), day);
+            return file;
+        }
+
+        synchronized void close() {
+            released = true;
+            if (file != null) {
+                try {
+                    file.close();
+                } catch (IOException e) {
+                    LoggerManagerE.error("Error closing trade snapshot file of " + providerName + ": " + e.getMessage());
+                }
+                file = null;
+            }
+            deflater.end();
+        }
+    }
+
+    // Die offene Tagesdatei eines Signals
+    private static final class DayFile {
+        final LocalDate day;
+        final FileChannel channel;
+
+        DayFile(Path path, LocalDate day) throws IOException {
+            this.day = day;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+            try {
+                open();
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        // Kopf schreiben oder prüfen und einen nach Absturz unvollständigen letzten Block abschneiden
+        private void open() throws IOException {
+            long size = channel.size();
+            if (size < SnapshotFormat.HEADER_SIZE) {
+                ByteBuffer header = ByteBuffer.allocate(SnapshotFormat.HEADER_SIZE);
+                header.putInt(SnapshotFormat.MAGIC).putInt(SnapshotFormat.VERSION).putInt(0).flip();
+                channel.truncate(0);
+                channel.write(header, 0);
+                return;
+            }
+            ByteBuffer header = ByteBuffer.allocate(SnapshotFormat.HEADER_SIZE);
+            channel.read(header, 0);
+            if (header.getInt(0) != SnapshotFormat.MAGIC || header.getInt(4) != SnapshotFormat.VERSION) {
+                throw new IOException("Unsupported trade snapshot format");
+            }
+            long position = SnapshotFormat.HEADER_SIZE;
+            ByteBuffer blockHeader = ByteBuffer.allocate(SnapshotFormat.BLOCK_HEADER_SIZE);
+            while (position + SnapshotFormat.BLOCK_HEADER_SIZE <= size) {
+                blockHeader.clear();
+                channel.read(blockHeader, position);
+                int compressedLength = blockHeader.getInt(12);
+                long blockLength = SnapshotFormat.BLOCK_HEADER_SIZE + (long) compressedLength;
+                if (compressedLength < 0 || position + blockLength > size) {
+                    break;
+                }
+                position += blockLength;
+            }
+            if (position < size) {
+                LoggerManagerE.warn("Truncating incomplete trade snapshot block at " + position);
+                channel.truncate(position);
+            }
+        }
+
+        void append(ByteBuffer header, ByteBuffer data) throws IOException {
+            long position = channel.size();
+            ByteBuffer[] block = {header, data};
+            channel.position(position);
+            while (data.hasRemaining()) {
+                channel.write(block);
+            }
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+}
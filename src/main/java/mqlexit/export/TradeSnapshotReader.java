@@ -0,0 +1,170 @@
+package export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.Inflater;
+
+// Liest die von TradeSnapshotExport geschriebenen Tagesdateien in primitive Spalten, ohne Objekte je Zeile.
+// Ein Leser ist nicht thread-safe, mehrere Leser dürfen parallel und während des Schreibens lesen.
+public class TradeSnapshotReader implements AutoCloseable {
+    private final Path baseDir;
+    private final Inflater inflater = new Inflater();
+    private byte[] raw = new byte[64 * 1024];
+    private String[] blockSymbols = new String[64];
+
+    public TradeSnapshotReader(Path baseDir) {
+        this.baseDir = baseDir;
+    }
+
+    public List<String> providers() throws IOException {
+        List<String> providers = new ArrayList<>();
+        if (!Files.isDirectory(baseDir)) {
+            return providers;
+        }
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(baseDir, Files::isDirectory)) {
+            for (Path dir : dirs) {
+                providers.add(dir.getFileName().toString());
+            }
+        }
+        Collections.sort(providers);
+        return providers;
+    }
+
+    // Ruft visitor je Tagesdatei mit allen Trade-Listen im Zeitraum [from, to] (ms) auf. columns wird dafür
+    // jedes Mal geleert und neu gefüllt, so bleibt der Speicherbedarf auch über Monate bei einem Tag.
+    // Gibt die Anzahl gelesener Zeilen zurück.
+    public long scan(String providerName, long from, long to, TradeColumns columns, Consumer<TradeColumns> visitor)
+            throws IOException {
+        long rows = 0;
+        for (LocalDate day : days(providerName, toDay(from), toDay(to))) {
+            columns.clear();
+            readDay(SnapshotFormat.dayFile(baseDir.resolve(providerName), day), from, to, columns);
+            if (columns.snapshotCount() > 0) {
+                rows += columns.size();
+                visitor.accept(columns);
+            }
+        }
+        return rows;
+    }
+
+    // Alle Trade-Listen im Zeitraum in einem Satz Spalten
+    public TradeColumns read(String providerName, long from, long to) throws IOException {
+        TradeColumns columns = new TradeColumns();
+        for (LocalDate day : days(providerName, toDay(from), toDay(to))) {
+            readDay(SnapshotFormat.dayFile(baseDir.resolve(providerName), day), from, to, columns);
+        }
+        return columns;
+    }
+
+    private void readDay(Path file, long from, long to, TradeColumns columns) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (data.limit() < SnapshotFormat.HEADER_SIZE || data.getInt(0) != SnapshotFormat.MAGIC
+                || data.getInt(4) != SnapshotFormat.VERSION) {
+            throw new IOException("Not a trade snapshot file: " + file);
+        }
+        int position = SnapshotFormat.HEADER_SIZE;
+        // Ein gerade geschriebener, noch unvollständiger letzter Block wird übergangen
+        while (position + SnapshotFormat.BLOCK_HEADER_SIZE <= data.limit()) {
+            long observedAt = data.getLong(position);
+            int rows = data.getInt(position + 8);
+            int compressedLength = data.getInt(position + 12);
+            int rawLength = data.getInt(position + 16);
+            int blockEnd = position + SnapshotFormat.BLOCK_HEADER_SIZE + compressedLength;
+            if (compressedLength < 0 || blockEnd > data.limit()) {
+                break;
+            }
+            if (observedAt >= from && observedAt <= to) {
+                if (raw.length < rawLength) {
+                    raw = new byte[Math.max(rawLength, raw.length * 2)];
+                }
+                SnapshotFormat.decompress(inflater, data.array(), position + SnapshotFormat.BLOCK_HEADER_SIZE,
+                    compressedLength, raw, rawLength);
+                decodeBlock(ByteBuffer.wrap(raw, 0, rawLength), observedAt, rows, columns);
+            }
+            position = blockEnd;
+        }
+    }
+
+    private void decodeBlock(ByteBuffer block, long observedAt, int rows, TradeColumns columns) {
+        int symbolCount = block.getShort() & 0xFFFF;
+        if (blockSymbols.length < symbolCount) {
+            blockSymbols = new String[symbolCount];
+        }
+        for (int i = 0; i < symbolCount; i++) {
+            int length = block.getShort() & 0xFFFF;
+            blockSymbols[i] = new String(block.array(), block.position(), length, StandardCharsets.UTF_8);
+            block.position(block.position() + length);
+        }
+        int first = columns.startSnapshot(observedAt, rows);
+        int end = first + rows;
+        int[] symbol = columns.symbol();
+        for (int row = first; row < end; row++) {
+            symbol[row] = columns.internSymbol(blockSymbols[block.getShort() & 0xFFFF]);
+        }
+        long[] openTime = columns.openTime();
+        for (int row = first; row < end; row++) {
+            openTime[row] = block.getLong();
+        }
+        block.get(columns.type(), first, rows);
+        readDoubles(block, columns.volume(), first, end);
+        readDoubles(block, columns.price(), first, end);
+        readDoubles(block, columns.stopLoss(), first, end);
+        readDoubles(block, columns.takeProfit(), first, end);
+    }
+
+    private static void readDoubles(ByteBuffer block, double[] column, int first, int end) {
+        for (int row = first; row < end; row++) {
+            column[row] = block.getDouble();
+        }
+    }
+
+    private List<LocalDate> days(String providerName, LocalDate fromDay, LocalDate toDay) throws IOException {
+        List<LocalDate> days = new ArrayList<>();
+        Path providerDir = baseDir.resolve(providerName);
+        if (!Files.isDirectory(providerDir)) {
+            return days;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(providerDir, "*" + SnapshotFormat.SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    LocalDate day = LocalDate.parse(name.substring(0, name.length() - SnapshotFormat.SUFFIX.length()),
+                        SnapshotFormat.DAY_FORMAT);
+                    if (!day.isBefore(fromDay) && !day.isAfter(toDay)) {
+                        days.add(day);
+                    }
+                } catch (RuntimeException e) {
+                    // Keine Tagesdatei
+                }
+            }
+        }
+        Collections.sort(days);
+        return days;
+    }
+
+    private static LocalDate toDay(long millis) {
+        if (millis == Long.MIN_VALUE) {
+            return LocalDate.MIN;
+        }
+        if (millis == Long.MAX_VALUE) {
+            return LocalDate.MAX;
+        }
+        return Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    @Override
+    public void close() {
+        inflater.end();
+    }
+}
@@ -0,0 +1,160 @@
+package journal;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+import analyzer.Decimals;
+import analyzer.TradeChange;
+import analyzer.TradeRow;
+import analyzer.TradeTimes;
+import analyzer.TradeType;
+
+// Ein Eintrag im Trade-Journal: welches Signal hat wann welchen Trade eröffnet, geschlossen oder geändert
+public class JournalEntry {
+    // Eröffnungszeit wie auf der Signalseite angezeigt, gespeichert als Sekunden ohne Zeitzone
+    static final long NO_TIME = TradeTimes.NO_TIME;
+    private static final DateTimeFormatter OBSERVED_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private final long observedAt;
+    private final String signalId;
+    private final TradeChange.Kind kind;
+    private final String symbol;
+    private final long openTime;
+    private final TradeType type;
+    // Werte als Decimals, Decimals.NONE wenn fehlend oder nicht lesbar
+    private final long volume;
+    private final long price;
+    private final long stopLoss;
+    private final long takeProfit;
+
+    public JournalEntry(long observedAt, String signalId, TradeChange.Kind kind, String symbol, long openTime,
+            TradeType type, long volume, long price, long stopLoss, long takeProfit) {
+        this.observedAt = observedAt;
+        this.signalId = signalId;
+        this.kind = kind;
+        this.symbol = symbol;
+        this.openTime = openTime;
+        this.type = type;
+        this.volume = volume;
+        this.price = price;
+        this.stopLoss = stopLoss;
+        this.takeProfit = takeProfit;
+    }
+
+    static JournalEntry of(String signalId, long observedAt, TradeChange change) {
+        TradeRow trade = change.getTrade();
+        return new JournalEntry(observedAt, signalId, change.getKind(), trade.getSymbol(), trade.getOpenTime(),
+            trade.getTradeType(), trade.getVolumeDecimal(), trade.getPriceDecimal(), trade.getStopLossDecimal(),
+            trade.getTakeProfitDecimal());
+    }
+
+    public long getObservedAt() {
+        return observedAt;
+    }
+
+    public String getSignalId() {
+        return signalId;
+    }
+
+    public TradeChange.Kind getKind() {
+        return kind;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    // Sekunden seit 1970 in der Zeit der Signalseite, NO_TIME wenn nicht lesbar
+    public long getOpenTime() {
+        return openTime;
+    }
+
+    public String getOpenTimeText() {
+        if (openTime == NO_TIME) {
+            return null;
+        }
+        StringBuilder text = new StringBuilder(19);
+        TradeTimes.append(text, openTime);
+        return text.toString();
+    }
+
+    public TradeType getTradeType() {
+        return type;
+    }
+
+    public String getType() {
+        return type.getLabel();
+    }
+
+    public long getVolumeDecimal() {
+        return volume;
+    }
+
+    public long getPriceDecimal() {
+        return price;
+    }
+
+    public long getStopLossDecimal() {
+        return stopLoss;
+    }
+
+    public long getTakeProfitDecimal() {
+        return takeProfit;
+    }
+
+    public String getVolume() {
+        return Decimals.toString(volume);
+    }
+
+    public String getPrice() {
+        return Decimals.toString(price);
+    }
+
+    public String getStopLoss() {
+        return Decimals.toString(stopLoss);
+    }
+
+    public String getTakeProfit() {
+        return Decimals.toString(takeProfit);
+    }
+
+    public void appendCsv(StringBuilder target) {
+        target.append(OBSERVED_FORMAT.format(Instant.ofEpochMilli(observedAt))).append(',')
+            .append(signalId).append(',')
+            .append(kind).append(',');
+        if (symbol != null) {
+            target.append(symbol);
+        }
+        target.append(',');
+        if (openTime != NO_TIME) {
+            TradeTimes.append(target, openTime);
+        }
+        target.append(',');
+        if (type != TradeType.UNKNOWN) {
+            target.append(type.getLabel());
+        }
+        target.append(',');
+        appendCsvDecimal(target, volume);
+        target.append(',');
+        appendCsvDecimal(target, price);
+        target.append(',');
+        appendCsvDecimal(target, stopLoss);
+        target.append(',');
+        appendCsvDecimal(target, takeProfit);
+    }
+
+    private static void appendCsvDecimal(StringBuilder target, long decimal) {
+        if (decimal != Decimals.NONE) {
+            Decimals.append(target, decimal);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(128);
+        appendCsv(builder);
+        return builder.toString();
+    }
+}
@@ -0,0 +1,86 @@
+package journal;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+// Exportiert Einträge des Trade-Journals als CSV, z.B.
+// java -cp MqlExitLoader.jar journal.JournalExport C:\tmp\mql5\aktTrades\journal 201845 2024-05-01 2024-05-31 mai.csv
+public class JournalExport {
+    public static final String CSV_HEADER = "observed_at,signal,event,symbol,time,type,volume,price,stop_loss,take_profit";
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            usage(System.err);
+            System.exit(2);
+        }
+        try {
+            Path journalDir = Paths.get(args[0]);
+            String signalId = args.length > 1 && !args[1].equalsIgnoreCase("all") ? args[1] : null;
+            ZoneId zone = ZoneId.systemDefault();
+            // Datumsangaben inklusive, "bis" gilt bis zum Ende des Tages
+            long from = args.length > 2
+                ? LocalDate.parse(args[2]).atStartOfDay(zone).toInstant().toEpochMilli() : Long.MIN_VALUE;
+            long to = args.length > 3
+                ? LocalDate.parse(args[3]).plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli() - 1 : Long.MAX_VALUE;
+
+            long exported;
+            if (args.length > 4) {
+                try (Writer writer = Files.newBufferedWriter(Paths.get(args[4]), StandardCharsets.UTF_8)) {
+                    exported = export(journalDir, signalId, from, to, writer);
+                }
+            } else {
+                Writer writer = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+                exported = export(journalDir, signalId, from, to, writer);
+                writer.flush();
+            }
+            System.err.println("Exported " + exported + " journal entries");
+        } catch (DateTimeParseException e) {
+            System.err.println("Invalid date, expected yyyy-MM-dd: " + e.getParsedString());
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("Error exporting trade journal: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    public static long export(Path journalDir, String signalId, long from, long to, Writer writer) throws IOException {
+        long[] exported = {0};
+        StringBuilder line = new StringBuilder(160);
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        try (TradeJournal journal = TradeJournal.openReadOnly(journalDir)) {
+            IOException[] failure = {null};
+            journal.query(signalId, from, to, entry -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                line.setLength(0);
+                entry.appendCsv(line);
+                line.append('\n');
+                try {
+                    writer.append(line);
+                    exported[0]++;
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        }
+        return exported[0];
+    }
+
+    private static void usage(PrintStream out) {
+        out.println("Usage: JournalExport <journal directory> [signal id|all] [from yyyy-MM-dd] [to yyyy-MM-dd] [output.csv]");
+    }
+}
@@ -0,0 +1,107 @@
+package journal;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+import logging.LoggerManagerE;
+
+// Kleiner Index über abgeschlossene Segmente: pro Segment und Signal erster und letzter Zeitpunkt sowie Anzahl.
+// Damit werden bei einer Abfrage nur die Segmente geöffnet, die das Signal im gesuchten Zeitraum enthalten.
+final class JournalIndex {
+    static final String ALL_SIGNALS = "*";
+
+    static final class Range {
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        long count;
+
+        void add(long observedAt) {
+            first = Math.min(first, observedAt);
+            last = Math.max(last, observedAt);
+            count++;
+        }
+
+        boolean overlaps(long from, long to) {
+            return count > 0 && first <= to && last >= from;
+        }
+    }
+
+    private final Path indexFile;
+    private final Map<Long, Map<String, Range>> segments = new TreeMap<>();
+
+    JournalIndex(Path indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    boolean contains(long segment) {
+        return segments.containsKey(segment);
+    }
+
+    Range range(long segment, String signalId) {
+        Map<String, Range> ranges = segments.get(segment);
+        return ranges != null ? ranges.get(signalId == null ? ALL_SIGNALS : signalId) : null;
+    }
+
+    static Map<String, Range> scan(JournalSegment segment) {
+        Map<String, Range> ranges = new TreeMap<>();
+        for (int i = 0; i < segment.getCount(); i++) {
+            long observedAt = segment.observedAt(i);
+            ranges.computeIfAbsent(segment.signalId(i), k -> new Range()).add(observedAt);
+            ranges.computeIfAbsent(ALL_SIGNALS, k -> new Range()).add(observedAt);
+        }
+        return ranges;
+    }
+
+    void put(long segment, Map<String, Range> ranges) {
+        segments.put(segment, ranges);
+    }
+
+    void load() {
+        if (!Files.exists(indexFile)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t");
+                if (fields.length != 5) {
+                    continue;
+                }
+                Range range = new Range();
+                range.first = Long.parseLong(fields[2]);
+                range.last = Long.parseLong(fields[3]);
+                range.count = Long.parseLong(fields[4]);
+                segments.computeIfAbsent(Long.parseLong(fields[0]), k -> new TreeMap<>()).put(fields[1], range);
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Der Index lässt sich jederzeit aus den Segmenten neu aufbauen
+            LoggerManagerE.warn("Ignoring unreadable journal index " + indexFile + ": " + e.getMessage());
+            segments.clear();
+        }
+    }
+
+    void save() throws IOException {
+        Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            writer.write("# segment\tsignal\tfirst\tlast\tcount\n");
+            for (Map.Entry<Long, Map<String, Range>> segment : segments.entrySet()) {
+                for (Map.Entry<String, Range> entry : segment.getValue().entrySet()) {
+                    Range range = entry.getValue();
+                    writer.write(segment.getKey() + "\t" + entry.getKey() + "\t" + range.first + "\t" + range.last
+                        + "\t" + range.count + "\n");
+                }
+            }
+        }
+        Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,273 @@
+package journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import analyzer.Decimals;
+import analyzer.TradeChange;
+import analyzer.TradeType;
+
+// Eine Segmentdatei mit fester Anzahl gleich langer Datensätze, komplett in den Speicher gemappt.
+// Ein Datensatz gilt erst als geschrieben, wenn sein COMMITTED-Byte gesetzt ist.
+final class JournalSegment implements AutoCloseable {
+    static final int MAGIC = 0x4D514A4C;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 96;
+    static final int TEXT_LENGTH = 16;
+
+    private static final int OBSERVED_AT = 0;
+    private static final int OPEN_TIME = 8;
+    private static final int KIND = 16;
+    private static final int TYPE = 17;
+    private static final int SIGNAL = 18;
+    private static final int SYMBOL = SIGNAL + TEXT_LENGTH;
+    private static final int VOLUME = SYMBOL + TEXT_LENGTH;
+    private static final int PRICE = VOLUME + 9;
+    private static final int STOP_LOSS = PRICE + 9;
+    private static final int TAKE_PROFIT = STOP_LOSS + 9;
+    private static final int COMMITTED = TAKE_PROFIT + 9;
+    private static final byte NO_DECIMAL = -1;
+
+    // Codes im KIND-Byte, unabhängig von der Reihenfolge in TradeChange.Kind
+    static final byte KIND_OPENED = 0;
+    static final byte KIND_CLOSED = 1;
+    static final byte KIND_MODIFIED = 2;
+
+    private final long number;
+    private final Path file;
+    private final int capacity;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int count;
+
+    private JournalSegment(long number, Path file, int capacity, FileChannel channel, MappedByteBuffer buffer) {
+        this.number = number;
+        this.file = file;
+        this.capacity = capacity;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static JournalSegment create(Path file, long number, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, RECORD_SIZE);
+        buffer.putInt(12, capacity);
+        buffer.putLong(16, number);
+        buffer.force();
+        return new JournalSegment(number, file, capacity, channel, buffer);
+    }
+
+    static JournalSegment open(Path file, boolean writable) throws IOException {
+        FileChannel channel = writable
+            ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+            : FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(8) != RECORD_SIZE) {
+                throw new IOException("Not a trade journal segment: " + file);
+            }
+            int capacity = header.getInt(12);
+            long number = header.getLong(16);
+            long size = Math.min(channel.size(), HEADER_SIZE + (long) capacity * RECORD_SIZE);
+            MappedByteBuffer buffer = channel.map(
+                writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, size);
+            JournalSegment segment = new JournalSegment(number, file, capacity, channel, buffer);
+            segment.count = segment.countCommitted((int) ((size - HEADER_SIZE) / RECORD_SIZE));
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Datensätze werden lückenlos geschrieben, der erste nicht bestätigte markiert das Ende
+    private int countCommitted(int available) {
+        int low = 0;
+        int high = available;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (buffer.get(offset(middle) + COMMITTED) != 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    long getNumber() {
+        return number;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    boolean isFull() {
+        return count >= capacity;
+    }
+
+    void append(JournalEntry entry, byte[] signalBytes) {
+        int offset = offset(count);
+        buffer.putLong(offset + OBSERVED_AT, entry.getObservedAt());
+        buffer.putLong(offset + OPEN_TIME, entry.getOpenTime());
+        buffer.put(offset + KIND, kindCode(entry.getKind()));
+        buffer.put(offset + TYPE, entry.getTradeType().code());
+        buffer.put(offset + SIGNAL, signalBytes);
+        buffer.put(offset + SYMBOL, encodeText(entry.getSymbol()));
+        putDecimal(offset + VOLUME, entry.getVolumeDecimal());
+        putDecimal(offset + PRICE, entry.getPriceDecimal());
+        putDecimal(offset + STOP_LOSS, entry.getStopLossDecimal());
+        putDecimal(offset + TAKE_PROFIT, entry.getTakeProfitDecimal());
+        buffer.put(offset + COMMITTED, (byte) 1);
+        count++;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    long observedAt(int index) {
+        return buffer.getLong(offset(index) + OBSERVED_AT);
+    }
+
+    boolean hasSignal(int index, byte[] signalBytes) {
+        int offset = offset(index) + SIGNAL;
+        for (int i = 0; i < TEXT_LENGTH; i++) {
+            if (buffer.get(offset + i) != signalBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    String signalId(int index) {
+        return decodeText(offset(index) + SIGNAL);
+    }
+
+    JournalEntry read(int index) throws IOException {
+        int offset = offset(index);
+        return new JournalEntry(
+            buffer.getLong(offset + OBSERVED_AT),
+            decodeText(offset + SIGNAL),
+            kindOf(buffer.get(offset + KIND), index),
+            decodeText(offset + SYMBOL),
+            buffer.getLong(offset + OPEN_TIME),
+            TradeType.ofCode(buffer.get(offset + TYPE)),
+            getDecimal(offset + VOLUME),
+            getDecimal(offset + PRICE),
+            getDecimal(offset + STOP_LOSS),
+            getDecimal(offset + TAKE_PROFIT));
+    }
+
+    // Erster Datensatz mit observedAt >= time, die Zeiten sind innerhalb des Journals aufsteigend
+    int firstAtOrAfter(long time) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (observedAt(middle) < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static int offset(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    static byte kindCode(TradeChange.Kind kind) {
+        switch (kind) {
+            case OPENED:
+                return KIND_OPENED;
+            case CLOSED:
+                return KIND_CLOSED;
+            case MODIFIED:
+                return KIND_MODIFIED;
+            default:
+                throw new IllegalArgumentException("No journal code for " + kind);
+        }
+    }
+
+    private TradeChange.Kind kindOf(byte code, int index) throws IOException {
+        switch (code) {
+            case KIND_OPENED:
+                return TradeChange.Kind.OPENED;
+            case KIND_CLOSED:
+                return TradeChange.Kind.CLOSED;
+            case KIND_MODIFIED:
+                return TradeChange.Kind.MODIFIED;
+            default:
+                throw new IOException("Unknown change kind " + code + " in record " + index + " of " + file);
+        }
+    }
+
+    // Ganzzahliger Wert plus Nachkommastellen, damit "1.10000" erhalten bleibt
+    private void putDecimal(int offset, long decimal) {
+        if (decimal == Decimals.NONE) {
+            buffer.putLong(offset, 0);
+            buffer.put(offset + 8, NO_DECIMAL);
+        } else {
+            buffer.putLong(offset, Decimals.unscaled(decimal));
+            buffer.put(offset + 8, (byte) Decimals.scale(decimal));
+        }
+    }
+
+    private long getDecimal(int offset) {
+        byte scale = buffer.get(offset + 8);
+        return scale == NO_DECIMAL ? Decimals.NONE : Decimals.of(buffer.getLong(offset), scale);
+    }
+
+    // Auf TEXT_LENGTH Bytes gekürzt und mit Nullen aufgefüllt
+    static byte[] encodeText(String text) {
+        byte[] encoded = new byte[TEXT_LENGTH];
+        if (text != null) {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            System.arraycopy(bytes, 0, encoded, 0, Math.min(bytes.length, TEXT_LENGTH));
+        }
+        return encoded;
+    }
+
+    private String decodeText(int offset) {
+        byte[] bytes = new byte[TEXT_LENGTH];
+        buffer.get(offset, bytes);
+        int length = 0;
+        while (length < TEXT_LENGTH && bytes[length] != 0) {
+            length++;
+        }
+        return length == 0 ? null : new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    static boolean isSegmentFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith("journal-") && name.endsWith(".seg") && Files.isRegularFile(file);
+    }
+
+    static String fileName(long number) {
+        return String.format("journal-%08d.seg", number);
+    }
+}
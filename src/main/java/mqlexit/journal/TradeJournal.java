@@ -0,0 +1,282 @@
+package journal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import analyzer.TradeChange;
+import logging.LoggerManagerE;
+import metrics.MetricsRegistry;
+
+// Binäres Trade-Journal aus fortlaufend nummerierten Segmentdateien mit festen Datensätzen.
+// Geschrieben wird nur angehängt, Abfragen nach Signal und Zeitraum springen über den Index
+// direkt in die passenden Segmente und dort per Binärsuche an den Anfang des Zeitraums.
+public class TradeJournal implements AutoCloseable {
+    public static final int DEFAULT_SEGMENT_CAPACITY = 32768;
+    private static final String INDEX_FILE = "journal.idx";
+
+    private final Path directory;
+    private final int segmentCapacity;
+    private final boolean writable;
+    private final JournalIndex index;
+    // Alle Segmentnummern aufsteigend, das letzte ist beim Schreiben das aktive
+    private final List<Long> segmentNumbers = new ArrayList<>();
+    private final Map<Long, Map<String, JournalIndex.Range>> openRanges = new TreeMap<>();
+    private JournalSegment active;
+    private long lastObservedAt = Long.MIN_VALUE;
+
+    private TradeJournal(Path directory, int segmentCapacity, boolean writable) {
+        this.directory = directory;
+        this.segmentCapacity = segmentCapacity;
+        this.writable = writable;
+        this.index = new JournalIndex(directory.resolve(INDEX_FILE));
+    }
+
+    public static TradeJournal open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_CAPACITY, true);
+    }
+
+    // Nur lesend, z.B. für den Export während die Anwendung weiterschreibt
+    public static TradeJournal openReadOnly(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_CAPACITY, false);
+    }
+
+    static TradeJournal open(Path directory, int segmentCapacity, boolean writable) throws IOException {
+        if (writable) {
+            Files.createDirectories(directory);
+        } else if (!Files.isDirectory(directory)) {
+            throw new IOException("Trade journal not found: " + directory);
+        }
+        TradeJournal journal = new TradeJournal(directory, segmentCapacity, writable);
+        journal.load();
+        return journal;
+    }
+
+    private void load() throws IOException {
+        index.load();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(JournalSegment::isSegmentFile)
+                .map(file -> Long.parseLong(file.getFileName().toString().replaceAll("\\D", "")))
+                .sorted()
+                .forEach(segmentNumbers::add);
+        }
+
+        // Segmente ohne Indexeintrag (das aktive oder nach einem Absturz) werden einmal durchsucht
+        for (long number : segmentNumbers) {
+            if (!index.contains(number)) {
+                try (JournalSegment segment = JournalSegment.open(segmentFile(number), false)) {
+                    openRanges.put(number, JournalIndex.scan(segment));
+                }
+            }
+        }
+
+        if (writable && !segmentNumbers.isEmpty()) {
+            long lastNumber = segmentNumbers.get(segmentNumbers.size() - 1);
+            active = JournalSegment.open(segmentFile(lastNumber), true);
+            // Abgeschlossene Segmente, deren Indexeintrag fehlt, nachtragen
+            boolean indexChanged = false;
+            for (long number : new ArrayList<>(openRanges.keySet())) {
+                if (number != lastNumber) {
+                    index.put(number, openRanges.remove(number));
+                    indexChanged = true;
+                }
+            }
+            if (indexChanged) {
+                index.save();
+            }
+            if (active.isFull()) {
+                roll();
+            }
+        }
+        for (long number : segmentNumbers) {
+            Map<String, JournalIndex.Range> open = openRanges.get(number);
+            JournalIndex.Range range = open != null ? open.get(JournalIndex.ALL_SIGNALS) : index.range(number, null);
+            if (range != null && range.count > 0) {
+                lastObservedAt = Math.max(lastObservedAt, range.last);
+            }
+        }
+        LoggerManagerE.info("Trade journal " + directory + " opened with " + segmentNumbers.size() + " segment(s)");
+    }
+
+    // Hängt alle Änderungen eines Abrufs an und schreibt sie anschließend gemeinsam auf die Platte
+    public synchronized void append(String signalId, long observedAt, List<TradeChange> changes) throws IOException {
+        if (!writable) {
+            throw new IllegalStateException("Trade journal is opened read-only");
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        long appendStart = System.nanoTime();
+        // Aufsteigende Zeiten sind die Voraussetzung für die Binärsuche
+        long time = Math.max(observedAt, lastObservedAt);
+        byte[] signalBytes = JournalSegment.encodeText(signalId);
+        for (TradeChange change : changes) {
+            if (active == null || active.isFull()) {
+                roll();
+            }
+            active.append(JournalEntry.of(signalId, time, change), signalBytes);
+            Map<String, JournalIndex.Range> ranges = openRanges.computeIfAbsent(active.getNumber(), k -> new TreeMap<>());
+            ranges.computeIfAbsent(signalId, k -> new JournalIndex.Range()).add(time);
+            ranges.computeIfAbsent(JournalIndex.ALL_SIGNALS, k -> new JournalIndex.Range()).add(time);
+        }
+        lastObservedAt = time;
+        active.force();
+        MetricsRegistry.get().timer("journal_append", signalId).recordSince(appendStart);
+    }
+
+    // Zeitpunkt des letzten Eintrags, Long.MIN_VALUE bei leerem Journal
+    public synchronized long getLastObservedAt() {
+        return lastObservedAt;
+    }
+
+    // Liefert alle Einträge im Zeitraum [from, to] in Millisekunden, signalId null steht für alle Signale
+    public synchronized void query(String signalId, long from, long to, Consumer<JournalEntry> consumer) throws IOException {
+        byte[] signalBytes = signalId != null ? JournalSegment.encodeText(signalId) : null;
+        String rangeKey = signalId != null ? signalId : JournalIndex.ALL_SIGNALS;
+        for (long number : segmentNumbers) {
+            Map<String, JournalIndex.Range> open = openRanges.get(number);
+            JournalIndex.Range range = open != null ? open.get(rangeKey) : index.range(number, signalId);
+            if (range == null || !range.overlaps(from, to)) {
+                continue;
+            }
+            if (active != null && active.getNumber() == number) {
+                readRange(active, signalBytes, from, to, consumer);
+            } else {
+                try (JournalSegment segment = JournalSegment.open(segmentFile(number), false)) {
+                    readRange(segment, signalBytes, from, to, consumer);
+                }
+            }
+        }
+    }
+
+    public List<JournalEntry> query(String signalId, long from, long to) throws IOException {
+        List<JournalEntry> entries = new ArrayList<>();
+        query(signalId, from, to, entries::add);
+        return entries;
+    }
+
+    // Liest die Einträge im Zeitraum [from, to] der Reihe nach, dabei ist immer nur ein Segment geöffnet.
+    // Gedacht zum Zusammenführen mehrerer Journale, ohne sie vollständig in den Speicher zu laden.
+    public Cursor cursor(String signalId, long from, long to) {
+        return new Cursor(signalId, from, to);
+    }
+
+    public final class Cursor implements AutoCloseable {
+        private final String signalId;
+        private final byte[] signalBytes;
+        private final String rangeKey;
+        private final long from;
+        private final long to;
+        private int segmentPosition;
+        private JournalSegment segment;
+        private boolean ownsSegment;
+        private int row;
+
+        private Cursor(String signalId, long from, long to) {
+            this.signalId = signalId;
+            this.signalBytes = signalId != null ? JournalSegment.encodeText(signalId) : null;
+            this.rangeKey = signalId != null ? signalId : JournalIndex.ALL_SIGNALS;
+            this.from = from;
+            this.to = to;
+        }
+
+        // Nächster Eintrag oder null, wenn der Zeitraum ausgelesen ist
+        public JournalEntry next() throws IOException {
+            synchronized (TradeJournal.this) {
+                while (true) {
+                    if (segment == null && !openNextSegment()) {
+                        return null;
+                    }
+                    while (row < segment.getCount() && segment.observedAt(row) <= to) {
+                        int current = row++;
+                        if (signalBytes == null || segment.hasSignal(current, signalBytes)) {
+                            return segment.read(current);
+                        }
+                    }
+                    closeSegment();
+                }
+            }
+        }
+
+        private boolean openNextSegment() throws IOException {
+            while (segmentPosition < segmentNumbers.size()) {
+                long number = segmentNumbers.get(segmentPosition++);
+                Map<String, JournalIndex.Range> open = openRanges.get(number);
+                JournalIndex.Range range = open != null ? open.get(rangeKey) : index.range(number, signalId);
+                if (range == null || !range.overlaps(from, to)) {
+                    continue;
+                }
+                ownsSegment = active == null || active.getNumber() != number;
+                segment = ownsSegment ? JournalSegment.open(segmentFile(number), false) : active;
+                row = segment.firstAtOrAfter(from);
+                return true;
+            }
+            return false;
+        }
+
+        private void closeSegment() throws IOException {
+            JournalSegment finished = segment;
+            segment = null;
+            if (ownsSegment) {
+                finished.close();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (TradeJournal.this) {
+                if (segment != null) {
+                    closeSegment();
+                }
+            }
+        }
+    }
+
+    private static void readRange(JournalSegment segment, byte[] signalBytes, long from, long to,
+            Consumer<JournalEntry> consumer) throws IOException {
+        for (int i = segment.firstAtOrAfter(from); i < segment.getCount(); i++) {
+            if (segment.observedAt(i) > to) {
+                break;
+            }
+            if (signalBytes == null || segment.hasSignal(i, signalBytes)) {
+                consumer.accept(segment.read(i));
+            }
+        }
+    }
+
+    // Schließt das volle Segment ab, übernimmt es in den Index und beginnt ein neues
+    private void roll() throws IOException {
+        long number = 1;
+        if (active != null) {
+            number = active.getNumber() + 1;
+            active.force();
+            active.close();
+            index.put(active.getNumber(), openRanges.remove(active.getNumber()));
+            index.save();
+        } else if (!segmentNumbers.isEmpty()) {
+            number = segmentNumbers.get(segmentNumbers.size() - 1) + 1;
+        }
+        active = JournalSegment.create(segmentFile(number), number, segmentCapacity);
+        segmentNumbers.add(number);
+        LoggerManagerE.info("Started trade journal segment " + active.getFile());
+    }
+
+    private Path segmentFile(long number) {
+        return directory.resolve(JournalSegment.fileName(number));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (active != null) {
+            active.force();
+            active.close();
+            active = null;
+        }
+    }
+}
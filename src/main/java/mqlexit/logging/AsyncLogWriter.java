@@ -0,0 +1,150 @@
+package logging;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Schreibt Log-Einträge in einem eigenen Thread: Aufrufer legen nur Zeitstempel und Text in den Ringpuffer,
+// formatiert und geschrieben wird gesammelt. Geflusht wird, sobald genug Text anliegt, ein Fehler
+// geloggt wurde oder der älteste ungeschriebene Eintrag das Flush-Intervall erreicht.
+final class AsyncLogWriter {
+    private static final int CAPACITY = 8192;
+    private static final int DRAIN_BATCH = 1024;
+    private static final int FLUSH_CHARS = 64 * 1024;
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final long IDLE_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final DateTimeFormatter SECOND_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.").withZone(ZoneId.systemDefault());
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final LogRingBuffer ring = new LogRingBuffer(CAPACITY);
+    private final RollingLogFile logFile;
+    private final Charset charset = Charset.defaultCharset();
+    private final Thread consumer;
+    private volatile boolean running = true;
+    private volatile boolean consumerWaiting;
+
+    // Nur vom Schreib-Thread benutzt
+    private final StringBuilder batch = new StringBuilder(FLUSH_CHARS + 1024);
+    private long firstPendingNanos;
+    private boolean flushRequested;
+    private long cachedSecond = Long.MIN_VALUE;
+    private String cachedSecondText;
+
+    AsyncLogWriter(RollingLogFile logFile) {
+        this.logFile = logFile;
+        this.consumer = new Thread(this::run, "log-writer");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    void log(LogLevel level, String message) {
+        log(level, System.currentTimeMillis(), message);
+    }
+
+    void log(LogLevel level, long timeMillis, String message) {
+        while (!ring.offer(level, timeMillis, message)) {
+            // Puffer voll: kurz warten, bis der Schreib-Thread aufgeholt hat
+            if (!running) {
+                return;
+            }
+            LockSupport.unpark(consumer);
+            LockSupport.parkNanos(50_000);
+        }
+        if (consumerWaiting) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    // Wartet, bis alle bisher geloggten Einträge geschrieben sind
+    void close() {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (running || !ring.isEmpty()) {
+            int drained = ring.drain(this::append, DRAIN_BATCH);
+            long now = System.nanoTime();
+            if (batch.length() > 0
+                    && (flushRequested || batch.length() >= FLUSH_CHARS || !running
+                        || now - firstPendingNanos >= FLUSH_INTERVAL_NANOS)) {
+                flush();
+            }
+            if (drained == 0) {
+                long parkNanos = batch.length() > 0
+                    ? FLUSH_INTERVAL_NANOS - (now - firstPendingNanos)
+                    : IDLE_PARK_NANOS;
+                consumerWaiting = true;
+                // Erneut prüfen, damit kein Eintrag zwischen drain und park verschlafen wird
+                if (running && ring.isEmpty()) {
+                    LockSupport.parkNanos(this, Math.max(parkNanos, 1));
+                }
+                consumerWaiting = false;
+            }
+        }
+        flush();
+        try {
+            logFile.close();
+        } catch (IOException e) {
+            System.err.println("Error closing log writer: " + e.getMessage());
+        }
+    }
+
+    private void append(LogLevel level, long timeMillis, String message) {
+        if (batch.length() == 0) {
+            firstPendingNanos = System.nanoTime();
+        }
+        appendTimestamp(timeMillis);
+        batch.append(" - ");
+        if (level != null) {
+            batch.append('[').append(level.name()).append("] ");
+        }
+        batch.append(message).append(LINE_SEPARATOR);
+        if (level == LogLevel.ERROR) {
+            flushRequested = true;
+        }
+    }
+
+    // Datum und Uhrzeit werden nur einmal pro Sekunde formatiert, die Millisekunden direkt angehängt
+    private void appendTimestamp(long timeMillis) {
+        long second = Math.floorDiv(timeMillis, 1000);
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedSecondText = SECOND_FORMAT.format(Instant.ofEpochSecond(second));
+        }
+        int millis = Math.floorMod(timeMillis, 1000);
+        batch.append(cachedSecondText);
+        if (millis < 100) {
+            batch.append('0');
+        }
+        if (millis < 10) {
+            batch.append('0');
+        }
+        batch.append(millis);
+    }
+
+    private void flush() {
+        if (batch.length() == 0) {
+            return;
+        }
+        String text = batch.toString();
+        batch.setLength(0);
+        flushRequested = false;
+        try {
+            logFile.write(text.getBytes(charset));
+        } catch (IOException e) {
+            System.err.println("Error writing to log: " + e.getMessage());
+        }
+        System.out.print(text);  // Auch auf Konsole ausgeben
+    }
+}
@@ -0,0 +1,17 @@
+package logging;
+
+public enum LogLevel {
+    DEBUG, INFO, WARN, ERROR;
+
+    // Unbekannte Werte ergeben null, der Aufrufer entscheidet über den Standard
+    public static LogLevel parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
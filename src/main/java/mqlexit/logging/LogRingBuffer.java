@@ -0,0 +1,87 @@
+package logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Begrenzter Ringpuffer für viele schreibende Threads und genau einen lesenden Thread.
+// Jeder Platz trägt eine Sequenznummer: Schreiber reservieren per CAS, der Leser gibt den Platz
+// nach dem Auslesen für die nächste Runde frei. Die Einträge werden wiederverwendet.
+final class LogRingBuffer {
+
+    static final class Entry {
+        LogLevel level;
+        long timeMillis;
+        String message;
+    }
+
+    interface EntryHandler {
+        void onEntry(LogLevel level, long timeMillis, String message);
+    }
+
+    private final Entry[] entries;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Nur vom lesenden Thread benutzt
+    private long head;
+
+    LogRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        entries = new Entry[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            entries[i] = new Entry();
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+    }
+
+    // false, wenn der Puffer voll ist
+    boolean offer(LogLevel level, long timeMillis, String message) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    Entry entry = entries[index];
+                    entry.level = level;
+                    entry.timeMillis = timeMillis;
+                    entry.message = message;
+                    // Erst jetzt sieht der Leser den Eintrag
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+        }
+    }
+
+    // Liest höchstens max Einträge und liefert deren Anzahl
+    int drain(EntryHandler handler, int max) {
+        int count = 0;
+        while (count < max) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            Entry entry = entries[index];
+            LogLevel level = entry.level;
+            long timeMillis = entry.timeMillis;
+            String message = entry.message;
+            entry.message = null;
+            sequences.lazySet(index, head + entries.length);
+            head++;
+            count++;
+            handler.onEntry(level, timeMillis, message);
+        }
+        return count;
+    }
+
+    boolean isEmpty() {
+        return sequences.get((int) head & mask) != head + 1;
+    }
+}
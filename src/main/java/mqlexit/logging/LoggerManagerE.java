@@ -1,16 +1,25 @@
-
-
 // LoggerManagerE.java
 package logging;
 
 import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class LoggerManagerE {
-    private static FileWriter logWriter;
+    private static final long DEFAULT_MAX_FILE_BYTES = 10L * 1024 * 1024;
+    private static final int DEFAULT_MAX_FILES = 5;
+    private static final int MAX_EARLY_ENTRIES = 1000;
+    private static volatile AsyncLogWriter logWriter;
+    private static volatile LogLevel minLevel = LogLevel.DEBUG;
+    // Einträge aus parallel startenden Teilen vor initializeLogger, werden danach nachgeschrieben
+    private static List<EarlyEntry> earlyEntries = new ArrayList<>();
 
     public static void initializeLogger(String logConfigPath) {
+        initializeLogger(logConfigPath, LogLevel.DEBUG, DEFAULT_MAX_FILE_BYTES, DEFAULT_MAX_FILES);
+    }
+
+    public static synchronized void initializeLogger(String logConfigPath, LogLevel level, long maxFileBytes,
+            int maxFiles) {
         try {
             // Bestimme das Root-Verzeichnis (C:\tmp\mql5)
             File rootDir = new File(logConfigPath).getParentFile().getParentFile();
@@ -19,13 +28,30 @@ public class LoggerManagerE {
 
             // Erstelle den Log-File-Pfad
             File logFile = new File(logDir, "application.log");
-            
-            // Öffne den FileWriter
-            logWriter = new FileWriter(logFile, true);
-            
+
+            // Ein erneuter Aufruf ersetzt den bisherigen Writer
+            AsyncLogWriter previous = logWriter;
+            minLevel = level;
+            logWriter = new AsyncLogWriter(new RollingLogFile(logFile, maxFileBytes, maxFiles));
+            if (previous != null) {
+                previous.close();
+            } else {
+                // Auch bei System.exit sollen gepufferte Einträge noch in die Datei
+                Runtime.getRuntime().addShutdownHook(new Thread(LoggerManagerE::shutdown, "log-shutdown"));
+            }
+
             // Initialer Log-Eintrag
             writeLog("Logger initialized");
             writeLog("Log file path: " + logFile.getAbsolutePath());
+            writeLog("Log level: " + level + ", rolling at " + (maxFileBytes / 1024) + " KB, keeping " + maxFiles + " file(s)");
+            if (earlyEntries != null) {
+                for (EarlyEntry entry : earlyEntries) {
+                    if (entry.level == null || entry.level.compareTo(level) >= 0) {
+                        logWriter.log(entry.level, entry.timeMillis, entry.message);
+                    }
+                }
+                earlyEntries = null;
+            }
 
         } catch (Exception e) {
             System.err.println("Error initializing logger: " + e.getMessage());
@@ -33,45 +59,78 @@ public class LoggerManagerE {
         }
     }
 
+    public static void setLevel(LogLevel level) {
+        minLevel = level;
+    }
+
+    public static boolean isEnabled(LogLevel level) {
+        return logWriter != null && level.compareTo(minLevel) >= 0;
+    }
+
     public static void writeLog(String message) {
-        try {
-            if (logWriter != null) {
-                String timestamp = java.time.LocalDateTime.now().format(
-                    java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS"));
-                String logEntry = String.format("%s - %s%n", timestamp, message);
-                logWriter.write(logEntry);
-                logWriter.flush();
-                System.out.println(logEntry.trim());  // Auch auf Konsole ausgeben
-            }
-        } catch (IOException e) {
-            System.err.println("Error writing to log: " + e.getMessage());
+        AsyncLogWriter writer = logWriter;
+        if (writer != null) {
+            writer.log(null, message);
+        } else {
+            logEarly(null, message);
         }
     }
 
     public static void info(String message) {
-        writeLog("[INFO] " + message);
+        log(LogLevel.INFO, message);
     }
 
     public static void error(String message) {
-        writeLog("[ERROR] " + message);
+        log(LogLevel.ERROR, message);
     }
 
     public static void debug(String message) {
-        writeLog("[DEBUG] " + message);
+        log(LogLevel.DEBUG, message);
     }
 
     public static void warn(String message) {
-        writeLog("[WARN] " + message);
+        log(LogLevel.WARN, message);
     }
-    
-    public static void shutdown() {
-        try {
-            if (logWriter != null) {
-                logWriter.flush();
-                logWriter.close();
+
+    private static void log(LogLevel level, String message) {
+        AsyncLogWriter writer = logWriter;
+        if (writer == null) {
+            logEarly(level, message);
+        } else if (level.compareTo(minLevel) >= 0) {
+            writer.log(level, message);
+        }
+    }
+
+    // Nur bis zur ersten Initialisierung, nach shutdown() wird wie bisher nichts mehr geschrieben
+    private static synchronized void logEarly(LogLevel level, String message) {
+        AsyncLogWriter writer = logWriter;
+        if (writer != null) {
+            if (level == null || level.compareTo(minLevel) >= 0) {
+                writer.log(level, message);
             }
-        } catch (IOException e) {
-            System.err.println("Error closing log writer: " + e.getMessage());
+        } else if (earlyEntries != null && earlyEntries.size() < MAX_EARLY_ENTRIES) {
+            earlyEntries.add(new EarlyEntry(level, System.currentTimeMillis(), message));
+        }
+    }
+
+    // Schreibt alle noch gepufferten Einträge und schließt die Datei
+    public static synchronized void shutdown() {
+        AsyncLogWriter writer = logWriter;
+        if (writer != null) {
+            logWriter = null;
+            writer.close();
+        }
+    }
+
+    private static final class EarlyEntry {
+        final LogLevel level;
+        final long timeMillis;
+        final String message;
+
+        EarlyEntry(LogLevel level, long timeMillis, String message) {
+            this.level = level;
+            this.timeMillis = timeMillis;
+            this.message = message;
         }
     }
 }
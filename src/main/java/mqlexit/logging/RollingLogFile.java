@@ -0,0 +1,73 @@
+package logging;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Log-Datei, die ab einer Maximalgröße nach application.1.log ... application.<n>.log weitergerollt wird
+final class RollingLogFile {
+    private final File logFile;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private OutputStream out;
+    private long size;
+
+    RollingLogFile(File logFile, long maxFileBytes, int maxFiles) throws IOException {
+        this.logFile = logFile;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        open();
+    }
+
+    File getFile() {
+        return logFile;
+    }
+
+    void write(byte[] bytes) throws IOException {
+        if (size > 0 && size + bytes.length > maxFileBytes) {
+            roll();
+        }
+        out.write(bytes);
+        size += bytes.length;
+    }
+
+    void close() throws IOException {
+        out.close();
+    }
+
+    private void open() throws IOException {
+        out = new FileOutputStream(logFile, true);
+        size = logFile.length();
+    }
+
+    private void roll() throws IOException {
+        out.close();
+        File oldest = rolledFile(maxFiles);
+        if (oldest.exists() && !oldest.delete()) {
+            System.err.println("Could not delete old log file: " + oldest);
+        }
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            File source = rolledFile(i);
+            if (source.exists() && !source.renameTo(rolledFile(i + 1))) {
+                System.err.println("Could not roll log file: " + source);
+            }
+        }
+        if (maxFiles > 0 && !logFile.renameTo(rolledFile(1))) {
+            System.err.println("Could not roll log file: " + logFile);
+        }
+        if (maxFiles == 0 && !logFile.delete()) {
+            System.err.println("Could not truncate log file: " + logFile);
+        }
+        open();
+    }
+
+    private File rolledFile(int index) {
+        String name = logFile.getName();
+        int dot = name.lastIndexOf('.');
+        String rolledName = dot > 0
+            ? name.substring(0, dot) + "." + index + name.substring(dot)
+            : name + "." + index;
+        return new File(logFile.getParentFile(), rolledName);
+    }
+}
@@ -0,0 +1,16 @@
+package metrics;
+
+import java.util.Map;
+
+public interface MetricsMXBean {
+
+    Map<String, Long> getCounters();
+
+    Map<String, Long> getTimerCounts();
+
+    Map<String, Double> getTimerMeanMillis();
+
+    Map<String, Long> getTimerP95Millis();
+
+    String getPrometheusText();
+}
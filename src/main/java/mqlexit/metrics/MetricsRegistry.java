@@ -0,0 +1,152 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import javax.management.ObjectName;
+
+import logging.LoggerManagerE;
+
+// Zentrale Zeitmessungen und Zähler pro Phase und Signal, abrufbar über JMX und als Prometheus-Text
+public class MetricsRegistry implements MetricsMXBean {
+    public static final String ALL_SIGNALS = "all";
+    private static final String PREFIX = "mqlexit_";
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private static class Series<T> {
+        final String name;
+        final String signal;
+        final T value;
+
+        Series(String name, String signal, T value) {
+            this.name = name;
+            this.signal = signal;
+            this.value = value;
+        }
+    }
+
+    private final Map<String, Series<Histogram>> timers = new ConcurrentHashMap<>();
+    private final Map<String, Series<LongAdder>> counters = new ConcurrentHashMap<>();
+    private final Map<String, Series<LongSupplier>> gauges = new ConcurrentHashMap<>();
+
+    public static MetricsRegistry get() {
+        return INSTANCE;
+    }
+
+    public Histogram timer(String name, String signal) {
+        return timers.computeIfAbsent(key(name, signal), k -> new Series<>(name, signal, new Histogram())).value;
+    }
+
+    public LongAdder counter(String name, String signal) {
+        return counters.computeIfAbsent(key(name, signal), k -> new Series<>(name, signal, new LongAdder())).value;
+    }
+
+    public void gauge(String name, String signal, LongSupplier supplier) {
+        gauges.put(key(name, signal), new Series<>(name, signal, supplier));
+    }
+
+    public void removeGauge(String name, String signal) {
+        gauges.remove(key(name, signal));
+    }
+
+    private static String key(String name, String signal) {
+        return name + "{" + signal + "}";
+    }
+
+    public void registerJmx() {
+        try {
+            ObjectName objectName = new ObjectName("mqlexit:type=Metrics");
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+                LoggerManagerE.info("Metrics registered in JMX as " + objectName);
+            }
+        } catch (Exception e) {
+            LoggerManagerE.error("Error registering metrics in JMX: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((key, series) -> values.put(key, series.value.sum()));
+        gauges.forEach((key, series) -> values.put(key, series.value.getAsLong()));
+        return values;
+    }
+
+    @Override
+    public Map<String, Long> getTimerCounts() {
+        Map<String, Long> values = new TreeMap<>();
+        timers.forEach((key, series) -> values.put(key, series.value.getCount()));
+        return values;
+    }
+
+    @Override
+    public Map<String, Double> getTimerMeanMillis() {
+        Map<String, Double> values = new TreeMap<>();
+        timers.forEach((key, series) -> values.put(key, series.value.getMeanMillis()));
+        return values;
+    }
+
+    @Override
+    public Map<String, Long> getTimerP95Millis() {
+        Map<String, Long> values = new TreeMap<>();
+        timers.forEach((key, series) -> values.put(key, series.value.getQuantileUpperBoundMillis(0.95)));
+        return values;
+    }
+
+    @Override
+    public String getPrometheusText() {
+        StringBuilder text = new StringBuilder(4096);
+
+        Map<String, Map<String, Series<Histogram>>> timerFamilies = new TreeMap<>();
+        timers.values().forEach(series ->
+            timerFamilies.computeIfAbsent(series.name, k -> new TreeMap<>()).put(series.signal, series));
+        for (Map.Entry<String, Map<String, Series<Histogram>>> family : timerFamilies.entrySet()) {
+            String metric = PREFIX + family.getKey() + "_seconds";
+            text.append("# TYPE ").append(metric).append(" histogram\n");
+            for (Series<Histogram> series : family.getValue().values()) {
+                long[] counts = series.value.getBucketCounts();
+                long cumulative = 0;
+                for (int i = 0; i < counts.length; i++) {
+                    cumulative += counts[i];
+                    String bound = i < Histogram.BUCKET_BOUNDS_MILLIS.length
+                        ? Double.toString(Histogram.BUCKET_BOUNDS_MILLIS[i] / 1000.0)
+                        : "+Inf";
+                    text.append(metric).append("_bucket{signal=\"").append(series.signal)
+                        .append("\",le=\"").append(bound).append("\"} ").append(cumulative).append('\n');
+                }
+                text.append(metric).append("_sum{signal=\"").append(series.signal).append("\"} ")
+                    .append(series.value.getSumSeconds()).append('\n');
+                text.append(metric).append("_count{signal=\"").append(series.signal).append("\"} ")
+                    .append(series.value.getCount()).append('\n');
+            }
+        }
+
+        appendSimple(text, counters, "counter", "_total", series -> series.value.sum());
+        appendSimple(text, gauges, "gauge", "", series -> series.value.getAsLong());
+        return text.toString();
+    }
+
+    private interface SeriesValue<T> {
+        long of(Series<T> series);
+    }
+
+    private static <T> void appendSimple(StringBuilder text, Map<String, Series<T>> source, String type,
+            String suffix, SeriesValue<T> value) {
+        Map<String, Map<String, Series<T>>> families = new TreeMap<>();
+        source.values().forEach(series ->
+            families.computeIfAbsent(series.name, k -> new TreeMap<>()).put(series.signal, series));
+        for (Map.Entry<String, Map<String, Series<T>>> family : families.entrySet()) {
+            String metric = PREFIX + family.getKey() + suffix;
+            text.append("# TYPE ").append(metric).append(' ').append(type).append('\n');
+            for (Series<T> series : family.getValue().values()) {
+                text.append(metric).append("{signal=\"").append(series.signal).append("\"} ")
+                    .append(value.of(series)).append('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package monitor;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// Zeitbudget eines Abrufzyklus. Bis zur Commit-Phase unterbricht ein Wächter den Zyklus-Thread, sobald das
+// Budget aufgebraucht ist; ab dort läuft der Zyklus ohne Abbruch zu Ende, damit Journal, Zustand und
+// signal.txt nie halb geschrieben werden (ein Interrupt schließt offene FileChannels).
+public final class CycleDeadline implements AutoCloseable {
+    private final Thread owner;
+    private final long deadlineNanos;
+    private final ScheduledFuture<?> watchdogTask;
+    private String phase = "start";
+    private boolean interruptible = true;
+    private boolean expired;
+    private boolean interruptSent;
+    private boolean closed;
+
+    private CycleDeadline(Duration budget, ScheduledExecutorService watchdog) {
+        this.owner = Thread.currentThread();
+        this.deadlineNanos = System.nanoTime() + budget.toNanos();
+        this.watchdogTask = watchdog.schedule(this::expire, budget.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    // Muss auf dem Thread geöffnet werden, der den Zyklus ausführt
+    public static CycleDeadline start(Duration budget, ScheduledExecutorService watchdog) {
+        return new CycleDeadline(budget, watchdog);
+    }
+
+    private synchronized void expire() {
+        if (closed) {
+            return;
+        }
+        expired = true;
+        if (interruptible) {
+            interruptSent = true;
+            owner.interrupt();
+        }
+    }
+
+    public synchronized void enter(String phase) {
+        this.phase = phase;
+        checkRemaining();
+    }
+
+    // Ab hier wird der Zyklus nicht mehr abgebrochen, auch wenn das Budget währenddessen abläuft
+    public synchronized void enterUninterruptible(String phase) {
+        enter(phase);
+        interruptible = false;
+    }
+
+    public synchronized boolean isExpired() {
+        return expired;
+    }
+
+    public synchronized String getPhase() {
+        return phase;
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    // Begrenzt eine Wartezeit auf das restliche Budget
+    public synchronized Duration cap(Duration timeout) {
+        checkRemaining();
+        Duration remaining = remaining();
+        return remaining.compareTo(timeout) < 0 ? remaining : timeout;
+    }
+
+    // Feste Pause; reicht das Budget nicht mehr, endet der Zyklus sofort statt erst nach dem Warten
+    public void sleep(long millis) throws InterruptedException {
+        if (remaining().toMillis() < millis) {
+            throw timeout();
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            if (isExpired()) {
+                throw timeout();
+            }
+            throw e;
+        }
+    }
+
+    public CycleTimeoutException timeout() {
+        return new CycleTimeoutException(getPhase());
+    }
+
+    private void checkRemaining() {
+        if (expired || deadlineNanos - System.nanoTime() <= 0) {
+            expired = true;
+            throw new CycleTimeoutException(phase);
+        }
+    }
+
+    @Override
+    public void close() {
+        boolean clearInterrupt;
+        synchronized (this) {
+            closed = true;
+            clearInterrupt = interruptSent;
+        }
+        watchdogTask.cancel(false);
+        if (clearInterrupt) {
+            // Den Interrupt des Wächters nicht in den nächsten Zyklus auf diesem Thread mitnehmen
+            Thread.interrupted();
+        }
+    }
+}
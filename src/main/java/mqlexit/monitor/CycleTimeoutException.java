@@ -0,0 +1,16 @@
+package monitor;
+
+// Ein Abrufzyklus hat sein Zeitbudget überschritten
+public class CycleTimeoutException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    private final String phase;
+
+    public CycleTimeoutException(String phase) {
+        super("Cycle deadline exceeded during " + phase);
+        this.phase = phase;
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+}
@@ -0,0 +1,113 @@
+package monitor;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import analyzer.AnalysisResult;
+import resilience.CircuitOpenException;
+import scheduler.PollPolicy;
+import scheduler.PollScheduler;
+
+// Verbindet einen TradeMonitor mit dem Scheduler und leitet aus dem Ergebnis das nächste Intervall ab
+public class MonitorPollTask implements PollScheduler.PollTask {
+    private static final Logger logger = LogManager.getLogger(MonitorPollTask.class);
+    private final TradeMonitor monitor;
+    private final Duration cycleTimeout;
+    private final ScheduledExecutorService watchdog;
+    private final Runnable tableReadListener;
+    // Gehalten, solange ein Zyklus läuft; retire() wartet darauf
+    private final ReentrantLock cycleLock = new ReentrantLock();
+    private volatile PollPolicy policy;
+    private volatile boolean retired = false;
+    private int cyclesSinceChange = Integer.MAX_VALUE;
+
+    // tableReadListener läuft nach jedem Zyklus, der die Trade-Tabelle gelesen hat
+    public MonitorPollTask(TradeMonitor monitor, PollPolicy policy, Duration cycleTimeout, ScheduledExecutorService watchdog,
+            Runnable tableReadListener) {
+        this.monitor = monitor;
+        this.policy = policy;
+        this.cycleTimeout = cycleTimeout;
+        this.watchdog = watchdog;
+        this.tableReadListener = tableReadListener;
+    }
+
+    public TradeMonitor getMonitor() {
+        return monitor;
+    }
+
+    public PollPolicy getPolicy() {
+        return policy;
+    }
+
+    public void setPolicy(PollPolicy policy) {
+        this.policy = policy;
+    }
+
+    // Nach dem Entfernen des Signals: kein Zyklus startet mehr, ein laufender wird bis zu timeout abgewartet.
+    // Erst danach dürfen Ressourcen des Monitors (z.B. seine Ringdatei) freigegeben oder ersetzt werden.
+    // false, wenn der laufende Zyklus nicht rechtzeitig fertig wurde
+    public boolean retire(Duration timeout) {
+        retired = true;
+        try {
+            if (!cycleLock.tryLock(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        cycleLock.unlock();
+        return true;
+    }
+
+    @Override
+    public Duration poll() {
+        cycleLock.lock();
+        try {
+            // Schon vom Scheduler übergeben, aber das Signal wurde inzwischen entfernt
+            if (retired) {
+                return policy.errorInterval();
+            }
+            return runCycle();
+        } finally {
+            cycleLock.unlock();
+        }
+    }
+
+    private Duration runCycle() {
+        PollPolicy currentPolicy = policy;
+        try (CycleDeadline deadline = CycleDeadline.start(cycleTimeout, watchdog)) {
+            AnalysisResult result = monitor.runCycle(deadline);
+            if (!result.isTableFound()) {
+                return currentPolicy.errorInterval();
+            }
+            tableReadListener.run();
+            if (result.hasChanges()) {
+                cyclesSinceChange = 0;
+            } else if (cyclesSinceChange < Integer.MAX_VALUE) {
+                cyclesSinceChange++;
+            }
+            Duration next = currentPolicy.nextInterval(result.getOpenTrades(), cyclesSinceChange);
+            logger.info("Next check for Signal Provider " + monitor.getSignalId() + " in " + next.getSeconds() + "s");
+            return next;
+        } catch (CycleTimeoutException e) {
+            logger.warn("Cycle of Signal Provider " + monitor.getSignalId() + " exceeded its deadline of "
+                + cycleTimeout.getSeconds() + "s during " + e.getPhase());
+            return currentPolicy.errorInterval();
+        } catch (CircuitOpenException e) {
+            logger.info("Skipping Signal Provider " + monitor.getSignalId() + ": " + e.getMessage());
+            return currentPolicy.errorInterval();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return currentPolicy.errorInterval();
+        } catch (Exception e) {
+            logger.error("Error in monitoring task for Signal Provider " + monitor.getSignalId(), e);
+            return currentPolicy.errorInterval();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package monitor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import browser.BrowserSession;
+import browser.BrowserSessionPool;
+import metrics.MetricsRegistry;
+import scheduler.PollPolicy;
+import scheduler.PollScheduler;
+import scheduler.RateLimiter;
+
+public class MonitoringEngine {
+    private static final Logger logger = LogManager.getLogger(MonitoringEngine.class);
+    private static final Duration RETIRE_GRACE = Duration.ofSeconds(10);
+    private final BrowserSessionPool sessionPool;
+    private final Map<String, MonitorPollTask> tasks = new ConcurrentHashMap<>();
+    private final ExecutorService workers;
+    // Bricht Zyklen ab, die ihr Zeitbudget überschreiten
+    private final ScheduledExecutorService watchdog =
+        Executors.newSingleThreadScheduledExecutor(namedThreads("cycle-watchdog"));
+    private final PollScheduler pollScheduler;
+    private final Duration healthCheckInterval;
+    private final Duration cycleTimeout;
+    private final AtomicBoolean firstTableRead = new AtomicBoolean();
+    private volatile boolean started = false;
+
+    // Mit virtualThreads läuft jeder Zyklus auf einem eigenen virtuellen Thread (ab Java 21), sonst auf
+    // workerThreads Plattform-Threads. Die Parallelität begrenzen ohnehin Session-Pool und Ratenlimit.
+    // clock bestimmt Fälligkeiten und Ratenlimit des Schedulers, im Betrieb Clock.systemUTC()
+    public MonitoringEngine(BrowserSessionPool sessionPool, int workerThreads, boolean virtualThreads,
+            int maxFetchesPerMinute, Duration jitter, Duration healthCheckInterval, Duration cycleTimeout,
+            Clock clock) {
+        this.sessionPool = sessionPool;
+        this.healthCheckInterval = healthCheckInterval;
+        this.cycleTimeout = cycleTimeout;
+        this.workers = createWorkers(workerThreads, virtualThreads);
+        RateLimiter rateLimiter = new RateLimiter(maxFetchesPerMinute, Math.max(1, maxFetchesPerMinute / 10), clock.millis());
+        this.pollScheduler = new PollScheduler(clock, workers, rateLimiter, jitter, new Random());
+    }
+
+    // Nach start() wird ein neuer Monitor sofort eingeplant
+    public void addMonitor(TradeMonitor monitor, PollPolicy policy) {
+        logger.info("Signal Provider " + monitor.getSignalId() + " poll policy: " + policy);
+        MonitorPollTask task = new MonitorPollTask(monitor, policy, cycleTimeout, watchdog, this::onTableRead);
+        tasks.put(monitor.getSignalId(), task);
+        if (started) {
+            pollScheduler.schedule(monitor.getSignalId(), task, Duration.ZERO);
+        }
+    }
+
+    // Plant keinen weiteren Abruf mehr ein und wartet, bis ein laufender Zyklus zu Ende ist. Danach kann der
+    // Aufrufer den Monitor schließen, seine Ressourcen freigeben oder das Signal neu anlegen.
+    public TradeMonitor removeMonitor(String signalId) {
+        MonitorPollTask task = tasks.remove(signalId);
+        if (task == null) {
+            return null;
+        }
+        pollScheduler.cancel(signalId);
+        // Der Watchdog bricht den Zyklus nach cycleTimeout ab, danach braucht er nur noch zum Aufräumen
+        if (!task.retire(cycleTimeout.plus(RETIRE_GRACE))) {
+            logger.warn("Cycle of Signal Provider " + signalId + " is still running after its deadline, releasing anyway");
+        }
+        logger.info("Stopped monitoring Signal Provider " + signalId);
+        return task.getMonitor();
+    }
+
+    public void updatePolicy(String signalId, PollPolicy policy) {
+        MonitorPollTask task = tasks.get(signalId);
+        if (task != null && !task.getPolicy().equals(policy)) {
+            logger.info("Signal Provider " + signalId + " new poll policy: " + policy);
+            task.setPolicy(policy);
+        }
+    }
+
+    public Set<String> getSignalIds() {
+        return new HashSet<>(tasks.keySet());
+    }
+
+    public void start() {
+        logger.info("Starting monitoring for " + tasks.size() + " Signal Provider(s) with "
+            + sessionPool.getMaxSessions() + " browser session(s)");
+        try {
+            // Der erste Login prüft die Zugangsdaten, bevor alle Signale gestartet werden.
+            // Mit gespeicherten Cookies einer früheren Anmeldung entfällt er.
+            BrowserSession session = sessionPool.acquire();
+            try {
+                session.ensureLoggedIn();
+            } finally {
+                sessionPool.release(session);
+            }
+        } catch (Exception e) {
+            logger.error("Initial login failed", e);
+            showErrorDialog("Login fehlgeschlagen",
+                "Der Login konnte nicht durchgeführt werden. Bitte überprüfen Sie Ihre Zugangsdaten und starten Sie das Programm neu.");
+            return;
+        }
+
+        // Der Jitter des Schedulers verteilt die ersten Abrufe, damit nicht alle Signale gleichzeitig laden
+        for (MonitorPollTask task : tasks.values()) {
+            pollScheduler.schedule(task.getMonitor().getSignalId(), task, Duration.ZERO);
+        }
+        pollScheduler.start();
+        started = true;
+        sessionPool.startMaintenance(healthCheckInterval);
+        logger.info("Poll scheduler started for " + tasks.size() + " Signal Provider(s)");
+    }
+
+    // Startzeit bis zum ersten gelesenen Signal, gemessen ab Start der JVM
+    private void onTableRead() {
+        if (firstTableRead.compareAndSet(false, true)) {
+            long uptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+            MetricsRegistry.get().gauge("startup_time_to_first_poll_ms", MetricsRegistry.ALL_SIGNALS, () -> uptimeMillis);
+            logger.info("First signal read " + uptimeMillis + " ms after start");
+        }
+    }
+
+    private void showErrorDialog(String title, String message) {
+        SwingUtilities.invokeLater(() -> {
+            JOptionPane.showMessageDialog(null,
+                message,
+                title,
+                JOptionPane.ERROR_MESSAGE);
+            System.exit(1);
+        });
+    }
+
+    public void stop() {
+        pollScheduler.stop();
+        workers.shutdownNow();
+        try {
+            workers.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        watchdog.shutdownNow();
+        sessionPool.close();
+    }
+
+    private static ExecutorService createWorkers(int workerThreads, boolean virtualThreads) {
+        if (virtualThreads) {
+            ExecutorService executor = virtualThreadExecutor("monitor-cycle-");
+            if (executor != null) {
+                logger.info("Running monitor cycles on virtual threads");
+                return executor;
+            }
+            logger.info("Virtual threads need Java 21, using " + Math.max(1, workerThreads) + " worker threads");
+        }
+        return Executors.newFixedThreadPool(Math.max(1, workerThreads), namedThreads("monitor-worker"));
+    }
+
+    // Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 1).factory()) per Reflection,
+    // damit der Build weiter mit Java 17 läuft
+    private static ExecutorService virtualThreadExecutor(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Method name = builderType.getMethod("name", String.class, long.class);
+            Method factory = builderType.getMethod("factory");
+            ThreadFactory threads = (ThreadFactory) factory.invoke(name.invoke(builder, prefix, 1L));
+            Method perTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) perTask.invoke(null, threads);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
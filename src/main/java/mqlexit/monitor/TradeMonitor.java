@@ -1,72 +1,133 @@
 package monitor;
 
 import java.io.File;
-import java.io.FileWriter;
+import java.io.IOException;
+import java.net.URI;
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.Collections;
+import java.util.List;
 import java.util.regex.Pattern;
-import java.util.regex.Matcher;
-
-import javax.swing.JOptionPane;
-import javax.swing.SwingUtilities;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
-
-import com.google.common.base.Function;
 
+import analyzer.AnalysisResult;
 import analyzer.TradeAnalyzer;
-import browser.WebDriverManagerE;
-import config.CredentialsE;
+import archive.PageArchive;
+import browser.BrowserSession;
+import browser.BrowserSessionPool;
+import browser.HttpPageFetcher;
+import browser.HttpSessionSource;
+import browser.LoadTimeEstimate;
+import browser.PageReadiness;
+import browser.SessionExpiredException;
+import events.TradeEventSink;
+import export.TradeSnapshotExport;
+import journal.TradeJournal;
+import metrics.MetricsRegistry;
+import resilience.CircuitBreaker;
+import resilience.CircuitOpenException;
+import resilience.FailureKind;
+import resilience.ResiliencePolicy;
+import resilience.RetryBudget;
 
 public class TradeMonitor {
     private static final Logger logger = LogManager.getLogger(TradeMonitor.class);
-    private WebDriver driver;
+    private final BrowserSessionPool sessionPool;
+    // Woher der HTTP-Abruf nach abgelaufener Session neue Cookies bekommt, im Betrieb der Browser-Pool
+    private final HttpSessionSource sessionSource;
+    private final HttpPageFetcher httpFetcher;
+    private final PageArchive pageArchive;
     private final String baseDir;
     private final String providerName;
     private final TradeAnalyzer analyzer;
     private final String signalUrl;
+    private final MetricsRegistry metrics = MetricsRegistry.get();
+    private final ResiliencePolicy resilience;
+    // Wiederholungen dieses Signals und Breaker des Hosts, den sich alle Signale teilen
+    private final RetryBudget retryBudget;
+    private final CircuitBreaker hostBreaker;
+    // Übliche Zeit bis zur fertigen Tabelle, daraus ergibt sich der Timeout beim Warten
+    private final LoadTimeEstimate loadTime = new LoadTimeEstimate(Duration.ofSeconds(10), Duration.ofSeconds(90));
     private static final String SIGNAL_BASE_URL = "https://www.mql5.com/en/signals/%s?source=Site+Signals+Subscriptions";
-    private final CredentialsE credentials;
-    private WebDriverWait wait;
-    private boolean isLoggedIn = false;
-    private final WebDriverManagerE webDriverManager;
-    private boolean initialLoginDone = false;
-
-    public TradeMonitor(WebDriver driver, String baseDir, String signalId, 
-            CredentialsE credentials, WebDriverManagerE webDriverManager,
-            String signalDir) {
-        this.webDriverManager = webDriverManager;
-        this.driver = driver;
+    private static final Pattern TRADE_SIGNAL_PATTERN =
+        Pattern.compile("<td[^>]*data-label=\"Type\"[^>]*>(Buy|Sell|Buy Stop|Sell Stop)</td>");
+    // Prüfsumme über genau die Zellen, die TradeTableParser liest; Spalten wie Profit oder Marktpreis ändern
+    // sich ständig und bleiben außen vor. Übertragen wird nur "Zeilen:Länge:Hash".
+    private static final String TABLE_DIGEST_SCRIPT =
+        "var cell = document.querySelector(\"td[data-label='Type']\");"
+        + "var body = cell ? cell.closest('tbody') : null;"
+        + "if (!body) { return null; }"
+        + "var labels = ['Symbol', 'Time', 'Type', 'Volume', 'Price', 'S/L', 'T/P'];"
+        + "var text = '';"
+        + "for (var r = 0; r < body.rows.length; r++) {"
+        + "  for (var l = 0; l < labels.length; l++) {"
+        + "    var c = body.rows[r].querySelector(\"td[data-label='\" + labels[l] + \"']\");"
+        + "    text += (c ? c.textContent.trim() : '') + '\\t';"
+        + "  }"
+        + "  text += '\\n';"
+        + "}"
+        + "var h = 0x811c9dc5;"
+        + "for (var i = 0; i < text.length; i++) { h = Math.imul(h ^ text.charCodeAt(i), 0x01000193) >>> 0; }"
+        + "return body.rows.length + ':' + text.length + ':' + h.toString(16);";
+
+    // Ergebnis eines Abrufs; tableDigest nur im Browser-Modus, pageSource null bei unveränderter Tabelle
+    private static final class PageFetch {
+        final String pageSource;
+        final String tableDigest;
+
+        PageFetch(String pageSource, String tableDigest) {
+            this.pageSource = pageSource;
+            this.tableDigest = tableDigest;
+        }
+    }
+
+    // Nur vom jeweils laufenden Zyklus benutzt, ein Signal wird nie parallel abgefragt
+    private String lastTableDigest;
+    private int lastOpenTrades;
+
+    // Mit httpFetcher wird der Browser nur noch für den Login verwendet, ohne pageArchive wird nichts archiviert,
+    // ohne snapshotExport nichts spaltenweise exportiert
+    public TradeMonitor(BrowserSessionPool sessionPool, HttpPageFetcher httpFetcher, PageArchive pageArchive,
+            TradeJournal journal, TradeSnapshotExport snapshotExport, TradeEventSink eventSink, ResiliencePolicy resilience,
+            String baseDir, String signalId, String signalDir, List<String> signalTargets) {
+        this(sessionPool, sessionPool, httpFetcher, pageArchive, journal, snapshotExport, eventSink, resilience,
+            baseDir, signalId, signalDir, signalTargets, String.format(SIGNAL_BASE_URL, signalId));
+    }
+
+    // Mit eigener Session-Quelle und Adresse, z.B. gegen einen lokalen Server; ohne sessionPool nur per HTTP
+    TradeMonitor(BrowserSessionPool sessionPool, HttpSessionSource sessionSource, HttpPageFetcher httpFetcher,
+            PageArchive pageArchive, TradeJournal journal, TradeSnapshotExport snapshotExport, TradeEventSink eventSink,
+            ResiliencePolicy resilience, String baseDir, String signalId, String signalDir, List<String> signalTargets,
+            String signalUrl) {
+        this.sessionPool = sessionPool;
+        this.sessionSource = sessionSource;
+        this.httpFetcher = httpFetcher;
+        this.pageArchive = pageArchive;
         this.baseDir = baseDir;
         this.providerName = signalId;
-        this.credentials = credentials;
         this.analyzer = new TradeAnalyzer(
-           baseDir + File.separator + "trades_log.txt", 
+           journal,
+           snapshotExport,
+           eventSink,
            signalId,
-           signalDir
+           signalDir,
+           signalTargets,
+           baseDir + File.separator + signalId + File.separator + "trade_state.txt"
         );
-        this.signalUrl = String.format(SIGNAL_BASE_URL, signalId);
-        
-        // Setze erweiterte Timeouts
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
-        driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(30));
-        
-        // Längerer Timeout für explizite Wartezeiten
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(90));
-        
+        this.signalUrl = signalUrl;
+        this.resilience = resilience;
+        this.retryBudget = resilience.newRetryBudget();
+        this.hostBreaker = resilience.breakerFor(URI.create(signalUrl).getHost());
+        metrics.gauge("retry_budget", signalId, retryBudget::availableRetries);
+        metrics.gauge("load_timeout_ms", signalId, () -> loadTime.timeout().toMillis());
+
         createDirectories();
     }
 
@@ -77,263 +138,264 @@ public class TradeMonitor {
         }
     }
 
-    private void performLogin() {
-        logger.info("Starting login process...");
+    public String getSignalId() {
+        return providerName;
+    }
+
+    // Nach dem Entfernen des Signals: eigene Messwerte abmelden
+    public void close() {
+        metrics.removeGauge("load_timeout_ms", providerName);
+        metrics.removeGauge("retry_budget", providerName);
+    }
+
+    // Abruf und Auswertung einer Seite innerhalb des Zeitbudgets von deadline
+    public AnalysisResult runCycle(CycleDeadline deadline) throws InterruptedException {
+        long cycleStart = System.nanoTime();
         try {
-            driver.get("https://www.mql5.com/en/auth_login");
-            
-            // Warte auf das Login-Formular
-            Function<WebDriver, WebElement> waitFunction = ExpectedConditions.visibilityOfElementLocated(By.id("Login"));
-            WebElement usernameField = wait.until(waitFunction);
-            WebElement passwordField = driver.findElement(By.id("Password"));
-
-            // Eingabefelder leeren und neu befüllen
-            usernameField.clear();
-            passwordField.clear();
-            usernameField.sendKeys(credentials.getUsername());
-            passwordField.sendKeys(credentials.getPassword());
-
-            // Warte kurz vor dem Klick
-            Thread.sleep(1000);
-            
-            clickLoginButton();
-            verifyLogin();
-            isLoggedIn = true;
-            
-        } catch (Exception e) {
-            logger.error("Login process failed", e);
-            isLoggedIn = false;
-            throw new RuntimeException("Login failed", e);
+            return runCycleMeasured(deadline);
+        } catch (InterruptedException | RuntimeException e) {
+            metrics.counter("cycle_failures", providerName).increment();
+            if (deadline.isExpired()) {
+                // Auch Selenium-Fehler, die der Interrupt des Wächters ausgelöst hat, zählen als Zeitüberschreitung
+                metrics.counter("cycle_timeouts", providerName).increment();
+                throw e instanceof CycleTimeoutException ? (CycleTimeoutException) e : deadline.timeout();
+            }
+            throw e;
+        } finally {
+            metrics.timer("cycle", providerName).recordSince(cycleStart);
+        }
+    }
+
+    private AnalysisResult runCycleMeasured(CycleDeadline deadline) throws InterruptedException {
+        LocalDateTime fetchedAt = LocalDateTime.now();
+        deadline.enter("fetch");
+        PageFetch fetch = httpFetcher != null
+            ? new PageFetch(fetchPageOverHttp(deadline), null)
+            : fetchPageWithBrowser(deadline);
+        // Archiv, Journal, Zustand und signal.txt werden nicht mehr abgebrochen
+        deadline.enterUninterruptible("analyze");
+        if (fetch.pageSource == null) {
+            // Schneller Weg: Tabelle unverändert, Seite wird weder übertragen noch archiviert oder analysiert
+            metrics.counter("table_unchanged", providerName).increment();
+            logger.info("Trade table of Signal Provider " + providerName + " unchanged (" + lastOpenTrades + " open)");
+            return new AnalysisResult(true, true, lastOpenTrades, Collections.emptyList());
         }
+        String pageSource = fetch.pageSource;
+
+        // Nur Seiten mit Trade-Signalen werden archiviert
+        boolean hasSignals = containsTradeSignal(pageSource);
+        if (hasSignals && pageArchive != null) {
+            // Das Archiv schreibt im Hintergrund, die Analyse arbeitet direkt auf der Seite im Speicher
+            pageArchive.archive(providerName, fetchedAt, pageSource);
+        } else if (!hasSignals) {
+            logger.info("No trade signals found - page not saved");
+        }
+
+        // Auch ohne Trades analysieren, damit geschlossene Trades erkannt werden
+        AnalysisResult result = analyzer.analyze(pageSource);
+        // Die Prüfsumme gilt erst, wenn die Seite dazu auch ausgewertet wurde
+        lastTableDigest = result.isTableFound() ? fetch.tableDigest : null;
+        lastOpenTrades = result.getOpenTrades();
+        return result;
     }
 
-    private void clickLoginButton() {
-        WebElement loginButton = findLoginButton();
-        if (loginButton != null) {
+    private String fetchPageOverHttp(CycleDeadline deadline) throws InterruptedException {
+        int attempt = 1;
+        retryBudget.recordRequest();
+
+        while (true) {
+            long sessionGeneration = httpFetcher.getSessionGeneration();
+            hostBreaker.acquire();
             try {
-                wait.until(ExpectedConditions.elementToBeClickable(loginButton));
-                ((JavascriptExecutor) driver).executeScript("arguments[0].click();", loginButton);
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to click login button", e);
+                if (sessionGeneration == 0) {
+                    refreshHttpSession(sessionGeneration, false);
+                    sessionGeneration = httpFetcher.getSessionGeneration();
+                }
+                logger.info("Fetching URL over HTTP: " + signalUrl + " (Attempt " + attempt + " of " + resilience.getMaxAttempts() + ")");
+                long fetchStart = System.nanoTime();
+                String pageSource = httpFetcher.fetch(signalUrl);
+                metrics.timer("http_fetch", providerName).recordSince(fetchStart);
+                hostBreaker.onSuccess();
+                return pageSource;
+            } catch (IOException e) {
+                FailureKind kind = recordFailure(e, null);
+                if (kind.needsLogin()) {
+                    logger.info("HTTP session expired for Signal Provider " + providerName + ": " + e.getMessage());
+                    metrics.counter("session_expired", providerName).increment();
+                } else {
+                    logger.error("Error fetching webpage (" + kind + ", attempt " + attempt + " of " + resilience.getMaxAttempts() + ")", e);
+                }
+                beforeRetry(e, kind, attempt, deadline);
+                attempt++;
+                if (kind.needsLogin()) {
+                    // Session abgelaufen: neu über den Browser einloggen und Cookies übernehmen
+                    refreshHttpSession(sessionGeneration, true);
+                }
             }
-        } else {
-            throw new RuntimeException("Login button could not be found");
         }
     }
 
-    private WebElement findLoginButton() {
-        try {
-            return driver.findElement(By.id("loginSubmit"));
-        } catch (Exception e) {
-            try {
-                return driver.findElement(By.cssSelector("input.button.button_yellow.qa-submit"));
-            } catch (Exception ex) {
-                return null;
+    private void refreshHttpSession(long seenGeneration, boolean forceLogin) throws InterruptedException {
+        synchronized (httpFetcher) {
+            // Hat ein anderes Signal die Session inzwischen erneuert, ist kein neuer Login nötig
+            if (httpFetcher.getSessionGeneration() != seenGeneration) {
+                return;
             }
+            sessionSource.exportSessionTo(httpFetcher, forceLogin);
         }
     }
 
-    private void verifyLogin() {
+    private PageFetch fetchPageWithBrowser(CycleDeadline deadline) throws InterruptedException {
+        BrowserSession session = sessionPool.acquire();
+        boolean windowLost = false;
         try {
-            wait.until(ExpectedConditions.urlContains("/en"));
-            Thread.sleep(2000);
-            
-            // Zusätzliche Überprüfung des Login-Status
-            if (driver.getCurrentUrl().contains("auth_login")) {
-                throw new RuntimeException("Still on login page after login attempt");
+            return fetchPageWithBrowser(session, deadline);
+        } catch (NoSuchWindowException e) {
+            logger.error("Browser window of session " + session.getId() + " was closed, replacing session", e);
+            windowLost = true;
+            throw e;
+        } finally {
+            if (windowLost) {
+                sessionPool.discard(session);
+            } else {
+                sessionPool.release(session);
             }
-        } catch (Exception e) {
-            throw new RuntimeException("Login verification failed", e);
         }
     }
 
-    private String saveWebPage() {
-        int maxRetries = 3;
-        int currentTry = 0;
-        
-        while (currentTry < maxRetries) {
+    private PageFetch fetchPageWithBrowser(BrowserSession session, CycleDeadline deadline) throws InterruptedException {
+        WebDriver driver = session.getDriver();
+        int attempt = 1;
+        retryBudget.recordRequest();
+
+        while (true) {
+            hostBreaker.acquire();
             try {
-                logger.info("Loading URL: " + signalUrl + " (Attempt " + (currentTry + 1) + " of " + maxRetries + ")");
-                
+                logger.info("Loading URL: " + signalUrl + " (Attempt " + attempt + " of " + resilience.getMaxAttempts() + ")");
+
                 // Überprüfe Login-Status vor dem Laden der Seite
-                if (!isLoggedIn) {
-                    logger.info("User not logged in, performing login first...");
-                    performLogin();
-                }
-                
+                session.ensureLoggedIn();
+
                 // Cache leeren und neu laden erzwingen
                 ((JavascriptExecutor) driver).executeScript("window.localStorage.clear();");
                 ((JavascriptExecutor) driver).executeScript("window.sessionStorage.clear();");
-                
+
                 // Setze Cache-Control Header
                 String urlWithTimestamp = signalUrl + (signalUrl.contains("?") ? "&" : "?") + "nocache=" + System.currentTimeMillis();
-                
-                // Füge kleine Verzögerung hinzu
-                Thread.sleep(2000);
-                
+
                 // Setze Page Load Timeout
                 driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
-                
+
                 // Lade die Seite
+                long phaseStart = System.nanoTime();
                 driver.get(urlWithTimestamp);
-                
-                // Warte auf die Tabelle mit den Trade-Daten mit erhöhtem Timeout
-                wait = new WebDriverWait(driver, Duration.ofSeconds(90));
-                wait.until(ExpectedConditions.presenceOfElementLocated(
-                    By.cssSelector("td[data-label='Type']")
-                ));
-                
-                // Zusätzliche Wartezeit für dynamische Inhalte
-                Thread.sleep(3000);
-                
-                // Prüfe auf Trade-Signale
-                String pageSource = driver.getPageSource();
-                boolean hasSignals = containsTradeSignal(pageSource);
-                if (!hasSignals) {
-                    logger.info("No trade signals found - page not saved");
-                    return null;
+                metrics.timer("navigation", providerName).recordSince(phaseStart);
+
+                // Warte, bis die Tabelle steht, die Seite keine Trades meldet oder das Login-Formular erscheint;
+                // der Timeout folgt den bisherigen Ladezeiten dieses Signals
+                PageReadiness.Result ready;
+                try {
+                    ready = PageReadiness.awaitSignalPage(driver, deadline.cap(loadTime.timeout()));
+                } catch (TimeoutException e) {
+                    loadTime.recordTimeout();
+                    throw e;
                 }
-                logger.info("Trade signals found - saving page...");
-                
-                String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-                String fileName = baseDir + File.separator + providerName + File.separator + timestamp + ".html";
-                
-                // Speichere die Seite
-                try (FileWriter writer = new FileWriter(fileName)) {
-                    writer.write(pageSource);
+                recordReadiness(ready);
+                if (ready.getState() == PageReadiness.State.LOGIN_FORM) {
+                    throw new SessionExpiredException("Redirected to login page");
                 }
-                
-                logger.info("Webpage saved successfully: " + fileName);
-                return fileName;
-                
-            } catch (Exception e) {
-                currentTry++;
-                logger.error("Error saving webpage (Attempt " + currentTry + " of " + maxRetries + ")", e);
-                
-                if (currentTry >= maxRetries) {
-                    throw new RuntimeException("Failed to save webpage after " + maxRetries + " attempts", e);
+                hostBreaker.onSuccess();
+
+                // Erst nur die Prüfsumme der Tabelle holen, die ganze Seite nur bei Änderungen
+                phaseStart = System.nanoTime();
+                String tableDigest = tableDigest(driver);
+                metrics.timer("table_digest", providerName).recordSince(phaseStart);
+                if (tableDigest != null && tableDigest.equals(lastTableDigest)) {
+                    return new PageFetch(null, tableDigest);
                 }
-                
-                // Wenn der Fehler aufgrund eines Login-Problems auftritt, setze isLoggedIn zurück
-                if (e.getMessage().contains("auth_login") || 
-                    (driver != null && driver.getCurrentUrl().contains("auth_login"))) {
-                    isLoggedIn = false;
+
+                phaseStart = System.nanoTime();
+                String pageSource = driver.getPageSource();
+                metrics.timer("page_source", providerName).recordSince(phaseStart);
+                return new PageFetch(pageSource, tableDigest);
+
+            } catch (NoSuchWindowException e) {
+                recordFailure(e, null);
+                throw e;
+            } catch (InterruptedException | CycleTimeoutException | CircuitOpenException e) {
+                throw e;
+            } catch (Exception e) {
+                if (deadline.isExpired()) {
+                    throw deadline.timeout();
                 }
-                
-                try {
-                    // Warte vor dem nächsten Versuch
-                    Thread.sleep(5000);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    break;
+                FailureKind kind = recordFailure(e, currentUrl(driver));
+                logger.error("Error loading webpage (" + kind + ", attempt " + attempt + " of " + resilience.getMaxAttempts() + ")", e);
+                // Nur ein abgelaufener Login führt zum erneuten Einloggen, eine langsame Seite nicht
+                if (kind.needsLogin()) {
+                    session.invalidateLogin();
                 }
+                beforeRetry(e, kind, attempt, deadline);
+                attempt++;
             }
         }
-        
-        throw new RuntimeException("Failed to save webpage after " + maxRetries + " attempts");
     }
 
-    private boolean containsTradeSignal(String content) {
-        Pattern pattern = Pattern.compile("<td[^>]*data-label=\"Type\"[^>]*>(Buy|Sell|Buy Stop|Sell Stop)</td>");
-        Matcher matcher = pattern.matcher(content);
-        return matcher.find();
+    private FailureKind recordFailure(Exception failure, String currentUrl) {
+        FailureKind kind = FailureKind.classify(failure, currentUrl);
+        hostBreaker.onFailure(kind);
+        metrics.counter("fetch_failures", providerName).increment();
+        metrics.counter(kind.metricName(), providerName).increment();
+        return kind;
     }
 
-    public void startMonitoring() {
-        try {
-            if (!initialLoginDone) {
-                logger.info("Starting monitoring for Signal Provider ID: " + providerName);
-                performLogin();
-                initialLoginDone = true;
-                
-                String fileName = saveWebPage();
-                if (fileName != null) {
-                    analyzer.analyzeHtmlFile(fileName);
-                }
-            }
-            
-        } catch (Exception e) {
-            logger.error("Initial login failed", e);
-            showErrorDialog("Login fehlgeschlagen", 
-                "Der Login konnte nicht durchgeführt werden. Bitte überprüfen Sie Ihre Zugangsdaten und starten Sie das Programm neu.");
-            return;
+    // Wirft, wenn keine Wiederholung mehr erlaubt ist, sonst wird vor dem nächsten Versuch gewartet.
+    // Nach abgelaufenem Login wird sofort neu eingeloggt, ohne Backoff.
+    private void beforeRetry(Exception failure, FailureKind kind, int attempt, CycleDeadline deadline)
+            throws InterruptedException {
+        if (attempt >= resilience.getMaxAttempts()) {
+            throw new RuntimeException("Failed to load webpage after " + attempt + " attempts", failure);
         }
-        
-        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-        
-        Runnable task = () -> {
-            try {
-                String fileName = saveWebPage();
-                if (fileName != null) {
-                    analyzer.analyzeHtmlFile(fileName);
-                }
-            } catch (NoSuchWindowException e) {
-                logger.error("Browser window was closed", e);
-                logger.info("Please restart the application to perform a new login");
-                stopMonitoring();
-            } catch (Exception e) {
-                logger.error("Error in monitoring task", e);
-                // Versuche einen erneuten Login beim nächsten Durchlauf
-                isLoggedIn = false;
-            }
-        };
-
-        // Berechne Zeit bis zum nächsten definierten Intervall
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime nextRun;
-
-        int currentMinute = now.getMinute();
-        int[] checkMinutes = {14, 29, 44, 59};
-        
-        // Finde das nächste Intervall
-        int nextMinute = -1;
-        for (int checkMinute : checkMinutes) {
-            if (currentMinute < checkMinute || 
-                (currentMinute == checkMinute && now.getSecond() < 45)) {
-                nextMinute = checkMinute;
-                break;
-            }
+        if (!retryBudget.tryAcquireRetry()) {
+            metrics.counter("retry_budget_exhausted", providerName).increment();
+            throw new RuntimeException("Retry budget of Signal Provider " + providerName + " exhausted", failure);
         }
-        
-        // Wenn kein nächstes Intervall in dieser Stunde gefunden wurde,
-        // nehme das erste Intervall der nächsten Stunde
-        if (nextMinute == -1) {
-            nextRun = now.plusHours(1)
-                        .withMinute(14)
-                        .withSecond(45)
-                        .withNano(0);
-        } else {
-            nextRun = now.withMinute(nextMinute)
-                        .withSecond(45)
-                        .withNano(0);
+        metrics.counter("retries", providerName).increment();
+        if (!kind.needsLogin()) {
+            deadline.sleep(resilience.getBackoff().delay(attempt).toMillis());
         }
+    }
 
-        long initialDelay = java.time.Duration.between(now, nextRun).toMillis();
-        
-        logger.info("Scheduled next check for Signal Provider " + providerName + " at: " + 
-            nextRun.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-        scheduler.scheduleAtFixedRate(task, initialDelay, 15 * 60 * 1000, TimeUnit.MILLISECONDS);
+    private static String currentUrl(WebDriver driver) {
+        try {
+            return driver.getCurrentUrl();
+        } catch (RuntimeException e) {
+            return null;
+        }
     }
-    
-    private void showErrorDialog(String title, String message) {
-        SwingUtilities.invokeLater(() -> {
-            JOptionPane.showMessageDialog(null,
-                message,
-                title,
-                JOptionPane.ERROR_MESSAGE);
-            System.exit(1);
-        });
+
+    // element_wait: tatsächlich gewartet, page_ready: bis die Seite fertig war; die Differenz ist der Aufschlag
+    // durch Abfrageintervall und Stabilitätsprüfung (vorher fest 2 s + 3 s)
+    private void recordReadiness(PageReadiness.Result ready) {
+        metrics.timer("element_wait", providerName).recordNanos(ready.getWaitedNanos());
+        metrics.timer("page_ready", providerName).recordNanos(ready.getReadyNanos());
+        loadTime.record(ready.getReadyNanos());
+        logger.debug("Signal Provider " + providerName + " page ready (" + ready.getState() + ") after "
+            + ready.getReadyNanos() / 1_000_000 + "ms, waited " + ready.getWaitedNanos() / 1_000_000
+            + "ms, next timeout " + loadTime.timeout().toMillis() + "ms");
     }
-    
-    public void stopMonitoring() {
-        if (driver != null) {
-            try {
-                logger.info("Closing WebDriver...");
-                driver.quit();
-                logger.info("WebDriver closed successfully");
-            } catch (Exception e) {
-                logger.error("Error closing WebDriver", e);
-            }
+
+    private String tableDigest(WebDriver driver) {
+        try {
+            Object digest = ((JavascriptExecutor) driver).executeScript(TABLE_DIGEST_SCRIPT);
+            return digest instanceof String ? (String) digest : null;
+        } catch (JavascriptException e) {
+            // Ohne Prüfsumme wird einfach die ganze Seite verarbeitet
+            logger.warn("Could not compute trade table digest: " + e.getMessage());
+            return null;
         }
     }
-}
\ No newline at end of file
+
+    static boolean containsTradeSignal(String content) {
+        return TRADE_SIGNAL_PATTERN.matcher(content).find();
+    }
+}
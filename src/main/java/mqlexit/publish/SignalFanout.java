@@ -0,0 +1,91 @@
+package publish;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import logging.LoggerManagerE;
+
+// Veröffentlicht die signal.txt eines Signals im Signalverzeichnis und zusätzlich in weiteren Zielverzeichnissen,
+// z.B. den Files-Verzeichnissen mehrerer MT4/MT5-Terminals. Der Inhalt wird einmal erzeugt; die Ziele werden
+// parallel und unabhängig voneinander beschrieben, ein langsames oder nicht erreichbares Ziel hält weder die
+// anderen noch den Abruf auf. Die Haupt-Datei wird wie bisher direkt geschrieben.
+public class SignalFanout {
+    // Gemeinsam für alle Signale; pro Ziel ist höchstens ein Thread beschäftigt, ein hängendes Netzlaufwerk
+    // blockiert also nur sich selbst
+    private static final ExecutorService WRITERS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "signal-target");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ScheduledExecutorService RETRIES = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "signal-target-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final SignalFilePublisher primary;
+    private final List<SignalTarget> targets = new ArrayList<>();
+
+    public SignalFanout(String signalId, Path signalFile, List<String> targetDirs) {
+        this.primary = new SignalFilePublisher(signalFile);
+        for (String targetDir : targetDirs) {
+            Path targetFile = Path.of(targetDir).resolve(signalFile.getFileName());
+            if (targetFile.toAbsolutePath().normalize().equals(signalFile.toAbsolutePath().normalize())) {
+                continue;
+            }
+            targets.add(new SignalTarget(targetFile, signalId + "/" + metricName(targetDir), WRITERS, RETRIES));
+            LoggerManagerE.info("Signal file of " + signalId + " is also published to " + targetFile);
+        }
+        syncTargets();
+    }
+
+    public Path getSignalFile() {
+        return primary.getSignalFile();
+    }
+
+    // Die Ziele bekommen den Inhalt zuerst, damit sie parallel zur Haupt-Datei geschrieben werden.
+    // Ein Fehler beim Schreiben der Haupt-Datei wird geworfen, Fehler der Ziele nur geloggt und gezählt.
+    public void publish(byte[] content) throws IOException {
+        for (SignalTarget target : targets) {
+            target.offer(content);
+        }
+        primary.publish(content);
+    }
+
+    // Ein Ziel, das beim letzten Lauf nicht mehr beschrieben wurde, bekäme bis zur nächsten Änderung nichts
+    private void syncTargets() {
+        if (targets.isEmpty() || !Files.exists(primary.getSignalFile())) {
+            return;
+        }
+        try {
+            byte[] current = Files.readAllBytes(primary.getSignalFile());
+            for (SignalTarget target : targets) {
+                target.syncWith(current);
+            }
+        } catch (IOException e) {
+            LoggerManagerE.error("Failed to read signal file for its targets: " + e.getMessage());
+        }
+    }
+
+    // Pfade enthalten Zeichen wie \ und :, die in den Metriknamen nichts zu suchen haben
+    private static String metricName(String targetDir) {
+        StringBuilder name = new StringBuilder(targetDir.length());
+        for (int i = 0; i < targetDir.length(); i++) {
+            char c = targetDir.charAt(i);
+            boolean plain = c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '.'
+                || c == '-';
+            if (plain) {
+                name.append(c);
+            } else if (name.length() > 0 && name.charAt(name.length() - 1) != '_') {
+                name.append('_');
+            }
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,150 @@
+package publish;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import logging.LoggerManagerE;
+
+// Veröffentlicht signal.txt über Temp-Datei + atomaren Move: der EA sieht immer die komplette alte oder neue Datei
+public class SignalFilePublisher {
+    private static final DateTimeFormatter BACKUP_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final int MAX_OLD_SIGNALS = 100;
+    private static final int MOVE_ATTEMPTS = 5;
+
+    // Archiv-Kopien und Aufräumen laufen für alle Signale gemeinsam außerhalb des Abrufs
+    private static final ExecutorService HOUSEKEEPING = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "signal-housekeeping");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path signalFile;
+    private final Path oldSignalsDir;
+    private final boolean archive;
+    private byte[] lastContent;
+
+    public SignalFilePublisher(Path signalFile) {
+        this(signalFile, true);
+    }
+
+    // Ohne archive keine Sicherung in oldsignals, z.B. für weitere Ziele derselben signal.txt
+    public SignalFilePublisher(Path signalFile, boolean archive) {
+        this.signalFile = signalFile;
+        this.oldSignalsDir = signalFile.resolveSibling("oldsignals");
+        this.archive = archive;
+    }
+
+    public Path getSignalFile() {
+        return signalFile;
+    }
+
+    public synchronized void publish(byte[] content) throws IOException {
+        if (archive && Files.exists(signalFile)) {
+            archiveCurrent();
+        }
+
+        Path tempFile = Files.createTempFile(signalFile.getParent(), signalFile.getFileName() + ".", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            moveIntoPlace(tempFile);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        lastContent = content;
+        LoggerManagerE.info("Signal file written: " + signalFile);
+    }
+
+    private void moveIntoPlace(Path tempFile) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Files.move(tempFile, signalFile, StandardCopyOption.ATOMIC_MOVE);
+                return;
+            } catch (AtomicMoveNotSupportedException e) {
+                LoggerManagerE.warn("Atomic move not supported for " + signalFile + ", replacing file instead");
+                Files.move(tempFile, signalFile, StandardCopyOption.REPLACE_EXISTING);
+                return;
+            } catch (AccessDeniedException e) {
+                // Unter Windows kann der EA die Datei kurz geöffnet halten
+                if (attempt >= MOVE_ATTEMPTS) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(50L * attempt);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // Sichert die aktuelle signal.txt als Hardlink in oldsignals, ohne Daten zu kopieren
+    private void archiveCurrent() {
+        Path backupFile = oldSignalsDir.resolve("signal_" + LocalDateTime.now().format(BACKUP_TIME_FORMAT) + ".txt");
+        try {
+            Files.createDirectories(oldSignalsDir);
+            Files.deleteIfExists(backupFile);
+            Files.createLink(backupFile, signalFile);
+        } catch (IOException | UnsupportedOperationException e) {
+            // Ohne Hardlinks wird der zuletzt geschriebene Inhalt im Hintergrund geschrieben
+            byte[] previous = lastContent;
+            if (previous == null) {
+                try {
+                    previous = Files.readAllBytes(signalFile);
+                } catch (IOException readError) {
+                    LoggerManagerE.error("Failed to read old signal file: " + readError.getMessage());
+                    return;
+                }
+            }
+            byte[] backupContent = previous;
+            HOUSEKEEPING.execute(() -> writeBackup(backupFile, backupContent));
+        }
+        HOUSEKEEPING.execute(() -> cleanupOldSignals(oldSignalsDir.toFile(), MAX_OLD_SIGNALS));
+    }
+
+    private static void writeBackup(Path backupFile, byte[] content) {
+        try {
+            Files.write(backupFile, content);
+            LoggerManagerE.info("Copied old signal file to: " + backupFile);
+        } catch (IOException e) {
+            LoggerManagerE.error("Failed to back up old signal file: " + e.getMessage());
+        }
+    }
+
+    private static void cleanupOldSignals(File directory, int maxFiles) {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith("signal_") && name.endsWith(".txt"));
+        if (files != null && files.length > maxFiles) {
+            // Sortiere Dateien nach Änderungsdatum (älteste zuerst)
+            Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+
+            // Lösche die ältesten Dateien bis nur noch maxFiles übrig sind
+            for (int i = 0; i < files.length - maxFiles; i++) {
+                if (files[i].delete()) {
+                    LoggerManagerE.info("Deleted old signal file: " + files[i].getName());
+                } else {
+                    LoggerManagerE.error("Failed to delete old signal file: " + files[i].getName());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package publish;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import logging.LoggerManagerE;
+import metrics.MetricsRegistry;
+
+// Ein weiteres Ziel einer signal.txt, z.B. das Files-Verzeichnis eines Terminals. Pro Ziel läuft höchstens ein
+// Schreibvorgang; kommt währenddessen neuer Inhalt, wird nur der neueste nachgeschrieben. Fehlgeschlagene
+// Schreibvorgänge werden mit wachsendem Abstand wiederholt, solange kein neuerer Inhalt vorliegt.
+final class SignalTarget {
+    private static final long FIRST_RETRY_MILLIS = 500;
+    private static final long MAX_RETRY_MILLIS = 30_000;
+
+    // Inhalt mit dem Zeitpunkt, zu dem er veröffentlicht werden sollte
+    private static final class Pending {
+        final byte[] content;
+        final long offeredAt;
+        // Gesetzt, bevor ein fehlgeschlagener Inhalt wieder eingestellt wird, über pending sichtbar
+        boolean attempted;
+
+        Pending(byte[] content, long offeredAt) {
+            this.content = content;
+            this.offeredAt = offeredAt;
+        }
+    }
+
+    private final SignalFilePublisher publisher;
+    private final String metricLabel;
+    private final ExecutorService writers;
+    private final ScheduledExecutorService retries;
+    private final AtomicReference<Pending> pending = new AtomicReference<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+    // Nur vom jeweils schreibenden Thread benutzt
+    private long retryMillis = FIRST_RETRY_MILLIS;
+
+    SignalTarget(Path signalFile, String metricLabel, ExecutorService writers, ScheduledExecutorService retries) {
+        this(new SignalFilePublisher(signalFile, false), metricLabel, writers, retries);
+    }
+
+    SignalTarget(SignalFilePublisher publisher, String metricLabel, ExecutorService writers,
+            ScheduledExecutorService retries) {
+        this.publisher = publisher;
+        this.metricLabel = metricLabel;
+        this.writers = writers;
+        this.retries = retries;
+    }
+
+    Path getSignalFile() {
+        return publisher.getSignalFile();
+    }
+
+    void offer(byte[] content) {
+        offer(new Pending(content, System.nanoTime()));
+    }
+
+    // Nach einem Neustart: Ziele, die den zuletzt veröffentlichten Inhalt nicht haben, werden nachgezogen
+    void syncWith(byte[] content) {
+        long offeredAt = System.nanoTime();
+        writers.execute(() -> {
+            try {
+                Path signalFile = publisher.getSignalFile();
+                if (Files.exists(signalFile) && Arrays.equals(Files.readAllBytes(signalFile), content)) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Nicht lesbar, dann eben neu schreiben
+            }
+            pending.compareAndSet(null, new Pending(content, offeredAt));
+            drain();
+        });
+    }
+
+    private void offer(Pending next) {
+        Pending replaced = pending.getAndSet(next);
+        if (replaced != null && !replaced.attempted) {
+            // Der vorige Inhalt wurde nie geschrieben, weil das Ziel noch mit einem älteren beschäftigt war.
+            // Ein fehlgeschlagener, der auf seine Wiederholung wartet, zählt nicht.
+            MetricsRegistry.get().counter("signal_target_skipped", metricLabel).increment();
+        }
+        if (running.compareAndSet(false, true)) {
+            writers.execute(this::write);
+        }
+    }
+
+    private void drain() {
+        if (running.compareAndSet(false, true)) {
+            write();
+        }
+    }
+
+    private void write() {
+        while (true) {
+            Pending next = pending.getAndSet(null);
+            if (next == null) {
+                running.set(false);
+                // Zwischen dem Leeren und dem Freigeben kann neuer Inhalt gekommen sein
+                if (pending.get() == null || !running.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                // Bei mehreren Signalen bekommt jedes in einem gemeinsamen Ziel ein eigenes Unterverzeichnis
+                Files.createDirectories(publisher.getSignalFile().getParent());
+                publisher.publish(next.content);
+                // Gemessen ab der Veröffentlichung der Haupt-Datei, inklusive Wartezeit auf das Ziel
+                MetricsRegistry.get().timer("signal_target_write", metricLabel).recordSince(next.offeredAt);
+                retryMillis = FIRST_RETRY_MILLIS;
+            } catch (IOException | RuntimeException e) {
+                MetricsRegistry.get().counter("signal_target_failures", metricLabel).increment();
+                LoggerManagerE.error("Failed to publish signal file to " + publisher.getSignalFile() + ": "
+                    + e.getMessage() + ", retrying in " + retryMillis + " ms");
+                // Ein neuerer Inhalt ersetzt den fehlgeschlagenen, dann ohne Wartezeit weiter
+                next.attempted = true;
+                if (pending.compareAndSet(null, next)) {
+                    running.set(false);
+                    // Zwischen dem Einstellen und dem Freigeben kann neuer Inhalt gekommen sein; dessen offer()
+                    // hat keinen Schreibvorgang gestartet, weil dieser noch lief
+                    if (pending.get() != next && running.compareAndSet(false, true)) {
+                        continue;
+                    }
+                    long delay = retryMillis;
+                    retryMillis = Math.min(retryMillis * 2, MAX_RETRY_MILLIS);
+                    retries.schedule(() -> writers.execute(this::drain), delay, TimeUnit.MILLISECONDS);
+                    return;
+                }
+            }
+        }
+    }
+}
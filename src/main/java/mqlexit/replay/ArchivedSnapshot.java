@@ -0,0 +1,28 @@
+package replay;
+
+import java.io.IOException;
+import java.util.List;
+
+import analyzer.TradeRow;
+
+// Eine archivierte Seite beim Nachspielen. position ist sortierbar wie die Zeit (Dateiname oder
+// Zeitstempel im gepackten Archiv), contentKey fasst Abrufe mit identischem Inhalt zusammen.
+final class ArchivedSnapshot {
+    interface Loader {
+        CharSequence load() throws IOException;
+    }
+
+    final String position;
+    final long observedAt;
+    final String contentKey;
+    final Loader loader;
+    // Nach dem Parsen gesetzt, null ohne Trade-Tabelle
+    List<TradeRow> trades;
+
+    ArchivedSnapshot(String position, long observedAt, String contentKey, Loader loader) {
+        this.position = position;
+        this.observedAt = observedAt;
+        this.contentKey = contentKey;
+        this.loader = loader;
+    }
+}
@@ -0,0 +1,341 @@
+package replay;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import analyzer.TradeAnalyzer;
+import analyzer.TradeRow;
+import analyzer.TradeTableParser;
+import archive.PackedArchiveReader;
+import archive.PackedSnapshot;
+import journal.JournalEntry;
+import journal.JournalExport;
+import journal.TradeJournal;
+import logging.LoggerManagerE;
+import metrics.MetricsRegistry;
+
+// Spielt archivierte Seiten (baseDir/<Signal>/yyyyMMdd_HHmmss.html oder gepackt) nach und baut daraus die Trade-Historie auf.
+// Geparst wird parallel auf einem Fork-Join-Pool in Blöcken von chunkSize Dateien, ausgewertet danach der Reihe
+// nach. Nach jedem Block wird die letzte Datei als Checkpoint gespeichert, ein erneuter Lauf setzt dort fort.
+public class ReplayRunner {
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("\\d{8}_\\d{6}\\.html");
+    private static final DateTimeFormatter FILE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final DateTimeFormatter PACKED_POSITION_FORMAT =
+        DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss.SSS").withZone(ZoneId.systemDefault());
+    private static final String STATE_FILE = "replay_state.txt";
+    private static final String RESULT_FILE = "replay_events.csv";
+
+    private final Path archiveDir;
+    private final Path outputDir;
+    private final int parallelism;
+    private final int chunkSize;
+    private final AtomicLong processedFiles = new AtomicLong();
+
+    public ReplayRunner(Path archiveDir, Path outputDir, int parallelism, int chunkSize) {
+        this.archiveDir = archiveDir;
+        this.outputDir = outputDir;
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    // Liefert die Anzahl der in diesem Lauf verarbeiteten Dateien
+    public long run() throws IOException {
+        List<String> providers = findProviders();
+        LoggerManagerE.info("Replaying archived pages of " + providers.size() + " Signal Provider(s) from " + archiveDir
+            + " with " + parallelism + " thread(s)");
+        Files.createDirectories(outputDir);
+        long start = System.nanoTime();
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (PackedArchiveReader packedArchive = new PackedArchiveReader(archiveDir)) {
+            List<RecursiveAction> tasks = new ArrayList<>();
+            for (String provider : providers) {
+                tasks.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        try {
+                            replayProvider(provider, packedArchive);
+                        } catch (IOException e) {
+                            LoggerManagerE.error("Replay of Signal Provider " + provider + " failed: " + e.getMessage());
+                        }
+                    }
+                });
+            }
+            // Signale laufen nebeneinander, innerhalb eines Signals wird blockweise parallel geparst
+            pool.submit(() -> ForkJoinTask.invokeAll(tasks)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Replay interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Replay failed: " + e.getCause(), e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        LoggerManagerE.info("Replayed " + processedFiles.get() + " file(s) in " + elapsedMillis + " ms ("
+            + (processedFiles.get() * 60_000 / elapsedMillis) + " files/min)");
+        writeConsolidatedResult(providers);
+        return processedFiles.get();
+    }
+
+    private List<String> findProviders() throws IOException {
+        List<String> providers = new ArrayList<>();
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(archiveDir, Files::isDirectory)) {
+            for (Path dir : dirs) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.{html,idx}")) {
+                    if (files.iterator().hasNext()) {
+                        providers.add(dir.getFileName().toString());
+                    }
+                }
+            }
+        }
+        Collections.sort(providers);
+        return providers;
+    }
+
+    private void replayProvider(String provider, PackedArchiveReader packedArchive) throws IOException {
+        Path providerOutput = outputDir.resolve(provider);
+        Files.createDirectories(providerOutput);
+        try (TradeJournal journal = TradeJournal.open(providerOutput.resolve("journal"))) {
+            TradeAnalyzer analyzer = TradeAnalyzer.forReplay(journal, provider,
+                providerOutput.resolve(STATE_FILE).toString());
+            String checkpoint = analyzer.getCheckpoint();
+            if (checkpoint != null) {
+                LoggerManagerE.info("Resuming replay of " + provider + " after " + checkpoint);
+            } else {
+                LoggerManagerE.info("Replaying snapshots of " + provider);
+            }
+
+            // Tag für Tag, damit nie mehr als ein Tag plus ein angefangener Block im Speicher liegt
+            Map<LocalDate, List<Path>> htmlFiles = listHtmlFiles(provider, checkpoint);
+            Set<LocalDate> packedDays = new HashSet<>(packedArchive.days(provider));
+            NavigableSet<LocalDate> days = new TreeSet<>(htmlFiles.keySet());
+            days.addAll(packedDays);
+            if (checkpoint != null) {
+                days = days.tailSet(LocalDate.parse(checkpoint.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE), true);
+            }
+            long snapshotCount = 0;
+            int changes = 0;
+            List<ArchivedSnapshot> pending = new ArrayList<>();
+            for (LocalDate day : days) {
+                List<ArchivedSnapshot> snapshots = listSnapshots(provider, htmlFiles.getOrDefault(day, List.of()),
+                    packedDays.contains(day) ? packedArchive : null, day, checkpoint);
+                snapshotCount += snapshots.size();
+                snapshots.addAll(0, pending);
+                int from = 0;
+                for (; from + chunkSize <= snapshots.size(); from += chunkSize) {
+                    changes += replayChunk(provider, analyzer, snapshots.subList(from, from + chunkSize));
+                }
+                pending = new ArrayList<>(snapshots.subList(from, snapshots.size()));
+            }
+            if (!pending.isEmpty()) {
+                changes += replayChunk(provider, analyzer, pending);
+            }
+            LoggerManagerE.info("Replay of " + provider + " finished: " + snapshotCount + " snapshot(s), "
+                + changes + " trade event(s)");
+        }
+    }
+
+    // Parst einen Block und wertet ihn aus, danach ist sein letzter Stand der Checkpoint
+    private int replayChunk(String provider, TradeAnalyzer analyzer, List<ArchivedSnapshot> chunk) throws IOException {
+        parseChunk(provider, chunk);
+        int changes = 0;
+        // Die Auswertung muss in Zeitreihenfolge laufen, weil jeder Stand mit dem vorherigen verglichen wird
+        for (ArchivedSnapshot snapshot : chunk) {
+            if (snapshot.trades != null) {
+                changes += analyzer.analyzeTrades(snapshot.trades, snapshot.observedAt, snapshot.position)
+                    .getChanges().size();
+            }
+            snapshot.trades = null;
+        }
+        analyzer.checkpoint(chunk.get(chunk.size() - 1).position);
+        processedFiles.addAndGet(chunk.size());
+        MetricsRegistry.get().counter("replay_files", provider).add(chunk.size());
+        return changes;
+    }
+
+    // Einzelne HTML-Dateien nach dem Checkpoint, nach Tag gruppiert; nur die Pfade, geladen wird später
+    private Map<LocalDate, List<Path>> listHtmlFiles(String provider, String after) throws IOException {
+        Map<LocalDate, List<Path>> filesByDay = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(archiveDir.resolve(provider))) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (!SNAPSHOT_NAME.matcher(name).matches() || (after != null && name.compareTo(after) <= 0)) {
+                    continue;
+                }
+                try {
+                    LocalDate day = LocalDateTime.parse(name.substring(0, 15), FILE_TIME_FORMAT).toLocalDate();
+                    filesByDay.computeIfAbsent(day, k -> new ArrayList<>()).add(file);
+                } catch (DateTimeParseException e) {
+                    LoggerManagerE.warn("Skipping archive file with invalid time: " + name);
+                }
+            }
+        }
+        return filesByDay;
+    }
+
+    // Einzelne HTML-Dateien und das gepackte Archiv eines Tages zusammen, zeitlich sortiert: Dateinamen und
+    // Zeitstempel im gepackten Archiv haben dasselbe sortierbare Format
+    // packedArchive ist null, wenn es für den Tag kein gepacktes Archiv gibt
+    private List<ArchivedSnapshot> listSnapshots(String provider, List<Path> htmlFiles,
+            PackedArchiveReader packedArchive, LocalDate day, String after) throws IOException {
+        List<ArchivedSnapshot> snapshots = new ArrayList<>();
+        for (Path file : htmlFiles) {
+            String name = file.getFileName().toString();
+            long observedAt = LocalDateTime.parse(name.substring(0, 15), FILE_TIME_FORMAT)
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            // Die Seiten wurden im Standard-Zeichensatz archiviert
+            snapshots.add(new ArchivedSnapshot(name, observedAt, null,
+                () -> new String(Files.readAllBytes(file), Charset.defaultCharset())));
+        }
+        if (packedArchive != null) {
+            for (PackedSnapshot packed : packedArchive.snapshots(provider, day)) {
+                String position = PACKED_POSITION_FORMAT.format(Instant.ofEpochMilli(packed.getFetchedAt()));
+                if (after == null || position.compareTo(after) > 0) {
+                    snapshots.add(new ArchivedSnapshot(position, packed.getFetchedAt(), packed.getContentKey(),
+                        () -> packedArchive.load(packed)));
+                }
+            }
+        }
+        snapshots.sort(Comparator.comparing(snapshot -> snapshot.position));
+        return snapshots;
+    }
+
+    // Parst alle Seiten eines Blocks parallel, Abrufe mit identischem Inhalt nur einmal
+    private void parseChunk(String provider, List<ArchivedSnapshot> chunk) {
+        Map<String, ArchivedSnapshot> firstByContent = new HashMap<>();
+        List<ArchivedSnapshot> unique = new ArrayList<>(chunk.size());
+        for (ArchivedSnapshot snapshot : chunk) {
+            if (snapshot.contentKey == null || firstByContent.putIfAbsent(snapshot.contentKey, snapshot) == null) {
+                unique.add(snapshot);
+            }
+        }
+        List<RecursiveAction> tasks = new ArrayList<>(unique.size());
+        for (ArchivedSnapshot snapshot : unique) {
+            tasks.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    parseSnapshot(provider, snapshot);
+                }
+            });
+        }
+        ForkJoinTask.invokeAll(tasks);
+        for (ArchivedSnapshot snapshot : chunk) {
+            if (snapshot.contentKey != null) {
+                snapshot.trades = firstByContent.get(snapshot.contentKey).trades;
+            }
+        }
+    }
+
+    private static void parseSnapshot(String provider, ArchivedSnapshot snapshot) {
+        long parseStart = System.nanoTime();
+        try {
+            List<TradeRow> trades = new ArrayList<>();
+            int found = new TradeTableParser().parse(snapshot.loader.load(), trades::add);
+            MetricsRegistry.get().timer("replay_parse", provider).recordSince(parseStart);
+            snapshot.trades = found == TradeTableParser.NO_TABLE ? null : trades;
+        } catch (IOException e) {
+            LoggerManagerE.warn("Skipping unreadable archived page " + snapshot.position + ": " + e.getMessage());
+        }
+    }
+
+    // Alle Ereignisse aller Signale zeitlich sortiert in einer CSV-Datei. Die Journale sind in sich schon
+    // sortiert, daher werden sie nur zusammengeführt; von jedem Journal liegt immer nur ein Eintrag im Speicher.
+    private void writeConsolidatedResult(List<String> providers) throws IOException {
+        List<TradeJournal> journals = new ArrayList<>();
+        // Bei gleicher Zeit zuerst das Signal mit dem kleineren Namen, innerhalb eines Journals die Reihenfolge darin
+        PriorityQueue<JournalHead> heads = new PriorityQueue<>(Comparator
+            .comparingLong((JournalHead head) -> head.entry.getObservedAt())
+            .thenComparingInt(head -> head.order));
+        Path resultFile = outputDir.resolve(RESULT_FILE);
+        long written = 0;
+        try {
+            for (String provider : providers) {
+                Path journalDir = outputDir.resolve(provider).resolve("journal");
+                if (Files.isDirectory(journalDir)) {
+                    TradeJournal journal = TradeJournal.openReadOnly(journalDir);
+                    journals.add(journal);
+                    JournalHead head = new JournalHead(journal.cursor(null, Long.MIN_VALUE, Long.MAX_VALUE),
+                        journals.size());
+                    if (head.advance()) {
+                        heads.add(head);
+                    }
+                }
+            }
+
+            StringBuilder line = new StringBuilder(160);
+            try (Writer writer = Files.newBufferedWriter(resultFile, StandardCharsets.UTF_8)) {
+                writer.write(JournalExport.CSV_HEADER);
+                writer.write('\n');
+                while (!heads.isEmpty()) {
+                    JournalHead head = heads.poll();
+                    line.setLength(0);
+                    head.entry.appendCsv(line);
+                    line.append('\n');
+                    writer.append(line);
+                    written++;
+                    if (head.advance()) {
+                        heads.add(head);
+                    }
+                }
+            }
+        } finally {
+            for (TradeJournal journal : journals) {
+                journal.close();
+            }
+        }
+        LoggerManagerE.info("Wrote " + written + " trade event(s) to " + resultFile);
+    }
+
+    // Der jeweils nächste Eintrag eines Journals beim Zusammenführen
+    private static final class JournalHead {
+        final TradeJournal.Cursor cursor;
+        final int order;
+        JournalEntry entry;
+
+        JournalHead(TradeJournal.Cursor cursor, int order) {
+            this.cursor = cursor;
+            this.order = order;
+        }
+
+        // false und Cursor geschlossen, wenn das Journal ausgelesen ist
+        boolean advance() throws IOException {
+            entry = cursor.next();
+            if (entry == null) {
+                cursor.close();
+                return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package resilience;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Exponentielle Wartezeit zwischen Wiederholungen mit Jitter: die Hälfte fest, die andere Hälfte zufällig,
+// damit Signale nach einer gemeinsamen Störung nicht im Gleichschritt wiederholen
+public class Backoff {
+    private final long baseMillis;
+    private final long maxMillis;
+
+    public Backoff(Duration base, Duration max) {
+        this.baseMillis = Math.max(1, base.toMillis());
+        this.maxMillis = Math.max(baseMillis, max.toMillis());
+    }
+
+    // retry zählt ab 1
+    public Duration delay(int retry) {
+        int shift = Math.min(Math.max(0, retry - 1), 30);
+        long delay = Math.min(maxMillis, baseMillis << shift);
+        long half = delay / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(delay - half + 1));
+    }
+}
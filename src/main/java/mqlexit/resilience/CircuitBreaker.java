@@ -0,0 +1,104 @@
+package resilience;
+
+import java.time.Duration;
+
+import logging.LoggerManagerE;
+import metrics.MetricsRegistry;
+
+// Nach threshold Fehlern in Folge wird der Host für openDuration nicht mehr angefragt. Danach darf genau
+// ein Probe-Abruf durch: Erfolg schließt den Breaker, ein Fehler öffnet ihn erneut. Fehler, die nicht am
+// Host liegen (abgelaufener Login, verlorenes Fenster), zählen nicht.
+public class CircuitBreaker {
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final String name;
+    private final int threshold;
+    private final long openNanos;
+    private final MetricsRegistry metrics = MetricsRegistry.get();
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private long probeStartedAt;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(String name, int threshold, Duration openDuration) {
+        this.name = name;
+        this.threshold = Math.max(1, threshold);
+        this.openNanos = openDuration.toNanos();
+        metrics.gauge("circuit_state", name, () -> getState().ordinal());
+        metrics.gauge("circuit_consecutive_failures", name, this::getConsecutiveFailures);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public void acquire() {
+        if (!tryAcquire()) {
+            throw new CircuitOpenException(name, retryAfter());
+        }
+    }
+
+    public synchronized boolean tryAcquire() {
+        long now = System.nanoTime();
+        if (state == State.OPEN && now - openedAt >= openNanos) {
+            transition(State.HALF_OPEN);
+            probeInFlight = false;
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        // Ein hängengebliebener Probe-Abruf blockiert den Breaker nicht dauerhaft
+        if (state == State.HALF_OPEN && (!probeInFlight || now - probeStartedAt >= openNanos)) {
+            probeInFlight = true;
+            probeStartedAt = now;
+            return true;
+        }
+        metrics.counter("circuit_rejected", name).increment();
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        if (state != State.CLOSED) {
+            transition(State.CLOSED);
+        }
+    }
+
+    public synchronized void onFailure(FailureKind kind) {
+        if (!kind.countsAgainstHost()) {
+            probeInFlight = false;
+            return;
+        }
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= threshold)) {
+            openedAt = System.nanoTime();
+            probeInFlight = false;
+            transition(State.OPEN);
+            metrics.counter("circuit_opened", name).increment();
+        }
+    }
+
+    private synchronized Duration retryAfter() {
+        return Duration.ofNanos(Math.max(0, openNanos - (System.nanoTime() - openedAt)));
+    }
+
+    private void transition(State next) {
+        LoggerManagerE.info("Circuit " + name + ": " + state + " -> " + next
+            + (next == State.OPEN ? " after " + consecutiveFailures + " failures" : ""));
+        state = next;
+    }
+}
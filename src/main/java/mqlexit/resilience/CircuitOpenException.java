@@ -0,0 +1,12 @@
+package resilience;
+
+import java.time.Duration;
+
+// Abruf abgelehnt, weil der Circuit Breaker des Hosts offen ist
+public class CircuitOpenException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException(String name, Duration retryAfter) {
+        super("Circuit " + name + " is open, next probe in " + retryAfter.getSeconds() + "s");
+    }
+}
@@ -0,0 +1,71 @@
+package resilience;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.TimeoutException;
+
+import browser.SessionExpiredException;
+
+// Art eines fehlgeschlagenen Abrufs; entscheidet, ob neu eingeloggt wird und ob der Fehler dem Host angelastet wird
+public enum FailureKind {
+    // Login abgelaufen oder auf auth_login umgeleitet: neu einloggen, der Host ist nicht schuld
+    SESSION_EXPIRED(true, false),
+    // Seite oder Tabelle kam nicht rechtzeitig
+    PAGE_SLOW(false, true),
+    // Browserfenster oder WebDriver-Session weg: Session ersetzen, der Host ist nicht schuld
+    BROWSER_LOST(false, false),
+    // Alles andere, z.B. Verbindungsfehler oder HTTP 5xx
+    TRANSIENT(false, true);
+
+    private static final String LOGIN_PATH = "auth_login";
+    private static final int MAX_CAUSE_DEPTH = 16;
+
+    private final boolean needsLogin;
+    private final boolean countsAgainstHost;
+
+    FailureKind(boolean needsLogin, boolean countsAgainstHost) {
+        this.needsLogin = needsLogin;
+        this.countsAgainstHost = countsAgainstHost;
+    }
+
+    public boolean needsLogin() {
+        return needsLogin;
+    }
+
+    public boolean countsAgainstHost() {
+        return countsAgainstHost;
+    }
+
+    // currentUrl darf null sein, z.B. im HTTP-Modus oder wenn der Browser nicht mehr antwortet
+    public static FailureKind classify(Throwable failure, String currentUrl) {
+        if (currentUrl != null && currentUrl.contains(LOGIN_PATH)) {
+            return SESSION_EXPIRED;
+        }
+        Throwable cause = failure;
+        for (int depth = 0; cause != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            if (cause instanceof SessionExpiredException) {
+                return SESSION_EXPIRED;
+            }
+            if (cause instanceof NoSuchWindowException || cause instanceof NoSuchSessionException) {
+                return BROWSER_LOST;
+            }
+            if (cause instanceof TimeoutException || cause instanceof HttpTimeoutException
+                    || cause instanceof SocketTimeoutException) {
+                return PAGE_SLOW;
+            }
+            String message = cause.getMessage();
+            if (message != null && message.contains(LOGIN_PATH)) {
+                return SESSION_EXPIRED;
+            }
+            cause = cause.getCause();
+        }
+        return TRANSIENT;
+    }
+
+    public String metricName() {
+        return "failure_" + name().toLowerCase();
+    }
+}
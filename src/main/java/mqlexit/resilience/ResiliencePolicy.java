@@ -0,0 +1,43 @@
+package resilience;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Gemeinsame Einstellungen für Wiederholungen: Backoff und Versuche je Zyklus, Retry-Budget je Signal
+// und ein Circuit Breaker je Host, der von allen Signalen geteilt wird
+public class ResiliencePolicy {
+    private final int maxAttempts;
+    private final Backoff backoff;
+    private final double retryBudgetRatio;
+    private final int retryBudgetBurst;
+    private final int breakerThreshold;
+    private final Duration breakerOpenDuration;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public ResiliencePolicy(int maxAttempts, Backoff backoff, double retryBudgetRatio, int retryBudgetBurst,
+            int breakerThreshold, Duration breakerOpenDuration) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoff = backoff;
+        this.retryBudgetRatio = retryBudgetRatio;
+        this.retryBudgetBurst = retryBudgetBurst;
+        this.breakerThreshold = breakerThreshold;
+        this.breakerOpenDuration = breakerOpenDuration;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public Backoff getBackoff() {
+        return backoff;
+    }
+
+    public RetryBudget newRetryBudget() {
+        return new RetryBudget(retryBudgetRatio, retryBudgetBurst);
+    }
+
+    public CircuitBreaker breakerFor(String host) {
+        return breakers.computeIfAbsent(host, name -> new CircuitBreaker(name, breakerThreshold, breakerOpenDuration));
+    }
+}
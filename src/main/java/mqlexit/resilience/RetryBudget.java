@@ -0,0 +1,32 @@
+package resilience;
+
+// Begrenzt die Wiederholungen eines Signals: jeder Abruf zahlt ratio Token ein, jede Wiederholung kostet
+// eines. Bei einer Dauerstörung bleiben Wiederholungen so ein kleiner Bruchteil der Abrufe, statt jeden
+// Zyklus zu verdreifachen. Der Vorrat startet voll, damit einzelne Aussetzer sofort wiederholt werden.
+public class RetryBudget {
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+
+    public RetryBudget(double ratio, int maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    public synchronized void recordRequest() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    public synchronized boolean tryAcquireRetry() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    public synchronized long availableRetries() {
+        return (long) tokens;
+    }
+}
@@ -0,0 +1,74 @@
+package scheduler;
+
+import java.time.Duration;
+import java.util.Objects;
+
+// Abrufintervalle eines Signals: schnell nach Änderungen, mittel bei offenen Trades, langsam ohne Trades
+public class PollPolicy {
+    private final Duration changedInterval;
+    private final Duration activeInterval;
+    private final Duration idleInterval;
+    private final int fastCyclesAfterChange;
+
+    public PollPolicy(Duration changedInterval, Duration activeInterval, Duration idleInterval, int fastCyclesAfterChange) {
+        if (changedInterval.isNegative() || changedInterval.isZero()
+                || activeInterval.isNegative() || activeInterval.isZero()
+                || idleInterval.isNegative() || idleInterval.isZero()) {
+            throw new IllegalArgumentException("Poll intervals must be positive");
+        }
+        this.changedInterval = changedInterval;
+        this.activeInterval = activeInterval;
+        this.idleInterval = idleInterval;
+        this.fastCyclesAfterChange = Math.max(0, fastCyclesAfterChange);
+    }
+
+    public Duration getChangedInterval() {
+        return changedInterval;
+    }
+
+    public Duration getActiveInterval() {
+        return activeInterval;
+    }
+
+    public Duration getIdleInterval() {
+        return idleInterval;
+    }
+
+    public int getFastCyclesAfterChange() {
+        return fastCyclesAfterChange;
+    }
+
+    // cyclesSinceChange = 0 bedeutet, dass der letzte Durchlauf eine Änderung gefunden hat
+    public Duration nextInterval(int openTrades, int cyclesSinceChange) {
+        if (cyclesSinceChange < fastCyclesAfterChange) {
+            return changedInterval;
+        }
+        return openTrades > 0 ? activeInterval : idleInterval;
+    }
+
+    // Nach Fehlern nicht schneller als bei offenen Trades wiederholen
+    public Duration errorInterval() {
+        return activeInterval;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof PollPolicy)) {
+            return false;
+        }
+        PollPolicy policy = (PollPolicy) other;
+        return changedInterval.equals(policy.changedInterval) && activeInterval.equals(policy.activeInterval)
+            && idleInterval.equals(policy.idleInterval) && fastCyclesAfterChange == policy.fastCyclesAfterChange;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(changedInterval, activeInterval, idleInterval, fastCyclesAfterChange);
+    }
+
+    @Override
+    public String toString() {
+        return "changed=" + changedInterval.getSeconds() + "s, active=" + activeInterval.getSeconds()
+            + "s, idle=" + idleInterval.getSeconds() + "s, fastCycles=" + fastCyclesAfterChange;
+    }
+}
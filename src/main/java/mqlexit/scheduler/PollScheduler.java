@@ -0,0 +1,201 @@
+package scheduler;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import logging.LoggerManagerE;
+
+// Plant die Abrufe aller Signale nach Fälligkeit. Die Uhr ist austauschbar: Tests stellen eine eigene
+// Clock ein und rufen runDue() direkt auf, statt den Dispatcher-Thread zu starten.
+public class PollScheduler {
+
+    public interface PollTask {
+        // Führt einen Abruf aus und liefert die Wartezeit bis zum nächsten
+        Duration poll();
+    }
+
+    private static class Entry {
+        final String id;
+        final PollTask task;
+        final long sequence;
+        long dueAt;
+        boolean cancelled;
+
+        Entry(String id, PollTask task, long sequence, long dueAt) {
+            this.id = id;
+            this.task = task;
+            this.sequence = sequence;
+            this.dueAt = dueAt;
+        }
+    }
+
+    private static final long MAX_IDLE_WAIT_MILLIS = 1000;
+
+    private final Clock clock;
+    private final Executor executor;
+    private final RateLimiter rateLimiter;
+    private final long jitterMillis;
+    private final Random random;
+    private final Object lock = new Object();
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(
+        Comparator.comparingLong((Entry entry) -> entry.dueAt).thenComparingLong(entry -> entry.sequence));
+    private final Map<String, Entry> entries = new HashMap<>();
+    private long sequence = 0;
+    private Thread dispatcher;
+    private volatile boolean running = false;
+
+    public PollScheduler(Clock clock, Executor executor, RateLimiter rateLimiter, Duration jitter, Random random) {
+        this.clock = clock;
+        this.executor = executor;
+        this.rateLimiter = rateLimiter;
+        this.jitterMillis = Math.max(0, jitter.toMillis());
+        this.random = random;
+    }
+
+    public void schedule(String id, PollTask task, Duration initialDelay) {
+        synchronized (lock) {
+            Entry previous = entries.remove(id);
+            if (previous != null) {
+                previous.cancelled = true;
+                queue.remove(previous);
+            }
+            Entry entry = new Entry(id, task, sequence++, clock.millis() + initialDelay.toMillis() + jitter());
+            entries.put(id, entry);
+            queue.add(entry);
+            lock.notifyAll();
+        }
+    }
+
+    public void cancel(String id) {
+        synchronized (lock) {
+            Entry entry = entries.remove(id);
+            if (entry != null) {
+                entry.cancelled = true;
+                queue.remove(entry);
+            }
+        }
+    }
+
+    public boolean isScheduled(String id) {
+        synchronized (lock) {
+            return entries.containsKey(id);
+        }
+    }
+
+    // Zeitpunkt des nächsten Abrufs eines Signals in Millisekunden der Clock, -1 wenn gerade aktiv oder unbekannt
+    public long nextDueAt(String id) {
+        synchronized (lock) {
+            Entry entry = entries.get(id);
+            return entry != null && queue.contains(entry) ? entry.dueAt : -1;
+        }
+    }
+
+    // Startet alle fälligen Abrufe, soweit das globale Ratenlimit es erlaubt
+    public int runDue() {
+        int dispatched = 0;
+        while (true) {
+            Entry entry;
+            synchronized (lock) {
+                long now = clock.millis();
+                entry = queue.peek();
+                if (entry == null || entry.dueAt > now || !rateLimiter.tryAcquire(now)) {
+                    return dispatched;
+                }
+                queue.poll();
+            }
+            dispatch(entry);
+            dispatched++;
+        }
+    }
+
+    public long millisUntilNextDue() {
+        synchronized (lock) {
+            Entry entry = queue.peek();
+            if (entry == null) {
+                return Long.MAX_VALUE;
+            }
+            long now = clock.millis();
+            return Math.max(Math.max(0, entry.dueAt - now), rateLimiter.millisUntilAvailable(now));
+        }
+    }
+
+    private void dispatch(Entry entry) {
+        try {
+            executor.execute(() -> {
+                Duration next = null;
+                try {
+                    next = entry.task.poll();
+                } catch (RuntimeException e) {
+                    LoggerManagerE.error("Unhandled error in poll task " + entry.id + ": " + e.getMessage());
+                } finally {
+                    reschedule(entry, next);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LoggerManagerE.warn("Poll task " + entry.id + " rejected, scheduler is shutting down");
+        }
+    }
+
+    private void reschedule(Entry entry, Duration next) {
+        synchronized (lock) {
+            if (entry.cancelled || entries.get(entry.id) != entry) {
+                return;
+            }
+            long delay = next != null ? next.toMillis() : Duration.ofMinutes(1).toMillis();
+            entry.dueAt = clock.millis() + delay + jitter();
+            queue.add(entry);
+            lock.notifyAll();
+        }
+    }
+
+    private long jitter() {
+        return jitterMillis > 0 ? (long) (random.nextDouble() * jitterMillis) : 0;
+    }
+
+    public void start() {
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "poll-scheduler");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                synchronized (lock) {
+                    long wait = millisUntilNextDue();
+                    if (wait > 0) {
+                        lock.wait(Math.min(wait, MAX_IDLE_WAIT_MILLIS));
+                    }
+                }
+                runDue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LoggerManagerE.error("Error in poll scheduler: " + e.getMessage());
+            }
+        }
+    }
+
+    public void stop() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        synchronized (lock) {
+            for (Entry entry : entries.values()) {
+                entry.cancelled = true;
+            }
+            entries.clear();
+            queue.clear();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package scheduler;
+
+// Token-Bucket für die globale Abrufrate aller Signale, arbeitet nur mit übergebenen Zeitpunkten
+public class RateLimiter {
+    private final double permitsPerMilli;
+    private final double capacity;
+    private double tokens;
+    private long lastRefill;
+
+    public RateLimiter(int permitsPerMinute, int burst, long now) {
+        if (permitsPerMinute < 1 || burst < 1) {
+            throw new IllegalArgumentException("Rate limit needs at least one permit");
+        }
+        this.permitsPerMilli = permitsPerMinute / 60000.0;
+        this.capacity = burst;
+        this.tokens = burst;
+        this.lastRefill = now;
+    }
+
+    public synchronized boolean tryAcquire(long now) {
+        refill(now);
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized long millisUntilAvailable(long now) {
+        refill(now);
+        if (tokens >= 1.0) {
+            return 0;
+        }
+        return (long) Math.ceil((1.0 - tokens) / permitsPerMilli);
+    }
+
+    private void refill(long now) {
+        if (now > lastRefill) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerMilli);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package analyzer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+// Zahlen mit Tausendergruppen: typisierter Wert für Journal und Export, Originaltext für die Ausgabe
+class TradeRowTest {
+
+    @Test
+    void groupedNumberKeepsTextAndValue() {
+        TradeRow row = new TradeRow("US30", "2024.03.01 10:15:00", "Buy", "1.00", "38 912.5", "-1 000", "1\u00a0234\u202f567.25");
+        assertEquals("US30,2024.03.01 10:15:00,Buy,1.00,38 912.5,-1 000,1\u00a0234\u202f567.25", row.toString());
+        assertEquals(38912.5, Decimals.toDouble(row.getPriceDecimal()));
+        assertEquals(-1000.0, Decimals.toDouble(row.getStopLossDecimal()));
+        assertEquals(1234567.25, Decimals.toDouble(row.getTakeProfitDecimal()));
+    }
+
+    @Test
+    void malformedGroupsStayTextOnly() {
+        for (String text : new String[] {"1 23", "1234 567", "1 234 .5", "12.345 6", "0 123", "1  234"}) {
+            assertEquals(Decimals.NONE, Decimals.parseGrouped(text, 0, text.length()), text);
+            TradeRow row = new TradeRow("EURUSD", null, null, null, text, null, null);
+            assertEquals(Decimals.NONE, row.getPriceDecimal(), text);
+            assertEquals(text, row.getPrice());
+        }
+        assertEquals(Decimals.NONE, Decimals.parseGrouped(" 123", 0, 4));
+    }
+}
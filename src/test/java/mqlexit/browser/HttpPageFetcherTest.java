@@ -0,0 +1,111 @@
+package browser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.Cookie;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+// HTTP-Abruf gegen einen lokalen Stub-Server, ohne Browser und ohne Netz
+class HttpPageFetcherTest {
+    private static final String PAGE = "<html><body><table><tbody><tr><td data-label=\"Type\">Buy</td></tr>"
+        + "</tbody></table>M\u00fcnchen</body></html>";
+
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/plain", exchange -> send(exchange, 200, "text/html; charset=UTF-8", null,
+            PAGE.getBytes(StandardCharsets.UTF_8)));
+        server.createContext("/gzip", exchange -> send(exchange, 200, "text/html; charset=ISO-8859-1", "gzip",
+            gzip(PAGE.getBytes(StandardCharsets.ISO_8859_1))));
+        server.createContext("/moved", exchange -> redirect(exchange, "/plain"));
+        server.createContext("/expired", exchange -> redirect(exchange, "/en/auth_login?return=signals"));
+        server.createContext("/cookie", exchange -> {
+            String cookie = exchange.getRequestHeaders().getFirst("Cookie");
+            send(exchange, 200, "text/plain", null, String.valueOf(cookie).getBytes(StandardCharsets.UTF_8));
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void fetchesPlainPage() throws Exception {
+        assertEquals(PAGE, fetcher().fetch(baseUrl + "/plain"));
+    }
+
+    @Test
+    void decodesGzipPageWithCharsetOfResponse() throws Exception {
+        assertEquals(PAGE, fetcher().fetch(baseUrl + "/gzip"));
+    }
+
+    @Test
+    void followsOrdinaryRedirect() throws Exception {
+        assertEquals(PAGE, fetcher().fetch(baseUrl + "/moved"));
+    }
+
+    @Test
+    void redirectToLoginMeansExpiredSession() {
+        assertThrows(SessionExpiredException.class, () -> fetcher().fetch(baseUrl + "/expired"));
+    }
+
+    @Test
+    void sendsCookiesOfExportedSession() throws Exception {
+        HttpPageFetcher fetcher = fetcher();
+        fetcher.updateSession(List.of(new Cookie("uid", "42"), new Cookie("auth", "abc")), "TestAgent");
+        assertEquals("uid=42; auth=abc", fetcher.fetch(baseUrl + "/cookie"));
+        assertEquals(1, fetcher.getSessionGeneration());
+    }
+
+    private static HttpPageFetcher fetcher() {
+        return new HttpPageFetcher(Duration.ofSeconds(5));
+    }
+
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().set("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+        exchange.close();
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String encoding, byte[] body)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        if (encoding != null) {
+            exchange.getResponseHeaders().set("Content-Encoding", encoding);
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
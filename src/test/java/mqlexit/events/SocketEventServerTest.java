@@ -0,0 +1,109 @@
+package events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import analyzer.TradeChange;
+import analyzer.TradeRow;
+
+// Feed über den Loopback-Socket und die Ringdatei nebeneinander, so wie ein EA sie lesen würde
+class SocketEventServerTest {
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final TradeRow TRADE =
+        new TradeRow("EURUSD", "2024.03.01 10:15:00", "Buy", "0.10", "1.08550", "1.08000", "1.09000");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void consumerOnLoopbackAndRingFileSeeTheSameEvents() throws Exception {
+        Path ringFile = tempDir.resolve("events.ring");
+        try (SocketEventServer server = SocketEventServer.tcp(0);
+                RingFileEventSink ring = new RingFileEventSink(ringFile, 4);
+                Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            BufferedReader reader = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            awaitClients(server, 1);
+            EventFanout fanout = new EventFanout(List.of(ring, server));
+            fanout.publish(new TradeEvent("12345", 1_700_000_000_000L, TradeChange.Kind.OPENED, TRADE));
+            fanout.publish(new TradeEvent("12345", 1_700_000_001_000L, TradeChange.Kind.CLOSED, TRADE));
+
+            String opened = reader.readLine();
+            assertTrue(opened.startsWith("{\"seq\":1,\"signal\":\"12345\",\"event\":\"OPENED\""), opened);
+            assertTrue(opened.contains("\"symbol\":\"EURUSD\""), opened);
+            assertTrue(reader.readLine().contains("\"event\":\"CLOSED\""));
+
+            try (FileChannel channel = FileChannel.open(ringFile, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                assertEquals(RingFileEventSink.MAGIC, buffer.getInt(0));
+                assertEquals(2L, (long) LONGS.getAcquire(buffer, 16));
+                assertSlot(buffer, 1, RingFileEventSink.KIND_OPENED, 1_700_000_000_000L);
+                assertSlot(buffer, 2, RingFileEventSink.KIND_CLOSED, 1_700_000_001_000L);
+            }
+        }
+    }
+
+    @Test
+    void acceptLoopEndsWhenServerIsClosed() throws Exception {
+        Set<Thread> before = acceptThreads();
+        SocketEventServer server = SocketEventServer.tcp(0);
+        Set<Thread> started = acceptThreads();
+        started.removeAll(before);
+        assertEquals(1, started.size());
+        Thread acceptor = started.iterator().next();
+        server.close();
+        acceptor.join(5_000);
+        assertFalse(acceptor.isAlive());
+    }
+
+    // Leseweise aus dem Kopfkommentar von RingFileEventSink: Sequenz vor und nach den Feldern prüfen
+    private static void assertSlot(MappedByteBuffer buffer, long sequence, int kind, long observedAt) {
+        int slot = RingFileEventSink.HEADER_SIZE + (int) (sequence - 1) * RingFileEventSink.SLOT_SIZE;
+        assertEquals(sequence, (long) LONGS.getAcquire(buffer, slot));
+        long readObservedAt = buffer.getLong(slot + 8);
+        int readKind = buffer.getInt(slot + 16);
+        byte[] symbol = new byte[6];
+        buffer.get(slot + 36, symbol);
+        VarHandle.loadLoadFence();
+        assertEquals(sequence, (long) LONGS.getAcquire(buffer, slot));
+        assertEquals(observedAt, readObservedAt);
+        assertEquals(kind, readKind);
+        assertEquals("EURUSD", new String(symbol, StandardCharsets.US_ASCII));
+        assertEquals(0, buffer.get(slot + 42));
+    }
+
+    private static void awaitClients(SocketEventServer server, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (server.getClientCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, server.getClientCount());
+    }
+
+    private static Set<Thread> acceptThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+            .filter(thread -> thread.getName().equals("event-feed-accept") && thread.isAlive())
+            .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,59 @@
+package export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import analyzer.TradeRow;
+import analyzer.TradeType;
+
+// Schreiben und Lesen der Tagesdateien, auch wenn ein Signal zwischendurch entfernt und wieder angelegt wird
+class TradeSnapshotExportTest {
+    private static final long MORNING =
+        LocalDate.of(2024, 3, 1).atTime(9, 0).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    private static final List<TradeRow> TRADES = List.of(
+        new TradeRow("EURUSD", "2024.03.01 08:15:00", "Buy", "0.10", "1.08550", "1.08000", "1.09000"),
+        new TradeRow("GBPUSD", "2024.03.01 08:30:00", "Sell", "0.20", "1.26100", "", ""));
+
+    @TempDir
+    Path baseDir;
+
+    @Test
+    void releasedSignalAppendsToTheSameDayFileWhenAddedAgain() throws Exception {
+        try (TradeSnapshotExport export = new TradeSnapshotExport(baseDir)) {
+            export.append("111", MORNING, TRADES);
+            export.append("222", MORNING, TRADES.subList(0, 1));
+            export.release("111");
+            export.append("111", MORNING + 60_000, TRADES.subList(1, 2));
+        }
+
+        try (TradeSnapshotReader reader = new TradeSnapshotReader(baseDir)) {
+            TradeColumns first = reader.read("111", Long.MIN_VALUE, Long.MAX_VALUE);
+            assertEquals(2, first.snapshotCount());
+            assertEquals(3, first.size());
+            assertEquals("GBPUSD", first.symbolName(first.symbol()[2]));
+            assertEquals(0.20, first.volume()[2]);
+            assertEquals(TradeType.SELL, first.tradeType(2));
+            assertEquals(TradeType.SELL.code(), first.type()[2]);
+            assertEquals(1, reader.read("222", Long.MIN_VALUE, Long.MAX_VALUE).size());
+        }
+    }
+
+    @Test
+    void appendAfterCloseWritesNothing() throws Exception {
+        TradeSnapshotExport export = new TradeSnapshotExport(baseDir);
+        export.append("111", MORNING, TRADES);
+        export.close();
+        export.append("111", MORNING + 60_000, TRADES);
+
+        try (TradeSnapshotReader reader = new TradeSnapshotReader(baseDir)) {
+            assertEquals(1, reader.read("111", Long.MIN_VALUE, Long.MAX_VALUE).snapshotCount());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import analyzer.TradeChange;
+import analyzer.TradeRow;
+import analyzer.TradeType;
+
+// Art und Auftragsart überstehen den Weg durch die Segmentdatei, unbekannte Codes werden abgelehnt
+class TradeJournalTest {
+    private static final TradeRow BUY =
+        new TradeRow("EURUSD", "2024.03.01 10:15:00", "Buy", "0.10", "1.08550", "1.08000", "1.09000");
+    private static final TradeRow SELL_LIMIT =
+        new TradeRow("GBPUSD", "2024.03.01 10:20:00", "Sell Limit", "0.20", "1.26100", "", "");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void kindAndTypeSurviveTheSegmentFile() throws Exception {
+        try (TradeJournal journal = TradeJournal.open(tempDir)) {
+            journal.append("12345", 1_000L, List.of(
+                new TradeChange(TradeChange.Kind.OPENED, null, BUY),
+                new TradeChange(TradeChange.Kind.MODIFIED, BUY, SELL_LIMIT),
+                new TradeChange(TradeChange.Kind.CLOSED, SELL_LIMIT, null)));
+        }
+
+        try (TradeJournal journal = TradeJournal.openReadOnly(tempDir)) {
+            List<JournalEntry> entries = journal.query("12345", Long.MIN_VALUE, Long.MAX_VALUE);
+            assertEquals(3, entries.size());
+            assertEquals(TradeChange.Kind.OPENED, entries.get(0).getKind());
+            assertEquals(TradeType.BUY, entries.get(0).getTradeType());
+            assertEquals(TradeChange.Kind.MODIFIED, entries.get(1).getKind());
+            assertEquals(TradeType.SELL_LIMIT, entries.get(1).getTradeType());
+            assertEquals(TradeChange.Kind.CLOSED, entries.get(2).getKind());
+        }
+    }
+
+    @Test
+    void unknownKindCodeIsRejected() throws Exception {
+        try (TradeJournal journal = TradeJournal.open(tempDir)) {
+            journal.append("12345", 1_000L, List.of(new TradeChange(TradeChange.Kind.OPENED, null, BUY)));
+        }
+        // KIND-Byte des ersten Datensatzes liegt 16 Bytes hinter dem Kopf
+        try (FileChannel channel = FileChannel.open(tempDir.resolve(JournalSegment.fileName(1)), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {7}), JournalSegment.HEADER_SIZE + 16);
+        }
+
+        try (TradeJournal journal = TradeJournal.openReadOnly(tempDir)) {
+            assertThrows(IOException.class, () -> journal.query("12345", Long.MIN_VALUE, Long.MAX_VALUE));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package monitor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.Cookie;
+
+import com.sun.net.httpserver.HttpServer;
+
+import analyzer.AnalysisResult;
+import browser.HttpPageFetcher;
+import browser.HttpSessionSource;
+import journal.TradeJournal;
+import resilience.Backoff;
+import resilience.ResiliencePolicy;
+
+// Abrufzyklus im HTTP-Modus gegen einen lokalen Stub-Server; der Browser-Login wird durch eine Session-Quelle
+// ersetzt, die nur mitschreibt, wie oft und mit welchem Zwang sie aufgerufen wurde
+class TradeMonitorHttpTest {
+    private static final String PAGE = "<html><body><table><tbody>"
+        + "<tr><td data-label=\"Symbol\">EURUSD</td><td data-label=\"Time\">2024.03.01 10:15:00</td>"
+        + "<td data-label=\"Type\">Buy</td><td data-label=\"Volume\">0.10</td><td data-label=\"Price\">1.08550</td>"
+        + "<td data-label=\"S/L\">1.08000</td><td data-label=\"T/P\">1.09000</td></tr>"
+        + "</tbody></table></body></html>";
+
+    @TempDir
+    Path workDir;
+
+    private HttpServer server;
+    private String signalUrl;
+    private final AtomicInteger loginRedirects = new AtomicInteger();
+    private TradeJournal journal;
+    private ScheduledExecutorService watchdog;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Nur mit dem Cookie des frischen Logins gibt es die Seite, sonst geht es zur Login-Seite
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/en/signals/123", exchange -> {
+            String cookie = exchange.getRequestHeaders().getFirst("Cookie");
+            if (cookie == null || !cookie.contains("session=fresh")) {
+                loginRedirects.incrementAndGet();
+                exchange.getResponseHeaders().set("Location", "/en/auth_login");
+                exchange.sendResponseHeaders(302, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = PAGE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        signalUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/en/signals/123";
+        journal = TradeJournal.open(workDir.resolve("journal"));
+        watchdog = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.stop(0);
+        journal.close();
+        watchdog.shutdownNow();
+    }
+
+    @Test
+    void expiredSessionFallsBackToBrowserLogin() throws Exception {
+        RecordingSessionSource login = new RecordingSessionSource();
+        TradeMonitor monitor = monitor(login);
+
+        AnalysisResult result;
+        try (CycleDeadline deadline = CycleDeadline.start(Duration.ofSeconds(20), watchdog)) {
+            result = monitor.runCycle(deadline);
+        }
+
+        assertTrue(result.isTableFound());
+        assertEquals(1, result.getOpenTrades());
+        // Erst die vorhandene Session (abgelaufen, Umleitung auf auth_login), dann ein erzwungener Login
+        assertEquals(List.of(false, true), login.forcedLogins);
+        assertEquals(1, loginRedirects.get());
+        String signalFile = Files.readString(workDir.resolve("signals").resolve("signal.txt"));
+        assertEquals("EURUSD,2024.03.01 10:15:00,Buy,0.10,1.08550,1.08000,1.09000\n", signalFile);
+    }
+
+    @Test
+    void validSessionNeedsNoLogin() throws Exception {
+        RecordingSessionSource login = new RecordingSessionSource();
+        login.freshFromStart = true;
+        TradeMonitor monitor = monitor(login);
+
+        try (CycleDeadline deadline = CycleDeadline.start(Duration.ofSeconds(20), watchdog)) {
+            assertTrue(monitor.runCycle(deadline).isTableFound());
+        }
+        try (CycleDeadline deadline = CycleDeadline.start(Duration.ofSeconds(20), watchdog)) {
+            assertTrue(monitor.runCycle(deadline).isUnchanged());
+        }
+
+        assertEquals(List.of(false), login.forcedLogins);
+        assertEquals(0, loginRedirects.get());
+        assertFalse(Files.exists(workDir.resolve("signals").resolve("signal.txt.tmp")));
+    }
+
+    private TradeMonitor monitor(HttpSessionSource sessionSource) {
+        ResiliencePolicy resilience = new ResiliencePolicy(3, new Backoff(Duration.ofMillis(10), Duration.ofMillis(50)),
+            1.0, 10, 5, Duration.ofSeconds(30));
+        return new TradeMonitor(null, sessionSource, new HttpPageFetcher(Duration.ofSeconds(5)), null, journal, null,
+            null, resilience, workDir.resolve("trades").toString(), "123", workDir.resolve("signals").toString(),
+            Collections.emptyList(), signalUrl);
+    }
+
+    // Steht für den Browser-Pool: ein erzwungener Login liefert das gültige Cookie
+    private static final class RecordingSessionSource implements HttpSessionSource {
+        final List<Boolean> forcedLogins = new ArrayList<>();
+        boolean freshFromStart;
+
+        @Override
+        public void exportSessionTo(HttpPageFetcher fetcher, boolean forceLogin) {
+            forcedLogins.add(forceLogin);
+            String session = forceLogin || freshFromStart ? "fresh" : "stale";
+            fetcher.updateSession(List.of(new Cookie("session", session)), "TestAgent");
+        }
+    }
+}
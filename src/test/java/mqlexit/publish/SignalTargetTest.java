@@ -0,0 +1,140 @@
+package publish;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import metrics.MetricsRegistry;
+
+// Ziele der signal.txt: ein hängendes Ziel hält die anderen nicht auf, und nur nie geschriebener Inhalt
+// zählt als übersprungen
+class SignalTargetTest {
+    private static final byte[] FIRST = "EURUSD,2024.03.01 10:15:00,Buy,0.10,1.08550,,\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SECOND = "GBPUSD,2024.03.01 10:20:00,Sell,0.20,1.26100,,\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] THIRD = "USDJPY,2024.03.01 10:25:00,Buy,0.30,150.100,,\n".getBytes(StandardCharsets.UTF_8);
+
+    private final ExecutorService writers = Executors.newCachedThreadPool();
+    private final ScheduledExecutorService retries = Executors.newSingleThreadScheduledExecutor();
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void shutDown() {
+        writers.shutdownNow();
+        retries.shutdownNow();
+    }
+
+    @Test
+    void blockedTargetDoesNotHoldUpTheOthers() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingPublisher blocked = new RecordingPublisher(tempDir.resolve("blocked/signal.txt"), unblock, false);
+        Path freeFile = tempDir.resolve("free/signal.txt");
+        SignalTarget blockedTarget = new SignalTarget(blocked, "test-blocked", writers, retries);
+        SignalTarget freeTarget = new SignalTarget(freeFile, "test-free", writers, retries);
+
+        blockedTarget.offer(FIRST);
+        freeTarget.offer(FIRST);
+        awaitContent(freeFile, FIRST);
+        assertTrue(blocked.started.await(5, TimeUnit.SECONDS));
+
+        // Während das Ziel hängt: SECOND wird nie geschrieben, THIRD danach sofort
+        blockedTarget.offer(SECOND);
+        blockedTarget.offer(THIRD);
+        freeTarget.offer(THIRD);
+        awaitContent(freeFile, THIRD);
+        assertEquals(1, blocked.attempts.size());
+
+        unblock.countDown();
+        awaitContent(blocked.getSignalFile(), THIRD);
+        assertEquals(List.of("EURUSD", "USDJPY"), blocked.attempts);
+        assertEquals(1, MetricsRegistry.get().counter("signal_target_skipped", "test-blocked").sum());
+        assertEquals(0, MetricsRegistry.get().counter("signal_target_skipped", "test-free").sum());
+    }
+
+    @Test
+    void newerContentReplacesFailedWriteWithoutCountingASkip() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingPublisher failing = new RecordingPublisher(tempDir.resolve("failing/signal.txt"), unblock, true);
+        SignalTarget target = new SignalTarget(failing, "test-failing", writers, retries);
+
+        target.offer(FIRST);
+        assertTrue(failing.started.await(5, TimeUnit.SECONDS));
+        unblock.countDown();
+        // FIRST ist fehlgeschlagen und wartet auf seine Wiederholung (nach 500 ms), SECOND ersetzt ihn
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (MetricsRegistry.get().counter("signal_target_failures", "test-failing").sum() == 0
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(50);
+        target.offer(SECOND);
+
+        awaitContent(failing.getSignalFile(), SECOND);
+        assertEquals(List.of("EURUSD", "GBPUSD"), failing.attempts);
+        assertEquals(0, MetricsRegistry.get().counter("signal_target_skipped", "test-failing").sum());
+        assertEquals(1, MetricsRegistry.get().counter("signal_target_failures", "test-failing").sum());
+    }
+
+    private static void awaitContent(Path file, byte[] expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            if (Files.exists(file) && Arrays.equals(Files.readAllBytes(file), expected)) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        assertArrayEquals(expected, Files.exists(file) ? Files.readAllBytes(file) : null);
+    }
+
+    // Merkt sich das Symbol jedes Schreibversuchs; der erste wartet auf unblock und schlägt auf Wunsch fehl
+    private static final class RecordingPublisher extends SignalFilePublisher {
+        final List<String> attempts = new CopyOnWriteArrayList<>();
+        final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch unblock;
+        private final boolean failFirst;
+
+        RecordingPublisher(Path signalFile, CountDownLatch unblock, boolean failFirst) throws IOException {
+            super(signalFile, false);
+            Files.createDirectories(signalFile.getParent());
+            this.unblock = unblock;
+            this.failFirst = failFirst;
+        }
+
+        @Override
+        public synchronized void publish(byte[] content) throws IOException {
+            boolean first = attempts.isEmpty();
+            attempts.add(new String(content, StandardCharsets.UTF_8).substring(0, 6));
+            if (first) {
+                started.countDown();
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted", e);
+                }
+                if (failFirst) {
+                    throw new IOException("Target not reachable");
+                }
+            }
+            super.publish(content);
+        }
+    }
+}
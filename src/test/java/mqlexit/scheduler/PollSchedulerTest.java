@@ -0,0 +1,182 @@
+package scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.Test;
+
+// Scheduler mit eigener Uhr und direktem Executor: runDue() führt fällige Abrufe sofort im Testthread aus,
+// es wird nie real gewartet
+class PollSchedulerTest {
+    private static final long START = 1_700_000_000_000L;
+    private static final Executor DIRECT = Runnable::run;
+
+    private final TestClock clock = new TestClock(START);
+
+    @Test
+    void pollPolicyIsFastAfterChangeThenFollowsOpenTrades() {
+        PollPolicy policy = new PollPolicy(Duration.ofSeconds(5), Duration.ofSeconds(30), Duration.ofSeconds(120), 2);
+
+        assertEquals(Duration.ofSeconds(5), policy.nextInterval(1, 0));
+        assertEquals(Duration.ofSeconds(5), policy.nextInterval(0, 1));
+        assertEquals(Duration.ofSeconds(30), policy.nextInterval(1, 2));
+        assertEquals(Duration.ofSeconds(120), policy.nextInterval(0, 2));
+        // Noch nie eine Änderung gesehen
+        assertEquals(Duration.ofSeconds(120), policy.nextInterval(0, Integer.MAX_VALUE));
+        assertEquals(Duration.ofSeconds(30), policy.errorInterval());
+    }
+
+    @Test
+    void nextPollIsDueAfterTheIntervalReturnedByTheTask() {
+        PollScheduler scheduler = scheduler(unlimited(), Duration.ZERO, new Random(1));
+        // Wie MonitorPollTask: erst eine Änderung, dann zwei schnelle Zyklen, dann das Intervall offener Trades
+        List<Duration> intervals = new ArrayList<>(List.of(Duration.ofSeconds(5), Duration.ofSeconds(5),
+            Duration.ofSeconds(30), Duration.ofSeconds(120)));
+        List<Long> polledAt = new ArrayList<>();
+        scheduler.schedule("a", () -> {
+            polledAt.add(clock.millis() - START);
+            return intervals.remove(0);
+        }, Duration.ZERO);
+
+        assertEquals(1, scheduler.runDue());
+        assertEquals(START + 5_000, scheduler.nextDueAt("a"));
+
+        clock.advance(4_999);
+        assertEquals(0, scheduler.runDue());
+        clock.advance(1);
+        assertEquals(1, scheduler.runDue());
+        clock.advance(5_000);
+        assertEquals(1, scheduler.runDue());
+        assertEquals(clock.millis() + 30_000, scheduler.nextDueAt("a"));
+        clock.advance(30_000);
+        assertEquals(1, scheduler.runDue());
+        assertEquals(clock.millis() + 120_000, scheduler.nextDueAt("a"));
+
+        assertEquals(List.of(0L, 5_000L, 10_000L, 40_000L), polledAt);
+    }
+
+    @Test
+    void failedTaskIsRetriedAfterOneMinute() {
+        PollScheduler scheduler = scheduler(unlimited(), Duration.ZERO, new Random(1));
+        scheduler.schedule("a", () -> {
+            throw new IllegalStateException("boom");
+        }, Duration.ZERO);
+
+        assertEquals(1, scheduler.runDue());
+        assertEquals(START + 60_000, scheduler.nextDueAt("a"));
+    }
+
+    @Test
+    void jitterSpreadsPollsWithinItsBound() {
+        PollScheduler scheduler = scheduler(unlimited(), Duration.ofSeconds(2), new Random(42));
+        Set<Long> dueTimes = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            scheduler.schedule("s" + i, () -> Duration.ofSeconds(10), Duration.ofSeconds(10));
+            long dueAt = scheduler.nextDueAt("s" + i);
+            assertTrue(dueAt >= START + 10_000 && dueAt < START + 12_000, "due at " + dueAt);
+            dueTimes.add(dueAt);
+        }
+        // Nicht alle Signale auf denselben Zeitpunkt
+        assertTrue(dueTimes.size() > 50, "only " + dueTimes.size() + " distinct due times");
+
+        clock.advance(12_000);
+        assertEquals(100, scheduler.runDue());
+        for (int i = 0; i < 100; i++) {
+            long dueAt = scheduler.nextDueAt("s" + i);
+            assertTrue(dueAt >= clock.millis() + 10_000 && dueAt < clock.millis() + 12_000, "due at " + dueAt);
+        }
+    }
+
+    @Test
+    void globalRateLimitHoldsBackDuePolls() {
+        // 6 Abrufe pro Minute, also einer alle 10 s, mit einem Vorrat von 2
+        RateLimiter limiter = new RateLimiter(6, 2, START);
+        PollScheduler scheduler = scheduler(limiter, Duration.ZERO, new Random(1));
+        List<String> polled = new ArrayList<>();
+        for (String id : List.of("a", "b", "c", "d", "e")) {
+            scheduler.schedule(id, () -> {
+                polled.add(id);
+                return Duration.ofHours(1);
+            }, Duration.ZERO);
+        }
+
+        assertEquals(2, scheduler.runDue());
+        assertEquals(10_000, scheduler.millisUntilNextDue());
+        clock.advance(9_999);
+        assertEquals(0, scheduler.runDue());
+        clock.advance(1);
+        assertEquals(1, scheduler.runDue());
+        clock.advance(20_000);
+        assertEquals(2, scheduler.runDue());
+
+        // Der Reihe nach, kein Signal wurde übergangen
+        assertEquals(List.of("a", "b", "c", "d", "e"), polled);
+    }
+
+    @Test
+    void cancelledSignalIsNotRescheduled() {
+        PollScheduler scheduler = scheduler(unlimited(), Duration.ZERO, new Random(1));
+        scheduler.schedule("a", () -> {
+            scheduler.cancel("a");
+            return Duration.ofSeconds(5);
+        }, Duration.ZERO);
+
+        assertEquals(1, scheduler.runDue());
+        assertFalse(scheduler.isScheduled("a"));
+        assertEquals(-1, scheduler.nextDueAt("a"));
+        assertEquals(Long.MAX_VALUE, scheduler.millisUntilNextDue());
+    }
+
+    private PollScheduler scheduler(RateLimiter limiter, Duration jitter, Random random) {
+        return new PollScheduler(clock, DIRECT, limiter, jitter, random);
+    }
+
+    private static RateLimiter unlimited() {
+        return new RateLimiter(600_000, 10_000, START);
+    }
+
+    private static final class TestClock extends Clock {
+        private long millis;
+
+        TestClock(long millis) {
+            this.millis = millis;
+        }
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}